@@ -23,6 +23,7 @@ dependencies {
         api(project(":extra:extra-dfu3"))
         api(project(":extra:extra-dfu4"))
         api(project(":tool"))
+        api(format("binary"))
         api(format("gson"))
         api(format("hocon"))
         api(format("jackson"))
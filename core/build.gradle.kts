@@ -43,3 +43,25 @@ if (JavaVersion.current() >= JavaVersion.VERSION_14) {
         jvmArgs("--enable-preview") // For records
     }
 }
+
+// Benchmarks, run with `./gradlew :core:jmh`
+// Arguments are passed to the JMH runner with -PjmhArgs="..."
+
+val jmh by sourceSets.registering {
+    compileClasspath += sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().runtimeClasspath
+}
+
+dependencies {
+    "jmhImplementation"(sourceSets.main.map { it.output })
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.26")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.26")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    description = "Run JMH benchmarks"
+    classpath(jmh.map { it.runtimeClasspath })
+    mainClass.set("org.openjdk.jmh.Main")
+    (findProperty("jmhArgs") as String?)?.let { args(it.split(' ')) }
+}
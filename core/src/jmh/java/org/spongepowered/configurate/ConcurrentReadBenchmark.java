@@ -0,0 +1,110 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures read throughput on a shared node tree while another thread
+ * modifies it.
+ *
+ * <p>The number of reader threads can be scaled with the {@code -tg} option,
+ * which takes the reader count first and the writer count second. For
+ * example, to measure with 1 to 64 readers and a single writer:</p>
+ *
+ * <pre>
+ * ./gradlew :core:jmh -PjmhArgs="ConcurrentRead -tg 1,1 -tg 8,1 -tg 64,1"
+ * </pre>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentReadBenchmark {
+
+    private static final int CHILD_COUNT = 64;
+    private static final String[] KEYS = new String[CHILD_COUNT];
+
+    static {
+        for (int i = 0; i < CHILD_COUNT; ++i) {
+            KEYS[i] = "key" + i;
+        }
+    }
+
+    private final BasicConfigurationNode root = BasicConfigurationNode.root();
+
+    @Setup
+    public void populate() {
+        for (int i = 0; i < CHILD_COUNT; ++i) {
+            this.root.node("section").appendListNode().node("value").raw(i);
+            this.root.node("settings", KEYS[i]).raw("value" + i);
+        }
+    }
+
+    /**
+     * Per-thread position in the tree.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index;
+
+        int next() {
+            return this.index = (this.index + 1) % CHILD_COUNT;
+        }
+
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public int read(final Cursor cursor) {
+        final int index = cursor.next();
+        final int value = this.root.node("section", index, "value").getInt();
+        final BasicConfigurationNode settings = this.root.node("settings");
+        return value + settings.childCount() + settings.node(KEYS[index]).getString("").length();
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public void write(final Cursor cursor) {
+        final int index = cursor.next();
+        this.root.node("settings", KEYS[index]).raw("value" + index);
+        if (index == 0) {
+            this.root.removeChild("churn");
+        } else {
+            this.root.node("churn", KEYS[index]).raw(index);
+        }
+    }
+
+}
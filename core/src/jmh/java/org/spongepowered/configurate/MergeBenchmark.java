@@ -0,0 +1,89 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures merging a large tree of defaults into a user configuration that
+ * already holds most of the same keys.
+ *
+ * <p>The defaults hold 1000 sections of 100 values each, for 100k nodes.
+ * The user tree holds the given percentage of those values.</p>
+ *
+ * <pre>
+ * ./gradlew :core:jmh -PjmhArgs="Merge"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MergeBenchmark {
+
+    private static final int SECTIONS = 1000;
+    private static final int VALUES = 100;
+
+    @Param({"50", "90"})
+    private int populatedPercent;
+
+    private BasicConfigurationNode defaults;
+    private BasicConfigurationNode populated;
+    private BasicConfigurationNode target;
+
+    @Setup
+    public void buildTrees() {
+        this.defaults = BasicConfigurationNode.root();
+        this.populated = BasicConfigurationNode.root();
+        for (int i = 0; i < SECTIONS; ++i) {
+            final BasicConfigurationNode defaultSection = this.defaults.node("section" + i);
+            final BasicConfigurationNode userSection = this.populated.node("section" + i);
+            for (int j = 0; j < VALUES; ++j) {
+                defaultSection.node("value" + j).rawInt(j);
+                if (j < this.populatedPercent) {
+                    userSection.node("value" + j).rawInt(-j);
+                }
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copyTarget() {
+        this.target = this.populated.copy();
+    }
+
+    @Benchmark
+    public BasicConfigurationNode mergeDefaults() {
+        return this.target.mergeFrom(this.defaults);
+    }
+
+}
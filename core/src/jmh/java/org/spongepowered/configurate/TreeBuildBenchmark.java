@@ -0,0 +1,94 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building a tree the way loaders used to, one node at a time
+ * through the node API, with building it through a {@link TreeBuilder}.
+ *
+ * <p>Both benchmarks produce the same tree: a map of sections, each holding
+ * a few scalars and a short list, similar to a large generated
+ * configuration.</p>
+ *
+ * <pre>
+ * ./gradlew :core:jmh -PjmhArgs="TreeBuild"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeBuildBenchmark {
+
+    private static final String[] KEYS = {"name", "host", "port", "weight", "enabled", "tags"};
+
+    @Param({"100", "10000"})
+    private int sections;
+
+    @Benchmark
+    public BasicConfigurationNode nodeApi() {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        for (int i = 0; i < this.sections; ++i) {
+            final BasicConfigurationNode section = root.node("section" + i);
+            section.node(KEYS[0]).raw("backend" + i);
+            section.node(KEYS[1]).raw("10.0.0.1");
+            section.node(KEYS[2]).rawInt(8080 + i);
+            section.node(KEYS[3]).rawDouble(0.5);
+            section.node(KEYS[4]).rawBoolean(true);
+            final BasicConfigurationNode tags = section.node(KEYS[5]);
+            for (int j = 0; j < 4; ++j) {
+                tags.appendListNode().raw("tag" + j);
+            }
+        }
+        return root;
+    }
+
+    @Benchmark
+    public BasicConfigurationNode treeBuilder() {
+        final TreeBuilder<BasicConfigurationNode> builder = TreeBuilder.into(BasicConfigurationNode.root()).beginMap();
+        for (int i = 0; i < this.sections; ++i) {
+            builder.key("section" + i).beginMap()
+                .key(KEYS[0]).scalar("backend" + i)
+                .key(KEYS[1]).scalar("10.0.0.1")
+                .key(KEYS[2]).scalarInt(8080 + i)
+                .key(KEYS[3]).scalarDouble(0.5)
+                .key(KEYS[4]).scalarBoolean(true)
+                .key(KEYS[5]).beginList();
+            for (int j = 0; j < 4; ++j) {
+                builder.scalar("tag" + j);
+            }
+            builder.end().end();
+        }
+        return builder.end().finish();
+    }
+
+}
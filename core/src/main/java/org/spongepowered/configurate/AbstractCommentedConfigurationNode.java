@@ -20,15 +20,26 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 abstract class AbstractCommentedConfigurationNode<N extends CommentedConfigurationNodeIntermediary<N>, A extends
         AbstractCommentedConfigurationNode<N, A>> extends AbstractConfigurationNode<N, A> implements CommentedConfigurationNodeIntermediary<N> {
 
-    protected final AtomicReference<String> comment = new AtomicReference<>();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AbstractCommentedConfigurationNode, String> COMMENT =
+            AtomicReferenceFieldUpdater.newUpdater(AbstractCommentedConfigurationNode.class, String.class, "comment");
+
+    /**
+     * The comment on this node.
+     *
+     * <p>Held directly rather than in an atomic wrapper so nodes without a
+     * comment cost no more than a basic node.</p>
+     */
+    protected volatile @Nullable String comment;
 
     protected AbstractCommentedConfigurationNode(final @Nullable A parent, final A copyOf) {
         super(parent, copyOf);
+        this.comment = copyOf.comment;
     }
 
     protected AbstractCommentedConfigurationNode(final @Nullable Object key, final @Nullable A parent, final @NonNull ConfigurationOptions options) {
@@ -37,47 +48,77 @@ abstract class AbstractCommentedConfigurationNode<N extends CommentedConfigurati
 
     @Override
     public @Nullable String comment() {
-        return this.comment.get();
+        return this.comment;
     }
 
     @Override
     public N comment(final @Nullable String comment) {
-        if (!Objects.equals(this.comment.getAndSet(comment), comment)) {
-            attachIfNecessary();
-        }
+        @Nullable String existing;
+        do {
+            existing = this.comment;
+            if (Objects.equals(existing, comment)) {
+                // keep the existing instance, so equal comments are not duplicated
+                return self();
+            }
+        } while (!this.replaceComment(existing, comment));
+        attachIfNecessary();
+        modified();
         return self();
     }
 
     @Override
     public N commentIfAbsent(final String comment) {
-        if (this.comment.compareAndSet(null, comment)) {
+        if (this.replaceComment(null, comment)) {
             attachIfNecessary();
+            modified();
         }
         return self();
     }
 
+    private boolean replaceComment(final @Nullable String expected, final @Nullable String comment) {
+        if (this.confined) {
+            if (this.comment != expected) {
+                return false;
+            }
+            this.comment = comment;
+            return true;
+        }
+        return COMMENT.compareAndSet(this, expected, comment);
+    }
+
+    @Override
+    void initFrom(final FrozenConfigurationNode source) {
+        super.initFrom(source);
+        this.comment = source.comment();
+    }
+
     @Override
     public N from(final ConfigurationNode that) {
-        if (that instanceof CommentedConfigurationNodeIntermediary<?>) {
-            final @Nullable String otherComment = ((CommentedConfigurationNodeIntermediary<?>) that).comment();
-            if (otherComment != null) {
-                comment(otherComment);
-            }
+        final @Nullable String otherComment = commentOf(that);
+        if (otherComment != null) {
+            comment(otherComment);
         }
         return super.from(that);
     }
 
     @Override
     public N mergeFrom(final ConfigurationNode other) {
-        if (other instanceof CommentedConfigurationNodeIntermediary<?>) {
-            final @Nullable String otherComment = ((CommentedConfigurationNodeIntermediary<?>) other).comment();
-            if (otherComment != null) {
-                commentIfAbsent(otherComment);
-            }
+        final @Nullable String otherComment = commentOf(other);
+        if (otherComment != null) {
+            commentIfAbsent(otherComment);
         }
         return super.mergeFrom(other);
     }
 
+    private static @Nullable String commentOf(final ConfigurationNode node) {
+        if (node instanceof CommentedConfigurationNodeIntermediary<?>) {
+            return ((CommentedConfigurationNodeIntermediary<?>) node).comment();
+        } else if (node instanceof FrozenConfigurationNode) {
+            return ((FrozenConfigurationNode) node).comment();
+        }
+        return null;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -93,13 +134,13 @@ abstract class AbstractCommentedConfigurationNode<N extends CommentedConfigurati
         }
 
         final AbstractCommentedConfigurationNode<?, ?> that = (AbstractCommentedConfigurationNode<?, ?>) o;
-        return Objects.equals(this.comment.get(), that.comment.get());
+        return Objects.equals(this.comment, that.comment);
     }
 
     @Override
     public int hashCode() {
         int result = super.hashCode();
-        result = 31 * result + Objects.hashCode(this.comment.get());
+        result = 31 * result + Objects.hashCode(this.comment);
         return result;
     }
 
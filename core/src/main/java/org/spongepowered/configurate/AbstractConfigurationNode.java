@@ -23,7 +23,6 @@ import static java.util.Objects.requireNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.configurate.serialize.SerializationException;
 import org.spongepowered.configurate.serialize.TypeSerializer;
-import org.spongepowered.configurate.util.UnmodifiableCollections;
 
 import java.lang.reflect.Type;
 import java.util.ArrayDeque;
@@ -31,11 +30,18 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
 
 /**
  * Simple implementation of {@link ConfigurationNode}.
@@ -43,6 +49,27 @@ import java.util.concurrent.ConcurrentHashMap;
 abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A extends AbstractConfigurationNode<N, A>>
         implements ScopedConfigurationNode<N> {
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<AbstractConfigurationNode> STRUCTURE_VERSION =
+            AtomicLongFieldUpdater.newUpdater(AbstractConfigurationNode.class, "structureVersion");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<AbstractConfigurationNode> MODIFICATION_STAMP =
+            AtomicLongFieldUpdater.newUpdater(AbstractConfigurationNode.class, "modificationStamp");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AbstractConfigurationNode, HintMap> HINTS =
+            AtomicReferenceFieldUpdater.newUpdater(AbstractConfigurationNode.class, HintMap.class, "hints");
+    private static final AtomicLong UNTRACKED_STAMP = new AtomicLong();
+    /**
+     * Incremented whenever a node with a cached path is moved to a new key,
+     * invalidating the cached paths of every node.
+     *
+     * <p>Nodes never change parent, and are only moved when list elements
+     * are removed or appended, so cached paths are rarely invalidated.</p>
+     */
+    private static final AtomicLong PATH_GENERATION = new AtomicLong();
+    private static final Object[] NO_CHILDREN = new Object[0];
+    private static final int CHILD_CHARACTERISTICS = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
     /**
      * The options determining the behaviour of this node.
      */
@@ -53,6 +80,15 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
      */
     volatile boolean attached;
 
+    /**
+     * If this node is confined to the thread building it.
+     *
+     * <p>Confined nodes skip all locking, and must only be accessed by a
+     * single thread until {@link #publish()} is called. Children share the
+     * state of their parent, and copies are never confined.</p>
+     */
+    boolean confined;
+
     /**
      * Path of this node.
      *
@@ -66,6 +102,22 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
      */
     private @Nullable A parent;
 
+    /**
+     * The most recently computed path of this node.
+     */
+    private volatile @Nullable CachedPath path;
+
+    /**
+     * The most recently computed hash code of this node's value.
+     */
+    private volatile @Nullable CachedHash hash;
+
+    /**
+     * The most recently deserialized value of this node, if caching is
+     * enabled in the node's options.
+     */
+    private volatile @Nullable CachedValue deserialized;
+
     /**
      * The current value of this node.
      */
@@ -73,8 +125,24 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
 
     /**
      * Storage for representation hints.
+     *
+     * <p>Shared with copies, and replaced as a whole when modified.</p>
+     */
+    volatile HintMap hints;
+
+    /**
+     * A counter that is incremented whenever nodes are attached to or
+     * detached from the tree.
+     *
+     * <p>Only maintained on root nodes.</p>
      */
-    final Map<RepresentationHint<?>, Object> hints;
+    private volatile long structureVersion;
+
+    /**
+     * A counter that is incremented whenever this node or any of its
+     * children is modified.
+     */
+    private volatile long modificationStamp;
 
     protected AbstractConfigurationNode(final @Nullable Object key, final @Nullable A parent, final ConfigurationOptions options) {
         requireNonNull(options, "options");
@@ -86,7 +154,8 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
         this.options = options;
         this.parent = parent;
         this.value = NullConfigValue.instance();
-        this.hints = new ConcurrentHashMap<>();
+        this.hints = HintMap.EMPTY;
+        this.confined = parent != null && parent.confined;
 
         // if the parent is null, this node is a root node, and is therefore "attached"
         if (parent == null) {
@@ -99,8 +168,32 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
         this.attached = true; // copies are always attached
         this.key = copyOf.key;
         this.parent = parent;
-        this.value = copyOf.value.copy(implSelf());
-        this.hints = new ConcurrentHashMap<>(copyOf.hints);
+        this.value = NullConfigValue.instance(); // copied by copy(A, boolean)
+        this.hints = copyOf.hints;
+        // copies may escape the thread that made them, so are never confined
+    }
+
+    /**
+     * Get a new stamp for a node that does not track modifications.
+     *
+     * @return a stamp that has never been returned before
+     * @see ConfigurationNode#modificationStamp()
+     */
+    static long untrackedStamp() {
+        return UNTRACKED_STAMP.incrementAndGet();
+    }
+
+    /**
+     * Confine a newly created root node to the current thread.
+     *
+     * @param node the node
+     * @param <T> node type
+     * @return the same node
+     * @see ConfigurationNode#publish()
+     */
+    static <T extends AbstractConfigurationNode<?, ?>> T confine(final T node) {
+        node.confined = true;
+        return node;
     }
 
     /**
@@ -123,6 +216,16 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
     @Override
     public final @Nullable Object get(final Type type) throws SerializationException {
         requireNonNull(type, "type");
+        // read the stamp first, so changes made while deserializing invalidate the result
+        final long stamp = this.modificationStamp;
+        final boolean cache = this.options.cacheDeserializedValues();
+        if (cache) {
+            final @Nullable CachedValue cached = this.deserialized;
+            if (cached != null && cached.stamp == stamp && cached.type.equals(type)) {
+                return cached.value;
+            }
+        }
+
         if (isMissingTypeParameters(type)) {
             throw new SerializationException(this, type, "Raw types are not supported");
         }
@@ -148,7 +251,12 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
             }
         }
         try {
-            return serial.deserialize(type, self());
+            final @Nullable Object value = serial.deserialize(type, self());
+            // any defaults copied in have changed the stamp, so are only cached once present
+            if (cache && this.modificationStamp == stamp) {
+                this.deserialized = new CachedValue(stamp, type, value);
+            }
+            return value;
         } catch (final SerializationException ex) {
             ex.initPath(this::path);
             ex.initType(type);
@@ -187,33 +295,33 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
             return self();
         }
 
-        this.hints.clear();
-        this.hints.putAll(that.ownHints());
-        if (that.isList()) {
+        this.hints = HintMap.EMPTY.withAll(that.ownHints());
+        if (that instanceof FrozenConfigurationNode && (that.isList() || that.isMap())) {
+            // share the snapshot, creating child nodes only when they are needed
+            attachIfNecessary();
+            final FrozenConfigurationNode frozen = (FrozenConfigurationNode) that;
+            this.value = frozen.isList() ? new ListConfigValue<>(implSelf(), frozen) : new MapConfigValue<>(implSelf(), frozen);
+        } else if (that.isList()) {
             // handle list
             attachIfNecessary();
             final ListConfigValue<N, A> newList = new ListConfigValue<>(implSelf());
-            synchronized (that) {
-                final List<? extends ConfigurationNode> children = that.childrenList();
-                for (int i = 0; i < children.size(); i++) {
-                    final A node = createNode(i);
-                    node.attached = true;
-                    node.from(children.get(i));
-                    newList.putChild(i, node);
-                }
+            final List<? extends ConfigurationNode> children = that.childrenList();
+            for (int i = 0; i < children.size(); i++) {
+                final A node = createNode(i);
+                node.attached = true;
+                node.from(children.get(i));
+                newList.putChild(i, node);
             }
             this.value = newList;
         } else if (that.isMap()) {
             // handle map
             attachIfNecessary();
             final MapConfigValue<N, A> newMap = new MapConfigValue<>(implSelf());
-            synchronized (that) {
-                for (Map.Entry<Object, ? extends ConfigurationNode> entry : that.childrenMap().entrySet()) {
-                    final A node = createNode(entry.getKey());
-                    node.attached = true;
-                    node.from(entry.getValue());
-                    newMap.putChild(entry.getKey(), node);
-                }
+            for (Map.Entry<Object, ? extends ConfigurationNode> entry : that.childrenMap().entrySet()) {
+                final A node = createNode(entry.getKey());
+                node.attached = true;
+                node.from(entry.getValue());
+                newMap.putChild(entry.getKey(), node);
             }
             this.value = newMap;
         } else {
@@ -221,6 +329,8 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
             this.raw(that.raw());
         }
 
+        structureChanged();
+        modified();
         return self();
     }
 
@@ -238,34 +348,194 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
 
         attachIfNecessary();
 
-        synchronized (this) {
-            final ConfigValue<N, A> oldValue;
-            ConfigValue<N, A> value;
-            oldValue = value = this.value;
+        if (this.confined) {
+            this.replaceValue(newValue, onlyIfNull);
+        } else {
+            synchronized (this) {
+                this.replaceValue(newValue, onlyIfNull);
+            }
+        }
+    }
+
+    private void replaceValue(final Object newValue, final boolean onlyIfNull) {
+        final ConfigValue<N, A> oldValue;
+        ConfigValue<N, A> value;
+        oldValue = value = this.value;
 
-            if (onlyIfNull && !(oldValue instanceof NullConfigValue)) {
-                return;
+        if (onlyIfNull && !(oldValue instanceof NullConfigValue)) {
+            return;
+        }
+
+        // init new config value backing for the new value type if necessary,
+        // then insert the data into the config value
+        if (newValue instanceof Collection) {
+            if (!(value instanceof ListConfigValue)) {
+                value = new ListConfigValue<>(implSelf());
+            }
+            value.set(newValue);
+        } else if (newValue instanceof Map) {
+            if (!(value instanceof MapConfigValue)) {
+                value = new MapConfigValue<>(implSelf());
             }
+            value.set(newValue);
+        } else {
+            // scalar values are immutable, so are always replaced
+            value = ScalarConfigValue.of(implSelf(), newValue);
+        }
 
-            // init new config value backing for the new value type if necessary
-            if (newValue instanceof Collection) {
-                if (!(value instanceof ListConfigValue)) {
-                    value = new ListConfigValue<>(implSelf());
-                }
-            } else if (newValue instanceof Map) {
-                if (!(value instanceof MapConfigValue)) {
-                    value = new MapConfigValue<>(implSelf());
-                }
-            } else if (!(value instanceof ScalarConfigValue)) {
-                value = new ScalarConfigValue<>(implSelf());
+        this.value = value;
+        if (hasChildren(oldValue) || hasChildren(value)) {
+            structureChanged();
+        }
+        modified();
+    }
+
+    /**
+     * Replace the value of this node with a new scalar value.
+     *
+     * @param newValue the new value
+     * @return this node
+     */
+    private N insertScalar(final ScalarConfigValue<N, A> newValue) {
+        insertValue(newValue);
+        return self();
+    }
+
+    /**
+     * Replace the value of this node with a value that was built for it.
+     *
+     * <p>This publishes the value, and any children it holds, to other
+     * threads.</p>
+     *
+     * @param newValue the new value
+     */
+    final void insertValue(final ConfigValue<N, A> newValue) {
+        attachIfNecessary();
+        if (this.confined) {
+            this.swapValue(newValue);
+        } else {
+            synchronized (this) {
+                this.swapValue(newValue);
             }
+        }
+    }
 
-            // insert the data into the config value
-            value.set(newValue);
-            this.value = value;
+    private void swapValue(final ConfigValue<N, A> newValue) {
+        final ConfigValue<N, A> oldValue = this.value;
+        this.value = newValue;
+        // detach any children of the replaced value, as clear() does
+        if (oldValue != newValue) {
+            oldValue.clear();
+        }
+        if (hasChildren(oldValue) || hasChildren(newValue)) {
+            structureChanged();
+        }
+        modified();
+    }
+
+    private static boolean hasChildren(final ConfigValue<?, ?> value) {
+        return value instanceof MapConfigValue<?, ?> || value instanceof ListConfigValue<?, ?>;
+    }
+
+    /**
+     * Get the structure version of the tree this node is part of.
+     *
+     * <p>The structure version changes whenever nodes are attached to or
+     * detached from the tree, but not when scalar values change. Nodes
+     * resolved from a tree can be reused for as long as its structure
+     * version is unchanged.</p>
+     *
+     * @return the current structure version
+     */
+    final long structureVersion() {
+        return root().structureVersion;
+    }
+
+    private void structureChanged() {
+        final AbstractConfigurationNode<N, A> root = root();
+        if (root.confined) {
+            root.structureVersion++;
+        } else {
+            STRUCTURE_VERSION.incrementAndGet(root);
+        }
+    }
+
+    @Override
+    public final long modificationStamp() {
+        return this.modificationStamp;
+    }
+
+    /**
+     * Record a modification of this node, updating the modification stamp
+     * of this node and every attached ancestor.
+     */
+    final void modified() {
+        AbstractConfigurationNode<N, A> pointer = this;
+        incrementStamp(pointer);
+        @Nullable A next;
+        while (pointer.attached && (next = pointer.parent) != null) {
+            pointer = next;
+            incrementStamp(pointer);
+        }
+    }
+
+    /**
+     * Move this node to a new key within its parent.
+     *
+     * <p>Only the stamp of this node is updated, since the parent records
+     * its own modification for the change that caused the move.</p>
+     *
+     * @param key the new key
+     */
+    final void rekey(final Object key) {
+        this.key = key;
+        incrementStamp(this);
+        // a descendant can only have cached its path if this node has too
+        if (this.path != null) {
+            PATH_GENERATION.incrementAndGet();
+        }
+    }
+
+    private static void incrementStamp(final AbstractConfigurationNode<?, ?> node) {
+        if (node.confined) {
+            node.modificationStamp++;
+        } else {
+            MODIFICATION_STAMP.incrementAndGet(node);
+        }
+    }
+
+    /**
+     * Initialize a newly created node with the contents of a snapshot.
+     *
+     * <p>Unlike {@link #from(ConfigurationNode)}, this neither attaches the
+     * node nor records a modification, as it is only used to materialize
+     * nodes that logically already exist.</p>
+     *
+     * @param source the snapshot to take the contents of
+     */
+    void initFrom(final FrozenConfigurationNode source) {
+        updateHints(h -> h.withAll(source.ownHints()));
+        if (source.isList()) {
+            this.value = new ListConfigValue<>(implSelf(), source);
+        } else if (source.isMap()) {
+            this.value = new MapConfigValue<>(implSelf(), source);
+        } else {
+            final @Nullable Object scalar = source.rawScalar();
+            if (scalar != null) {
+                this.value = ScalarConfigValue.of(implSelf(), scalar);
+            }
         }
     }
 
+    private AbstractConfigurationNode<N, A> root() {
+        AbstractConfigurationNode<N, A> pointer = this;
+        @Nullable A next;
+        while ((next = pointer.parent) != null) {
+            pointer = next;
+        }
+        return pointer;
+    }
+
     @Override
     public N mergeFrom(final ConfigurationNode other) {
         // If we are empty, then just directly set our value from the source
@@ -273,42 +543,14 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
             return this.from(other);
         }
 
-        this.hints.putAll(other.ownHints());
+        updateHints(h -> h.withAll(other.ownHints()));
         if (other.isMap()) {
-            final ConfigValue<N, A> oldValue;
-            ConfigValue<N, A> newValue;
-            synchronized (this) {
-                oldValue = newValue = this.value;
-
-                // ensure the current type is applicable.
-                if (!(oldValue instanceof MapConfigValue)) {
-                    if (oldValue instanceof NullConfigValue) {
-                        newValue = new MapConfigValue<>(implSelf());
-                    } else {
-                        return self();
-                    }
-                }
-
-                // merge values from 'other'
-                for (Map.Entry<Object, ? extends ConfigurationNode> ent : other.childrenMap().entrySet()) {
-                    final @Nullable A currentChild = newValue.child(ent.getKey());
-                    // Never allow null values to overwrite non-null values
-                    if ((currentChild != null && currentChild.raw() != null) && ent.getValue().raw() == null) {
-                        continue;
-                    }
-
-                    // create a new child node for the value
-                    final A newChild = this.createNode(ent.getKey());
-                    newChild.attached = true;
-                    newChild.from(ent.getValue());
-                    // replace the existing value, if absent
-                    final @Nullable A existing = newValue.putChildIfAbsent(ent.getKey(), newChild);
-                    // if an existing value was present, attempt to merge the new value into it
-                    if (existing != null) {
-                        existing.mergeFrom(newChild);
-                    }
+            if (this.confined) {
+                this.mergeMap(other);
+            } else {
+                synchronized (this) {
+                    this.mergeMap(other);
                 }
-                this.value = newValue;
             }
         } else if (other.isList()) {
             if (virtual()) {
@@ -321,6 +563,56 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
         return self();
     }
 
+    private void mergeMap(final ConfigurationNode other) {
+        final ConfigValue<N, A> oldValue;
+        ConfigValue<N, A> newValue;
+        oldValue = newValue = this.value;
+
+        // ensure the current type is applicable.
+        if (!(oldValue instanceof MapConfigValue)) {
+            if (oldValue instanceof NullConfigValue) {
+                newValue = new MapConfigValue<>(implSelf());
+            } else {
+                return;
+            }
+        }
+
+        // merge values from 'other', walking both trees together so only
+        // subtrees absent from this node are copied
+        boolean attachedAny = newValue != oldValue;
+        for (Map.Entry<Object, ? extends ConfigurationNode> ent : other.childrenMap().entrySet()) {
+            final ConfigurationNode source = ent.getValue();
+            final @Nullable A currentChild = newValue.child(ent.getKey());
+            if (currentChild != null) {
+                // Never allow null values to overwrite non-null values
+                if (currentChild.value instanceof NullConfigValue || !isNull(source)) {
+                    currentChild.mergeFrom(source);
+                }
+                continue;
+            }
+
+            // create a new child node for the value
+            final A newChild = this.createNode(ent.getKey());
+            newChild.attached = true;
+            newChild.from(source);
+            final @Nullable A existing = newValue.putChildIfAbsent(ent.getKey(), newChild);
+            if (existing != null) {
+                existing.mergeFrom(source);
+            } else {
+                attachedAny = true;
+            }
+        }
+        this.value = newValue;
+        if (attachedAny) {
+            structureChanged();
+        }
+        modified();
+    }
+
+    private static boolean isNull(final ConfigurationNode node) {
+        return !node.isMap() && !node.isList() && node.rawScalar() == null;
+    }
+
     @Override
     public final @Nullable Object raw() {
         return this.value.get();
@@ -343,6 +635,26 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
         return self();
     }
 
+    @Override
+    public final N rawInt(final int value) {
+        return insertScalar(ScalarConfigValue.ofInt(implSelf(), value));
+    }
+
+    @Override
+    public final N rawLong(final long value) {
+        return insertScalar(ScalarConfigValue.ofLong(implSelf(), value));
+    }
+
+    @Override
+    public final N rawDouble(final double value) {
+        return insertScalar(ScalarConfigValue.ofDouble(implSelf(), value));
+    }
+
+    @Override
+    public final N rawBoolean(final boolean value) {
+        return insertScalar(ScalarConfigValue.ofBoolean(implSelf(), value));
+    }
+
     @Override
     public final @Nullable Object rawScalar() {
         final ConfigValue<N, A> value = this.value;
@@ -353,6 +665,44 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
         }
     }
 
+    @Override
+    public final int getInt(final int def) {
+        final ConfigValue<N, A> value = this.value;
+        if (value instanceof ScalarConfigValue.OfInt<?, ?>) {
+            return ((ScalarConfigValue.OfInt<?, ?>) value).value;
+        }
+        return ScopedConfigurationNode.super.getInt(def);
+    }
+
+    @Override
+    public final long getLong(final long def) {
+        final ConfigValue<N, A> value = this.value;
+        if (value instanceof ScalarConfigValue.OfLong<?, ?>) {
+            return ((ScalarConfigValue.OfLong<?, ?>) value).value;
+        } else if (value instanceof ScalarConfigValue.OfInt<?, ?>) {
+            return ((ScalarConfigValue.OfInt<?, ?>) value).value;
+        }
+        return ScopedConfigurationNode.super.getLong(def);
+    }
+
+    @Override
+    public final double getDouble(final double def) {
+        final ConfigValue<N, A> value = this.value;
+        if (value instanceof ScalarConfigValue.OfDouble<?, ?>) {
+            return ((ScalarConfigValue.OfDouble<?, ?>) value).value;
+        }
+        return ScopedConfigurationNode.super.getDouble(def);
+    }
+
+    @Override
+    public final boolean getBoolean(final boolean def) {
+        final ConfigValue<N, A> value = this.value;
+        if (value instanceof ScalarConfigValue.OfBoolean<?, ?>) {
+            return ((ScalarConfigValue.OfBoolean<?, ?>) value).value;
+        }
+        return ScopedConfigurationNode.super.getBoolean(def);
+    }
+
     @Override
     public final N node(final Object... path) {
         A pointer = implSelf();
@@ -371,6 +721,32 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
         return pointer.self();
     }
 
+    @Override
+    public final @Nullable N find(final Object... path) {
+        A pointer = implSelf();
+        for (final Object el : path) {
+            final @Nullable A child = pointer.value.child(requireNonNull(el, () -> "element in path " + Arrays.toString(path)));
+            if (child == null) {
+                return null;
+            }
+            pointer = child;
+        }
+        return pointer.self();
+    }
+
+    @Override
+    public final @Nullable N find(final NodePath path) {
+        A pointer = implSelf();
+        for (int i = 0, length = path.size(); i < length; ++i) {
+            final @Nullable A child = pointer.value.child(path.get(i));
+            if (child == null) {
+                return null;
+            }
+            pointer = child;
+        }
+        return pointer.self();
+    }
+
     @Override
     public final boolean hasChild(final Object... path) {
         A pointer = implSelf();
@@ -424,6 +800,44 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
         return value instanceof MapConfigValue ? ((MapConfigValue<N, A>) value).unwrapped() : Collections.emptyMap();
     }
 
+    @Override
+    public final int childCount() {
+        final ConfigValue<N, A> value = this.value;
+        if (value instanceof MapConfigValue) {
+            return ((MapConfigValue<N, A>) value).size();
+        } else if (value instanceof ListConfigValue) {
+            return ((ListConfigValue<N, A>) value).size();
+        } else {
+            return 0;
+        }
+    }
+
+    private Object[] childElements() {
+        final ConfigValue<N, A> value = this.value;
+        if (value instanceof MapConfigValue) {
+            return ((MapConfigValue<N, A>) value).elements();
+        } else if (value instanceof ListConfigValue) {
+            return ((ListConfigValue<N, A>) value).elements();
+        } else {
+            return NO_CHILDREN;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final void forEachChild(final BiConsumer<Object, ? super ConfigurationNode> action) {
+        for (final Object child : childElements()) {
+            final N node = (N) child;
+            action.accept(requireNonNull(node.key()), node);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final Spliterator<N> childrenSpliterator() {
+        return (Spliterator<N>) (Spliterator<?>) Spliterators.spliterator(childElements(), CHILD_CHARACTERISTICS);
+    }
+
     @Override
     public boolean empty() {
         return this.value.isEmpty();
@@ -462,7 +876,12 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
 
     @Override
     public final boolean removeChild(final Object key) {
-        return detachIfNonNull(this.value.putChild(key, null)) != null;
+        if (detachIfNonNull(this.value.putChild(key, null)) != null) {
+            structureChanged();
+            modified();
+            return true;
+        }
+        return false;
     }
 
     private static <N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>>
@@ -488,17 +907,21 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
 
     @Override
     public final NodePath path() {
-        N pointer = self();
-        if (pointer.parent() == null) {
-            return NodePath.path();
+        // read before the key, so a concurrent move invalidates what we cache
+        final long generation = PATH_GENERATION.get();
+        final @Nullable CachedPath cached = this.path;
+        if (cached != null && cached.generation == generation) {
+            return cached.path;
         }
 
-        final Deque<@Nullable Object> pathElements = new ArrayDeque<>();
-        do {
-            pathElements.addFirst(pointer.key());
-            pointer = requireNonNull(pointer.parent());
-        } while (pointer.parent() != null);
-        return NodePath.of(pathElements);
+        final @Nullable A parent = this.parent;
+        final @Nullable Object key = this.key;
+        if (parent == null || key == null) {
+            return NodePath.path();
+        }
+        final NodePath path = parent.path().withAppendedChild(key);
+        this.path = new CachedPath(generation, path);
+        return path;
     }
 
     @Override
@@ -514,10 +937,52 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
 
     @Override
     public final N copy() {
-        return copy(null).self();
+        return copy(null, false).self();
+    }
+
+    @Override
+    public final N copy(final ForkJoinPool pool) {
+        return pool.invoke(ForkJoinTask.adapt(() -> copy(null, true))).self();
+    }
+
+    /**
+     * Create a deep copy of this node.
+     *
+     * @param parent the parent of the copy
+     * @param parallel whether large lists and maps may be copied in parallel,
+     *     when running in a fork-join pool
+     * @return the copy
+     */
+    final A copy(final @Nullable A parent, final boolean parallel) {
+        final A copy = shallowCopy(parent);
+        copy.value = this.value.copy(copy, parallel);
+        return copy;
     }
 
-    protected abstract A copy(@Nullable A parent);
+    @Override
+    public final N publish() {
+        final AbstractConfigurationNode<N, A> root = root();
+        if (root.confined) {
+            final Deque<AbstractConfigurationNode<N, A>> remaining = new ArrayDeque<>();
+            remaining.push(root);
+            while (!remaining.isEmpty()) {
+                final AbstractConfigurationNode<N, A> node = remaining.pop();
+                node.confined = false;
+                for (final A child : node.value.createdChildren()) {
+                    remaining.push(child);
+                }
+            }
+        }
+        return self();
+    }
+
+    /**
+     * Create a copy of this node's own state, without copying its value.
+     *
+     * @param parent the parent of the copy
+     * @return a new node
+     */
+    protected abstract A shallowCopy(@Nullable A parent);
 
     /**
      * The same as {@link #parent()} - but ensuring that 'parent' is attached via
@@ -567,63 +1032,107 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
             throw new IllegalStateException("Child " + child + " path is not a direct parent of me (" + this.path() + "), cannot attach");
         }
 
+        // children not yet attached may have been created before a publish
+        child.confined = this.confined;
+
         // update the value
+        final @Nullable A existing;
+        if (this.confined) {
+            existing = this.putChild(child, onlyIfAbsent);
+        } else {
+            synchronized (this) {
+                existing = this.putChild(child, onlyIfAbsent);
+            }
+        }
+        if (existing != null) {
+            return existing;
+        }
+
+        child.attached = true;
+        structureChanged();
+        modified();
+        return child;
+    }
+
+    /**
+     * Insert a child into the value of this node, changing the value's type
+     * if necessary.
+     *
+     * @param child the child to insert
+     * @param onlyIfAbsent whether to keep an existing child at the same key
+     * @return the existing child, if it was kept
+     */
+    private @Nullable A putChild(final A child, final boolean onlyIfAbsent) {
         final ConfigValue<N, A> oldValue;
         ConfigValue<N, A> newValue;
-        synchronized (this) {
-            newValue = oldValue = this.value;
+        newValue = oldValue = this.value;
 
-            if (oldValue instanceof MapConfigValue) {
-                if (child.key == ListConfigValue.UNALLOCATED_IDX) {
+        if (oldValue instanceof MapConfigValue) {
+            if (child.key == ListConfigValue.UNALLOCATED_IDX) {
+                newValue = new ListConfigValue<>(implSelf());
+            }
+        } else {
+            // if the existing value isn't a map, we need to update it's type
+            if (ListConfigValue.likelyListKey(child.key)) {
+                // if child.key is an integer, we can infer that the type of this node should be a list
+                if (oldValue instanceof NullConfigValue) {
+                    // if the oldValue was null, we can just replace it with an empty list
                     newValue = new ListConfigValue<>(implSelf());
+                } else if (!(oldValue instanceof ListConfigValue)) {
+                    // if the oldValue contained a value, we add it as the first element of the
+                    // new list
+                    newValue = new ListConfigValue<>(implSelf(), oldValue.get());
                 }
             } else {
-                // if the existing value isn't a map, we need to update it's type
-                if (ListConfigValue.likelyListKey(child.key)) {
-                    // if child.key is an integer, we can infer that the type of this node should be a list
-                    if (oldValue instanceof NullConfigValue) {
-                        // if the oldValue was null, we can just replace it with an empty list
-                        newValue = new ListConfigValue<>(implSelf());
-                    } else if (!(oldValue instanceof ListConfigValue)) {
-                        // if the oldValue contained a value, we add it as the first element of the
-                        // new list
-                        newValue = new ListConfigValue<>(implSelf(), oldValue.get());
-                    }
-                } else {
-                    // if child.key isn't an integer, assume map
-                    newValue = new MapConfigValue<>(implSelf());
-                }
+                // if child.key isn't an integer, assume map
+                newValue = new MapConfigValue<>(implSelf());
             }
+        }
 
-            /// now the value has been updated to an appropriate type, we can insert the value
-            final @Nullable Object childKey = child.key;
-            if (childKey == null) {
-                throw new IllegalArgumentException("Cannot attach a child with null key");
-            }
+        /// now the value has been updated to an appropriate type, we can insert the value
+        final @Nullable Object childKey = child.key;
+        if (childKey == null) {
+            throw new IllegalArgumentException("Cannot attach a child with null key");
+        }
 
-            if (onlyIfAbsent) {
-                final @Nullable A oldChild = newValue.putChildIfAbsent(childKey, child);
-                if (oldChild != null) {
-                    return oldChild;
-                }
-            } else {
-                detachIfNonNull(newValue.putChild(childKey, child));
+        if (onlyIfAbsent) {
+            final @Nullable A oldChild = newValue.putChildIfAbsent(childKey, child);
+            if (oldChild != null) {
+                return oldChild;
             }
-            this.value = newValue;
+        } else {
+            detachIfNonNull(newValue.putChild(childKey, child));
         }
+        this.value = newValue;
 
         if (newValue != oldValue) {
             oldValue.clear();
         }
-        child.attached = true;
-        return child;
+        return null;
     }
 
     protected final void clear() {
-        synchronized (this) {
-            final ConfigValue<N, A> oldValue = this.value;
-            this.value = NullConfigValue.instance();
-            oldValue.clear();
+        if (this.confined) {
+            this.clearValue();
+        } else {
+            synchronized (this) {
+                this.clearValue();
+            }
+        }
+    }
+
+    private void clearValue() {
+        final ConfigValue<N, A> oldValue = this.value;
+        this.value = NullConfigValue.instance();
+        oldValue.clear();
+        // nodes being detached are accounted for by the operation detaching them
+        if (this.attached) {
+            if (hasChildren(oldValue)) {
+                structureChanged();
+            }
+            if (!(oldValue instanceof NullConfigValue)) {
+                modified();
+            }
         }
     }
 
@@ -642,32 +1151,37 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
         }
     }
 
-    @SuppressWarnings({"JdkObsolete", "unchecked"})
+    @Override
+    public final <S, T, E extends Exception> T visit(final ConfigurationVisitor.Parallel<S, T, E> visitor, final ForkJoinPool pool) throws E {
+        return ParallelVisit.visit(this, visitor, pool);
+    }
+
+    @SuppressWarnings("unchecked")
     private <S, T, E extends Exception> T visitInternal(final ConfigurationVisitor<S, T, E> visitor, final S state) throws E {
         visitor.beginVisit(self(), state);
         if (!(this.value instanceof NullConfigValue)) { // only visit if we have an actual value
-            final LinkedList<Object> toVisit = new LinkedList<>();
-            toVisit.add(this);
-
-            @Nullable Object active;
-            while ((active = toVisit.pollFirst()) != null) {
-                // try to pop a node from the stack, or handle the node exit if applicable
-                final @Nullable A current = VisitorNodeEnd.popFromVisitor(active, visitor, state);
-                if (current == null) {
-                    continue;
-                }
-
+            final VisitStack stack = new VisitStack(this);
+            @Nullable A current;
+            while ((current = stack.next(visitor, state)) != null) {
                 try {
-                    visitor.enterNode(current.self(), state);
+                    final ConfigurationVisitor.Control control = visitor.enter(current.self(), state);
+                    if (control == ConfigurationVisitor.Control.STOP) {
+                        stack.stop(visitor, state);
+                        break;
+                    }
                     final ConfigValue<N, A> value = current.value;
                     if (value instanceof MapConfigValue) {
                         visitor.enterMappingNode(current.self(), state);
-                        toVisit.addFirst(new VisitorNodeEnd(current, true));
-                        toVisit.addAll(0, ((MapConfigValue<N, A>) value).values.values());
+                        stack.pushExit(current.self(), true);
+                        if (control == ConfigurationVisitor.Control.CONTINUE) {
+                            stack.pushChildren(((MapConfigValue<N, A>) value).elements());
+                        }
                     } else if (value instanceof ListConfigValue) {
                         visitor.enterListNode(current.self(), state);
-                        toVisit.addFirst(new VisitorNodeEnd(current, false));
-                        toVisit.addAll(0, ((ListConfigValue<N, A>) value).values.get());
+                        stack.pushExit(current.self(), false);
+                        if (control == ConfigurationVisitor.Control.CONTINUE) {
+                            stack.pushChildren(((ListConfigValue<N, A>) value).elements());
+                        }
                     } else if (value instanceof ScalarConfigValue) {
                         visitor.enterScalarNode(current.self(), state);
                     } else if (!(value instanceof NullConfigValue)) { // temporary workaround, no null values should appear in attached nodes
@@ -687,11 +1201,8 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
 
     @Override
     public final <V> N hint(final RepresentationHint<V> hint, final @Nullable V value) {
-        if (value == null) {
-            this.hints.remove(hint);
-        } else {
-            this.hints.put(hint, value);
-        }
+        updateHints(h -> h.with(hint, value));
+        modified();
 
         return self();
     }
@@ -719,7 +1230,20 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
 
     @Override
     public final Map<RepresentationHint<?>, ?> ownHints() {
-        return UnmodifiableCollections.buildMap(m -> m.putAll(this.hints));
+        return this.hints;
+    }
+
+    private void updateHints(final UnaryOperator<HintMap> action) {
+        if (this.confined) {
+            this.hints = action.apply(this.hints);
+            return;
+        }
+        HintMap existing;
+        HintMap updated;
+        do {
+            existing = this.hints;
+            updated = action.apply(existing);
+        } while (existing != updated && !HINTS.compareAndSet(this, existing, updated));
     }
 
     @Override
@@ -733,12 +1257,78 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
         }
 
         final AbstractConfigurationNode<?, ?> that = (AbstractConfigurationNode<?, ?>) o;
-        return Objects.equals(this.key, that.key) && Objects.equals(this.value, that.value);
+        return Objects.equals(this.key, that.key) && sameValue(that);
+    }
+
+    /**
+     * Get whether this node holds a value equal to that of another node,
+     * regardless of their keys.
+     *
+     * @param that the other node
+     * @return whether the values are equal
+     */
+    final boolean sameValue(final AbstractConfigurationNode<?, ?> that) {
+        final ConfigValue<?, ?> value = this.value;
+        final ConfigValue<?, ?> otherValue = that.value;
+        if (value == otherValue || sharesPendingChildren(value, otherValue)) {
+            return true;
+        }
+        // differing hashes of unchanged subtrees settle inequality without a traversal
+        return valueHash() == that.valueHash() && value.equals(otherValue);
+    }
+
+    /**
+     * Get whether two values will create their children from the same
+     * source, such as two nodes loaded from one snapshot that have not been
+     * read since.
+     *
+     * @param value one value
+     * @param otherValue the other value
+     * @return whether the values are known to be equal
+     */
+    private static boolean sharesPendingChildren(final ConfigValue<?, ?> value, final ConfigValue<?, ?> otherValue) {
+        if (value.getClass() != otherValue.getClass()) {
+            return false;
+        }
+        final @Nullable PendingChildren pending = value.pendingChildren();
+        final @Nullable PendingChildren otherPending = otherValue.pendingChildren();
+        if (pending == null || otherPending == null) {
+            return false;
+        } else if (pending == otherPending) {
+            return true;
+        }
+        return pending instanceof FrozenConfigurationNode && otherPending instanceof FrozenConfigurationNode
+                && ((FrozenConfigurationNode) pending).sharesValue((FrozenConfigurationNode) otherPending);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(this.key) ^ Objects.hashCode(this.value);
+        return Objects.hashCode(this.key) ^ valueHash();
+    }
+
+    /**
+     * Get the hash code of this node's value.
+     *
+     * <p>Hashes of maps and lists are cached until the next modification of
+     * this node or its descendants.</p>
+     *
+     * @return the value hash code
+     */
+    final int valueHash() {
+        final long stamp = this.modificationStamp;
+        final ConfigValue<N, A> value = this.value;
+        if (!hasChildren(value)) {
+            return value.hashCode();
+        }
+
+        final @Nullable CachedHash cached = this.hash;
+        if (cached != null && cached.stamp == stamp && cached.value == value) {
+            return cached.hash;
+        }
+
+        final int hash = value.hashCode();
+        this.hash = new CachedHash(stamp, value, hash);
+        return hash;
     }
 
     @Override
@@ -752,4 +1342,47 @@ abstract class AbstractConfigurationNode<N extends ScopedConfigurationNode<N>, A
 
     protected abstract A implSelf();
 
+    /**
+     * A computed value hash, with the state it was computed from.
+     */
+    private static final class CachedHash {
+        final long stamp;
+        final ConfigValue<?, ?> value;
+        final int hash;
+
+        CachedHash(final long stamp, final ConfigValue<?, ?> value, final int hash) {
+            this.stamp = stamp;
+            this.value = value;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * A deserialized value, with the state it was computed from.
+     */
+    private static final class CachedValue {
+        final long stamp;
+        final Type type;
+        final @Nullable Object value;
+
+        CachedValue(final long stamp, final Type type, final @Nullable Object value) {
+            this.stamp = stamp;
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A computed node path, with the state it was computed from.
+     */
+    private static final class CachedPath {
+        final long generation;
+        final NodePath path;
+
+        CachedPath(final long generation, final NodePath path) {
+            this.generation = generation;
+            this.path = path;
+        }
+    }
+
 }
@@ -57,6 +57,7 @@ class AttributedConfigurationNodeImpl extends AbstractCommentedConfigurationNode
         }
 
         this.tagName = tagName;
+        modified();
         return this;
     }
 
@@ -67,12 +68,15 @@ class AttributedConfigurationNodeImpl extends AbstractCommentedConfigurationNode
         }
         attachIfNecessary();
         this.attributes.put(name, value);
+        modified();
         return this;
     }
 
     @Override
     public AttributedConfigurationNodeImpl removeAttribute(final String name) {
-        this.attributes.remove(name);
+        if (this.attributes.remove(name) != null) {
+            modified();
+        }
         return this;
     }
 
@@ -88,6 +92,7 @@ class AttributedConfigurationNodeImpl extends AbstractCommentedConfigurationNode
             attachIfNecessary();
             this.attributes.putAll(attributes);
         }
+        modified();
         return this;
     }
 
@@ -124,6 +129,13 @@ class AttributedConfigurationNodeImpl extends AbstractCommentedConfigurationNode
             final AttributedConfigurationNode node = (AttributedConfigurationNode) that;
             tagName(node.tagName());
             attributes(node.attributes());
+        } else if (that instanceof FrozenConfigurationNode) {
+            final FrozenConfigurationNode node = (FrozenConfigurationNode) that;
+            final @Nullable String tagName = node.tagName();
+            if (tagName != null) {
+                tagName(tagName);
+                attributes(node.attributes());
+            }
         }
         return super.from(that);
     }
@@ -136,15 +148,33 @@ class AttributedConfigurationNodeImpl extends AbstractCommentedConfigurationNode
             for (Map.Entry<String, String> attribute : node.attributes().entrySet()) {
                 addAttribute(attribute.getKey(), attribute.getValue());
             }
+        } else if (other instanceof FrozenConfigurationNode) {
+            final FrozenConfigurationNode node = (FrozenConfigurationNode) other;
+            final @Nullable String tagName = node.tagName();
+            if (tagName != null) {
+                tagName(tagName);
+                for (Map.Entry<String, String> attribute : node.attributes().entrySet()) {
+                    addAttribute(attribute.getKey(), attribute.getValue());
+                }
+            }
         }
         return super.mergeFrom(other);
     }
 
     @Override
-    protected AttributedConfigurationNodeImpl copy(final @Nullable AttributedConfigurationNodeImpl parent) {
+    void initFrom(final FrozenConfigurationNode source) {
+        super.initFrom(source);
+        final @Nullable String tagName = source.tagName();
+        if (tagName != null) {
+            this.tagName = tagName;
+            this.attributes.putAll(source.attributes());
+        }
+    }
+
+    @Override
+    protected AttributedConfigurationNodeImpl shallowCopy(final @Nullable AttributedConfigurationNodeImpl parent) {
         final AttributedConfigurationNodeImpl copy = new AttributedConfigurationNodeImpl(this.tagName, parent, this);
         copy.attributes.putAll(this.attributes);
-        copy.comment.set(this.comment.get());
         return copy;
     }
 
@@ -37,6 +37,22 @@ public interface BasicConfigurationNode extends ScopedConfigurationNode<BasicCon
         return BasicConfigurationNode::root;
     }
 
+    /**
+     * Create a new factory providing {@link BasicConfigurationNode} instances
+     * confined to a single thread.
+     *
+     * <p>Nodes in trees created by the returned factory skip all locking,
+     * making them cheaper to build and read when a tree is only ever used by
+     * one thread, such as while loading or converting a file. The tree can be
+     * made thread-safe later with {@link #publish()}.</p>
+     *
+     * @return a new factory
+     * @since 4.1.0
+     */
+    static ConfigurationNodeFactory<BasicConfigurationNode> confinedFactory() {
+        return BasicConfigurationNode::confinedRoot;
+    }
+
     /**
      * Create a new empty root node.
      *
@@ -102,4 +118,19 @@ public interface BasicConfigurationNode extends ScopedConfigurationNode<BasicCon
         return root(options).act(maker);
     }
 
+    /**
+     * Create a new empty root node confined to a single thread.
+     *
+     * <p>The node, and any nodes created under it, must only be used by the
+     * thread that created it until {@link #publish()} is called.</p>
+     *
+     * @param options options to apply.
+     * @return a new empty node
+     * @see #confinedFactory()
+     * @since 4.1.0
+     */
+    static BasicConfigurationNode confinedRoot(final ConfigurationOptions options) {
+        return AbstractConfigurationNode.confine(new BasicConfigurationNodeImpl(null, null, options));
+    }
+
 }
@@ -31,7 +31,7 @@ class BasicConfigurationNodeImpl
     }
 
     @Override
-    protected BasicConfigurationNodeImpl copy(final @Nullable BasicConfigurationNodeImpl parent) {
+    protected BasicConfigurationNodeImpl shallowCopy(final @Nullable BasicConfigurationNodeImpl parent) {
         return new BasicConfigurationNodeImpl(parent, this);
     }
 
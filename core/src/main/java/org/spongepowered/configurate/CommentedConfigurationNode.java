@@ -39,6 +39,22 @@ public interface CommentedConfigurationNode extends CommentedConfigurationNodeIn
         return CommentedConfigurationNode::root;
     }
 
+    /**
+     * Create a new factory providing {@link CommentedConfigurationNode} instances
+     * confined to a single thread.
+     *
+     * <p>Nodes in trees created by the returned factory skip all locking,
+     * making them cheaper to build and read when a tree is only ever used by
+     * one thread, such as while loading or converting a file. The tree can be
+     * made thread-safe later with {@link #publish()}.</p>
+     *
+     * @return a new factory
+     * @since 4.1.0
+     */
+    static ConfigurationNodeFactory<CommentedConfigurationNode> confinedFactory() {
+        return CommentedConfigurationNode::confinedRoot;
+    }
+
     /**
      * Create a new empty root node.
      *
@@ -104,4 +120,19 @@ public interface CommentedConfigurationNode extends CommentedConfigurationNodeIn
         return root(options).act(action);
     }
 
+    /**
+     * Create a new empty root node confined to a single thread.
+     *
+     * <p>The node, and any nodes created under it, must only be used by the
+     * thread that created it until {@link #publish()} is called.</p>
+     *
+     * @param options options to apply
+     * @return a new empty node
+     * @see #confinedFactory()
+     * @since 4.1.0
+     */
+    static CommentedConfigurationNode confinedRoot(final ConfigurationOptions options) {
+        return AbstractConfigurationNode.confine(new CommentedConfigurationNodeImpl(null, null, options));
+    }
+
 }
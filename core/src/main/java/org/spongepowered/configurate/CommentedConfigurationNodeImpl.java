@@ -42,10 +42,8 @@ class CommentedConfigurationNodeImpl extends AbstractCommentedConfigurationNode<
     }
 
     @Override
-    protected CommentedConfigurationNodeImpl copy(final @Nullable CommentedConfigurationNodeImpl parent) {
-        final CommentedConfigurationNodeImpl copy = new CommentedConfigurationNodeImpl(parent, this);
-        copy.comment.set(this.comment.get());
-        return copy;
+    protected CommentedConfigurationNodeImpl shallowCopy(final @Nullable CommentedConfigurationNodeImpl parent) {
+        return new CommentedConfigurationNodeImpl(parent, this);
     }
 
     @Override
@@ -0,0 +1,67 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link NodePath} prepared for repeated lookups.
+ *
+ * <p>A compiled path remembers the node it last resolved to, and will only
+ * walk the path again when the root node it is resolved against changes, or
+ * when nodes are attached to or detached from that root's tree. Compiled
+ * paths are safe to share between threads, and will keep working across
+ * reloads of a configuration.</p>
+ *
+ * @see NodePath#compile()
+ * @since 4.1.0
+ */
+public interface CompiledNodePath {
+
+    /**
+     * Get the path this compiled path resolves.
+     *
+     * @return the path
+     * @since 4.1.0
+     */
+    NodePath path();
+
+    /**
+     * Get the non-virtual node at this path relative to {@code root}, if any.
+     *
+     * @param root the node to resolve this path from
+     * @param <N> the node type
+     * @return the node at this path, or null if none is present
+     * @see ConfigurationNode#find(NodePath)
+     * @since 4.1.0
+     */
+    <N extends ScopedConfigurationNode<N>> @Nullable N find(N root);
+
+    /**
+     * Get the node at this path relative to {@code root}.
+     *
+     * <p>If no node is present, a virtual node will be returned, just like
+     * with {@link ConfigurationNode#node(Iterable)}.</p>
+     *
+     * @param root the node to resolve this path from
+     * @param <N> the node type
+     * @return the node at this path, possibly virtual
+     * @since 4.1.0
+     */
+    <N extends ScopedConfigurationNode<N>> N node(N root);
+
+}
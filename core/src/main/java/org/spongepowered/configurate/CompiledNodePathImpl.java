@@ -0,0 +1,98 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static java.util.Objects.requireNonNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A compiled path that caches its last resolution.
+ */
+final class CompiledNodePathImpl implements CompiledNodePath {
+
+    private final NodePath path;
+    private volatile @Nullable Resolution cached;
+
+    CompiledNodePathImpl(final NodePath path) {
+        this.path = path;
+    }
+
+    @Override
+    public NodePath path() {
+        return this.path;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <N extends ScopedConfigurationNode<N>> @Nullable N find(final N root) {
+        requireNonNull(root, "root");
+        if (!(root instanceof AbstractConfigurationNode<?, ?>)) {
+            return root.find(this.path);
+        }
+
+        // read the version before resolving, so changes made while resolving will invalidate the result
+        final long version = ((AbstractConfigurationNode<?, ?>) root).structureVersion();
+        final @Nullable Resolution cached = this.cached;
+        if (cached != null && cached.root == root && cached.version == version) {
+            return (N) cached.node;
+        }
+
+        final @Nullable N resolved = root.find(this.path);
+        this.cached = new Resolution(root, version, resolved);
+        return resolved;
+    }
+
+    @Override
+    public <N extends ScopedConfigurationNode<N>> N node(final N root) {
+        final @Nullable N resolved = find(root);
+        return resolved == null ? root.node(this.path) : resolved;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof CompiledNodePathImpl && this.path.equals(((CompiledNodePathImpl) other).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledNodePath{path=" + this.path + '}';
+    }
+
+    /**
+     * The result of resolving a path against a certain root node.
+     */
+    static final class Resolution {
+
+        final ConfigurationNode root;
+        final long version;
+        final @Nullable ConfigurationNode node;
+
+        Resolution(final ConfigurationNode root, final long version, final @Nullable ConfigurationNode node) {
+            this.root = root;
+            this.version = version;
+            this.node = node;
+        }
+
+    }
+
+}
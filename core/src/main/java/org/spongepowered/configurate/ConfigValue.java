@@ -20,6 +20,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ToIntFunction;
 
 /**
  * The value in a {@link ConfigurationNode}.
@@ -35,6 +37,85 @@ abstract class ConfigValue<N extends ScopedConfigurationNode<N>, T extends Abstr
         this.holder = holder;
     }
 
+    /**
+     * Read an int field guarded by {@code lock}, without blocking unless a
+     * write is in progress.
+     *
+     * <p>The field is first read optimistically, and read again while
+     * holding the read lock if a write happened in the meantime. This is
+     * only safe for reads of plain fields, which can't fail or observe a
+     * structure in the middle of being modified. Anything else, such as a
+     * lookup in a map, must be done while holding the read lock.</p>
+     *
+     * @param lock the lock guarding the field
+     * @param state the object holding the field
+     * @param field a function reading the field
+     * @param <S> state type
+     * @return the field's value
+     */
+    static <S> int readOptimistically(final StampedLock lock, final S state, final ToIntFunction<S> field) {
+        final long optimistic = lock.tryOptimisticRead();
+        if (optimistic != 0) {
+            final int result = field.applyAsInt(state);
+            if (lock.validate(optimistic)) {
+                return result;
+            }
+        }
+
+        final long stamp = lock.readLock();
+        try {
+            return field.applyAsInt(state);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Acquire the write lock guarding this value's state, unless the holder
+     * is confined to a single thread.
+     *
+     * @param lock the lock guarding the state
+     * @return a stamp to release the lock with, or {@code 0} if none was taken
+     */
+    final long writeLock(final StampedLock lock) {
+        return this.holder.confined ? 0 : lock.writeLock();
+    }
+
+    /**
+     * Release a lock taken with {@link #writeLock(StampedLock)}.
+     *
+     * @param lock the lock guarding the state
+     * @param stamp the stamp returned when acquiring the lock
+     */
+    static void unlockWrite(final StampedLock lock, final long stamp) {
+        if (stamp != 0) {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Acquire the read lock guarding this value's state, unless the holder
+     * is confined to a single thread.
+     *
+     * @param lock the lock guarding the state
+     * @return a stamp to release the lock with, or {@code 0} if none was taken
+     */
+    final long readLock(final StampedLock lock) {
+        return this.holder.confined ? 0 : lock.readLock();
+    }
+
+    /**
+     * Release a lock taken with {@link #readLock(StampedLock)}.
+     *
+     * @param lock the lock guarding the state
+     * @param stamp the stamp returned when acquiring the lock
+     */
+    static void unlockRead(final StampedLock lock, final long stamp) {
+        if (stamp != 0) {
+            lock.unlockRead(stamp);
+        }
+    }
+
     /**
      * Gets the value encapsulated by this instance.
      *
@@ -83,6 +164,37 @@ abstract class ConfigValue<N extends ScopedConfigurationNode<N>, T extends Abstr
      */
     abstract Iterable<T> iterateChildren();
 
+    /**
+     * Returns an iterable over the child nodes that already exist, without
+     * creating any that are still held in a snapshot.
+     *
+     * @return an iterable
+     */
+    Iterable<T> createdChildren() {
+        return iterateChildren();
+    }
+
+    /**
+     * Get the children of this value that have not been created yet, if
+     * none of them have been.
+     *
+     * @return the pending children, or null
+     */
+    @Nullable PendingChildren pendingChildren() {
+        return null;
+    }
+
+    /**
+     * Get the snapshot still holding the children of this value, if none of
+     * them have been created yet.
+     *
+     * @return the snapshot, or null
+     */
+    final @Nullable FrozenConfigurationNode pending() {
+        final @Nullable PendingChildren pending = this.pendingChildren();
+        return pending instanceof FrozenConfigurationNode ? (FrozenConfigurationNode) pending : null;
+    }
+
     /**
      * Creates a copy of this node.
      *
@@ -90,6 +202,18 @@ abstract class ConfigValue<N extends ScopedConfigurationNode<N>, T extends Abstr
      */
     abstract ConfigValue<N, T> copy(T holder);
 
+    /**
+     * Creates a copy of this node, optionally copying children in parallel.
+     *
+     * @param holder the node holding the copy
+     * @param parallel whether children may be copied in parallel
+     * @return a copy
+     * @see ParallelCopy
+     */
+    ConfigValue<N, T> copy(final T holder, final boolean parallel) {
+        return copy(holder);
+    }
+
     /**
      * Whether this value has any content.
      *
@@ -32,8 +32,13 @@ import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 /**
  * A node in the configuration tree.
@@ -181,6 +186,65 @@ public interface ConfigurationNode {
      */
     boolean hasChild(Iterable<?> path);
 
+    /**
+     * Get the non-virtual node present at the relative path {@code path},
+     * if any.
+     *
+     * <p>Unlike {@link #node(Object...)}, this will never create new
+     * unattached node objects for missing path elements, making it suitable
+     * for frequent lookups of values that may not be present.</p>
+     *
+     * @param path path to search at
+     * @return the node at {@code path}, or null if none is present
+     * @since 4.1.0
+     */
+    default @Nullable ConfigurationNode find(final Object... path) {
+        return hasChild(path) ? node(path) : null;
+    }
+
+    /**
+     * Get the non-virtual node present at the relative path {@code path},
+     * if any.
+     *
+     * <p>Unlike {@link #node(Iterable)}, this will never create new
+     * unattached node objects for missing path elements, making it suitable
+     * for frequent lookups of values that may not be present.</p>
+     *
+     * @param path path to search at
+     * @return the node at {@code path}, or null if none is present
+     * @since 4.1.0
+     */
+    default @Nullable ConfigurationNode find(final NodePath path) {
+        return hasChild(path) ? node(path) : null;
+    }
+
+    /**
+     * Find every node below this node whose path matches a selector.
+     *
+     * <p>Selectors that are used repeatedly should be compiled once with
+     * {@link NodeSelector#compile(String)} instead.</p>
+     *
+     * @param selector the selector expression
+     * @return a lazily evaluated stream of matching nodes
+     * @throws IllegalArgumentException if the selector is not valid
+     * @see NodeSelector for the selector syntax
+     * @since 4.1.0
+     */
+    default Stream<? extends ConfigurationNode> select(final String selector) {
+        return NodeSelector.compile(selector).select(this);
+    }
+
+    /**
+     * Find every node below this node whose path matches a selector.
+     *
+     * @param selector the selector
+     * @return a lazily evaluated stream of matching nodes
+     * @since 4.1.0
+     */
+    default Stream<? extends ConfigurationNode> select(final NodeSelector selector) {
+        return selector.select(this);
+    }
+
     /**
      * Gets if this node is virtual.
      *
@@ -263,6 +327,61 @@ public interface ConfigurationNode {
      */
     Map<Object, ? extends ConfigurationNode> childrenMap();
 
+    /**
+     * Gets the number of children attached to this node.
+     *
+     * <p>This is the size of either {@link #childrenList()} or
+     * {@link #childrenMap()}, without creating either collection.</p>
+     *
+     * @return the number of children
+     * @since 4.1.0
+     */
+    default int childCount() {
+        if (this.isList()) {
+            return this.childrenList().size();
+        } else if (this.isMap()) {
+            return this.childrenMap().size();
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Perform an action for each child attached to this node, in order.
+     *
+     * <p>The action receives the key of each child, which is its key in
+     * {@link #childrenMap()} or its index in {@link #childrenList()}.</p>
+     *
+     * <p>Unlike iterating over either of those collections, implementations
+     * are not required to copy the children of this node first.</p>
+     *
+     * @param action the action to perform
+     * @since 4.1.0
+     */
+    default void forEachChild(final BiConsumer<Object, ? super ConfigurationNode> action) {
+        this.childrenSpliterator().forEachRemaining(child -> action.accept(requireNonNull(child.key()), child));
+    }
+
+    /**
+     * Create a spliterator over the children attached to this node, in order.
+     *
+     * <p>The spliterator is weakly consistent. It will never throw a
+     * {@link java.util.ConcurrentModificationException}, and traverses the
+     * children as they existed at some point at or after its creation.</p>
+     *
+     * @return a spliterator over the children of this node
+     * @since 4.1.0
+     */
+    default Spliterator<? extends ConfigurationNode> childrenSpliterator() {
+        if (this.isList()) {
+            return this.childrenList().spliterator();
+        } else if (this.isMap()) {
+            return this.childrenMap().values().spliterator();
+        } else {
+            return Spliterators.emptySpliterator();
+        }
+    }
+
     /**
      * Create a collector that appends values to this node as map children.
      *
@@ -705,6 +824,29 @@ public interface ConfigurationNode {
         return def;
     }
 
+    /**
+     * Gets the value at {@code path} typed using the appropriate type
+     * conversion from {@link Scalars}.
+     *
+     * <p>No virtual nodes will be created while looking up the value. If
+     * {@link ConfigurationOptions#shouldCopyDefaults() defaults are copied},
+     * the default will be stored at {@code path} the first time it is
+     * missing, so later lookups will find it.</p>
+     *
+     * @param path the path to look up, relative to this node
+     * @param def the default value if no appropriate value is set
+     * @return the value coerced to a {@link String}, or {@code def} if no value
+     * @see #find(NodePath)
+     * @since 4.1.0
+     */
+    default String getString(final NodePath path, final String def) { // @cs-: NoGetSetPrefix (not a bean method)
+        final @Nullable ConfigurationNode node = find(path);
+        if (node != null) {
+            return node.getString(def);
+        }
+        return options().shouldCopyDefaults() ? node(path).getString(def) : def;
+    }
+
     /**
      * Gets the value typed using the appropriate type conversion from {@link Scalars}.
      *
@@ -735,6 +877,29 @@ public interface ConfigurationNode {
         return def;
     }
 
+    /**
+     * Gets the value at {@code path} typed using the appropriate type
+     * conversion from {@link Scalars}.
+     *
+     * <p>No virtual nodes will be created while looking up the value. If
+     * {@link ConfigurationOptions#shouldCopyDefaults() defaults are copied},
+     * the default will be stored at {@code path} the first time it is
+     * missing, so later lookups will find it.</p>
+     *
+     * @param path the path to look up, relative to this node
+     * @param def the default value if no appropriate value is set
+     * @return the value coerced to a float, or {@code def} if no value
+     * @see #find(NodePath)
+     * @since 4.1.0
+     */
+    default float getFloat(final NodePath path, final float def) { // @cs-: NoGetSetPrefix (not a bean method)
+        final @Nullable ConfigurationNode node = find(path);
+        if (node != null) {
+            return node.getFloat(def);
+        }
+        return options().shouldCopyDefaults() ? node(path).getFloat(def) : def;
+    }
+
     /**
      * Gets the value typed using the appropriate type conversion from {@link Scalars}.
      *
@@ -766,6 +931,29 @@ public interface ConfigurationNode {
         return def;
     }
 
+    /**
+     * Gets the value at {@code path} typed using the appropriate type
+     * conversion from {@link Scalars}.
+     *
+     * <p>No virtual nodes will be created while looking up the value. If
+     * {@link ConfigurationOptions#shouldCopyDefaults() defaults are copied},
+     * the default will be stored at {@code path} the first time it is
+     * missing, so later lookups will find it.</p>
+     *
+     * @param path the path to look up, relative to this node
+     * @param def the default value if no appropriate value is set
+     * @return the value coerced to a double, or {@code def} if no value
+     * @see #find(NodePath)
+     * @since 4.1.0
+     */
+    default double getDouble(final NodePath path, final double def) { // @cs-: NoGetSetPrefix (not a bean method)
+        final @Nullable ConfigurationNode node = find(path);
+        if (node != null) {
+            return node.getDouble(def);
+        }
+        return options().shouldCopyDefaults() ? node(path).getDouble(def) : def;
+    }
+
     /**
      * Gets the value typed using the appropriate type conversion from {@link Scalars}.
      *
@@ -796,6 +984,29 @@ public interface ConfigurationNode {
         return def;
     }
 
+    /**
+     * Gets the value at {@code path} typed using the appropriate type
+     * conversion from {@link Scalars}.
+     *
+     * <p>No virtual nodes will be created while looking up the value. If
+     * {@link ConfigurationOptions#shouldCopyDefaults() defaults are copied},
+     * the default will be stored at {@code path} the first time it is
+     * missing, so later lookups will find it.</p>
+     *
+     * @param path the path to look up, relative to this node
+     * @param def the default value if no appropriate value is set
+     * @return the value coerced to an integer, or {@code def} if no value
+     * @see #find(NodePath)
+     * @since 4.1.0
+     */
+    default int getInt(final NodePath path, final int def) { // @cs-: NoGetSetPrefix (not a bean method)
+        final @Nullable ConfigurationNode node = find(path);
+        if (node != null) {
+            return node.getInt(def);
+        }
+        return options().shouldCopyDefaults() ? node(path).getInt(def) : def;
+    }
+
     /**
      * Gets the value typed using the appropriate type conversion from {@link Scalars}.
      *
@@ -826,6 +1037,29 @@ public interface ConfigurationNode {
         return def;
     }
 
+    /**
+     * Gets the value at {@code path} typed using the appropriate type
+     * conversion from {@link Scalars}.
+     *
+     * <p>No virtual nodes will be created while looking up the value. If
+     * {@link ConfigurationOptions#shouldCopyDefaults() defaults are copied},
+     * the default will be stored at {@code path} the first time it is
+     * missing, so later lookups will find it.</p>
+     *
+     * @param path the path to look up, relative to this node
+     * @param def the default value if no appropriate value is set
+     * @return the value coerced to a long, or {@code def} if no value
+     * @see #find(NodePath)
+     * @since 4.1.0
+     */
+    default long getLong(final NodePath path, final long def) { // @cs-: NoGetSetPrefix (not a bean method)
+        final @Nullable ConfigurationNode node = find(path);
+        if (node != null) {
+            return node.getLong(def);
+        }
+        return options().shouldCopyDefaults() ? node(path).getLong(def) : def;
+    }
+
     /**
      * Gets the value typed using the appropriate type conversion from {@link Scalars}.
      *
@@ -856,6 +1090,29 @@ public interface ConfigurationNode {
         return def;
     }
 
+    /**
+     * Gets the value at {@code path} typed using the appropriate type
+     * conversion from {@link Scalars}.
+     *
+     * <p>No virtual nodes will be created while looking up the value. If
+     * {@link ConfigurationOptions#shouldCopyDefaults() defaults are copied},
+     * the default will be stored at {@code path} the first time it is
+     * missing, so later lookups will find it.</p>
+     *
+     * @param path the path to look up, relative to this node
+     * @param def the default value if no appropriate value is set
+     * @return the value coerced to a boolean, or {@code def} if no value
+     * @see #find(NodePath)
+     * @since 4.1.0
+     */
+    default boolean getBoolean(final NodePath path, final boolean def) { // @cs-: NoGetSetPrefix (not a bean method)
+        final @Nullable ConfigurationNode node = find(path);
+        if (node != null) {
+            return node.getBoolean(def);
+        }
+        return options().shouldCopyDefaults() ? node(path).getBoolean(def) : def;
+    }
+
     /**
      * Set this node's value to the given value.
      *
@@ -1013,6 +1270,82 @@ public interface ConfigurationNode {
      */
     ConfigurationNode raw(@Nullable Object value);
 
+    /**
+     * Get a read-only view of the raw value of this node.
+     *
+     * <p>Unlike {@link #raw()}, which copies every child of this node into a
+     * new {@link Map} or {@link List}, the view of a map or list node reads
+     * its children from this node as it is accessed. Values of children are
+     * themselves only unwrapped when they are requested. Scalar values are
+     * returned as-is.</p>
+     *
+     * <p>This is useful for passing the contents of a node to a writer that
+     * only iterates over them once.</p>
+     *
+     * @return a view of this node's current value
+     * @see #raw()
+     * @since 4.1.0
+     */
+    default @Nullable Object rawView() {
+        return RawView.of(this);
+    }
+
+    /**
+     * Set the raw value of this node to an {@code int}.
+     *
+     * <p>Node implementations may store the value without boxing it. This
+     * is otherwise equivalent to {@link #raw(Object)}.</p>
+     *
+     * @param value the value to set on this node
+     * @return this node
+     * @since 4.1.0
+     */
+    default ConfigurationNode rawInt(final int value) {
+        return raw(value);
+    }
+
+    /**
+     * Set the raw value of this node to a {@code long}.
+     *
+     * <p>Node implementations may store the value without boxing it. This
+     * is otherwise equivalent to {@link #raw(Object)}.</p>
+     *
+     * @param value the value to set on this node
+     * @return this node
+     * @since 4.1.0
+     */
+    default ConfigurationNode rawLong(final long value) {
+        return raw(value);
+    }
+
+    /**
+     * Set the raw value of this node to a {@code double}.
+     *
+     * <p>Node implementations may store the value without boxing it. This
+     * is otherwise equivalent to {@link #raw(Object)}.</p>
+     *
+     * @param value the value to set on this node
+     * @return this node
+     * @since 4.1.0
+     */
+    default ConfigurationNode rawDouble(final double value) {
+        return raw(value);
+    }
+
+    /**
+     * Set the raw value of this node to a {@code boolean}.
+     *
+     * <p>Node implementations may store the value without boxing it. This
+     * is otherwise equivalent to {@link #raw(Object)}.</p>
+     *
+     * @param value the value to set on this node
+     * @return this node
+     * @since 4.1.0
+     */
+    default ConfigurationNode rawBoolean(final boolean value) {
+        return raw(value);
+    }
+
     /**
      * Get the raw value of this node if the node is a scalar.
      *
@@ -1090,6 +1423,85 @@ public interface ConfigurationNode {
      */
     ConfigurationNode copy();
 
+    /**
+     * Create a deep copy of this node, copying large lists and maps in
+     * parallel using the provided pool.
+     *
+     * <p>The copy will be identical to one created by {@link #copy()}. This
+     * is only worthwhile for very large configurations, and implementations
+     * may choose to copy on the calling thread.</p>
+     *
+     * @param pool the pool to copy in
+     * @return a copy of this node
+     * @since 4.1.0
+     */
+    default ConfigurationNode copy(final ForkJoinPool pool) {
+        return this.copy();
+    }
+
+    /**
+     * Make the tree this node is part of safe to share between threads.
+     *
+     * <p>Nodes created by a confined factory, such as
+     * {@link BasicConfigurationNode#confinedFactory()}, skip all locking and
+     * may only be used by the thread that created them. Publishing the tree
+     * switches every node in it back to normal thread-safe behaviour. The tree
+     * must still be handed to other threads safely, for example through a
+     * concurrent collection or a {@code volatile} field.</p>
+     *
+     * <p>For nodes that are not confined, this does nothing.</p>
+     *
+     * @return this node
+     * @since 4.1.0
+     */
+    default ConfigurationNode publish() {
+        return this;
+    }
+
+    /**
+     * Get a stamp that changes whenever this node is modified.
+     *
+     * <p>Any change to the value, hints or other metadata of this node or
+     * any of its attached descendants will increase the stamp, so the stamp
+     * of a root node acts as a generation number for the whole tree. Stamps
+     * can be used to cheaply check whether data derived from a node is still
+     * up to date, by comparing the current stamp of a node to its stamp at
+     * the time the data was computed.</p>
+     *
+     * <p>Stamps are only meaningful when compared for the same node
+     * instance.</p>
+     *
+     * <p>Implementations that do not track modifications may rely on the
+     * default, which returns a different stamp on every call. Callers then
+     * treat the node as always modified, and recompute anything derived
+     * from it.</p>
+     *
+     * @return the current modification stamp
+     * @since 4.1.0
+     */
+    default long modificationStamp() {
+        return AbstractConfigurationNode.untrackedStamp();
+    }
+
+    /**
+     * Creates an immutable snapshot of this node and its children.
+     *
+     * <p>The snapshot captures the values, comments, hints, tag names and
+     * attributes of this node hierarchy at the time of the call. Snapshots
+     * can be freely shared between threads and read without any
+     * synchronization. Any attempt to modify a snapshot will throw an
+     * {@link UnsupportedOperationException}. Use {@link #copy()} to get a
+     * mutable node from a snapshot.</p>
+     *
+     * <p>Snapshots never store default values when a value is read.</p>
+     *
+     * @return an immutable snapshot of this node
+     * @since 4.1.0
+     */
+    default ConfigurationNode snapshot() {
+        return FrozenConfigurationNode.of(this);
+    }
+
     /**
      * Visit this node hierarchy as described in {@link ConfigurationVisitor}.
      *
@@ -1150,6 +1562,29 @@ public interface ConfigurationNode {
      */
     <S, T> T visit(ConfigurationVisitor.Safe<S, T> visitor, S state);
 
+    /**
+     * Visit this node hierarchy, splitting large maps and lists across the
+     * threads of a fork-join pool.
+     *
+     * <p>Each part of the tree visited separately receives its own state,
+     * which is combined with the state of the enclosing node before that
+     * node is exited. See {@link ConfigurationVisitor.Parallel} for details.
+     * Implementations that do not support parallel visits will visit the
+     * tree on the current thread.</p>
+     *
+     * @param visitor the visitor
+     * @param pool the pool to visit in
+     * @param <S> the state type
+     * @param <T> the terminal type
+     * @param <E> exception type that may be thrown
+     * @return returned terminal from the visitor
+     * @throws E when thrown by visitor implementation
+     * @since 4.1.0
+     */
+    default <S, T, E extends Exception> T visit(final ConfigurationVisitor.Parallel<S, T, E> visitor, final ForkJoinPool pool) throws E {
+        return visit(visitor);
+    }
+
     /**
      * Set a representation hint on this node.
      *
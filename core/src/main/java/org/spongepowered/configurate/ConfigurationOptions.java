@@ -51,7 +51,7 @@ public abstract class ConfigurationOptions {
         // avoid initialization cycles
 
         static final ConfigurationOptions DEFAULTS = new AutoValue_ConfigurationOptions(MapFactories.insertionOrdered(), null,
-                TypeSerializerCollection.defaults(), null, true, true);
+                TypeSerializerCollection.defaults(), null, true, true, false);
 
     }
 
@@ -93,7 +93,7 @@ public abstract class ConfigurationOptions {
             return this;
         }
         return new AutoValue_ConfigurationOptions(mapFactory, header(), serializers(), nativeTypes(),
-                shouldCopyDefaults(), implicitInitialization());
+                shouldCopyDefaults(), implicitInitialization(), cacheDeserializedValues());
     }
 
     /**
@@ -118,7 +118,7 @@ public abstract class ConfigurationOptions {
             return this;
         }
         return new AutoValue_ConfigurationOptions(mapFactory(), header, serializers(), nativeTypes(),
-                shouldCopyDefaults(), implicitInitialization());
+                shouldCopyDefaults(), implicitInitialization(), cacheDeserializedValues());
     }
 
     /**
@@ -143,7 +143,7 @@ public abstract class ConfigurationOptions {
             return this;
         }
         return new AutoValue_ConfigurationOptions(mapFactory(), header(), serializers, nativeTypes(),
-                shouldCopyDefaults(), implicitInitialization());
+                shouldCopyDefaults(), implicitInitialization(), cacheDeserializedValues());
     }
 
     /**
@@ -186,7 +186,8 @@ public abstract class ConfigurationOptions {
             return this;
         }
         return new AutoValue_ConfigurationOptions(mapFactory(), header(), serializers(),
-                nativeTypes == null ? null : UnmodifiableCollections.copyOf(nativeTypes), shouldCopyDefaults(), implicitInitialization());
+                nativeTypes == null ? null : UnmodifiableCollections.copyOf(nativeTypes), shouldCopyDefaults(), implicitInitialization(),
+                cacheDeserializedValues());
     }
 
     /**
@@ -253,7 +254,7 @@ public abstract class ConfigurationOptions {
         }
 
         return new AutoValue_ConfigurationOptions(mapFactory(), header(), serializers(), nativeTypes(),
-                shouldCopyDefaults, implicitInitialization());
+                shouldCopyDefaults, implicitInitialization(), cacheDeserializedValues());
     }
 
     /**
@@ -285,7 +286,48 @@ public abstract class ConfigurationOptions {
         }
 
         return new AutoValue_ConfigurationOptions(mapFactory(), header(), serializers(), nativeTypes(),
-                shouldCopyDefaults(), implicitInitialization);
+                shouldCopyDefaults(), implicitInitialization, cacheDeserializedValues());
+    }
+
+    /**
+     * Get whether nodes should cache the last value deserialized from them.
+     *
+     * <p>When this is true, {@link ConfigurationNode#get(Type)} and its
+     * overloads remember the most recent value produced by a
+     * {@link org.spongepowered.configurate.serialize.TypeSerializer}, and
+     * return the same instance again until the node or any of its children
+     * is modified. This makes repeated reads of object-mapped sections cheap,
+     * but callers must not modify values they receive.</p>
+     *
+     * <p>A node is also considered modified when its key changes, such as
+     * when an earlier element of its list is removed. Changes to the
+     * ancestors of a node are not tracked, so serializers whose result
+     * depends on hints inherited from a parent, or on the keys of a node's
+     * ancestors, may observe a stale value after those change.</p>
+     *
+     * <p>This option is disabled by default.</p>
+     *
+     * @return if deserialized values are cached
+     * @since 4.1.0
+     */
+    public abstract boolean cacheDeserializedValues();
+
+    /**
+     * Create a new {@link ConfigurationOptions} instance with the specified
+     * deserialized value caching setting.
+     *
+     * @param cacheDeserializedValues whether to cache deserialized values
+     * @return a new options object
+     * @see #cacheDeserializedValues() for more details
+     * @since 4.1.0
+     */
+    public ConfigurationOptions cacheDeserializedValues(final boolean cacheDeserializedValues) {
+        if (this.cacheDeserializedValues() == cacheDeserializedValues) {
+            return this;
+        }
+
+        return new AutoValue_ConfigurationOptions(mapFactory(), header(), serializers(), nativeTypes(),
+                shouldCopyDefaults(), implicitInitialization(), cacheDeserializedValues);
     }
 
 }
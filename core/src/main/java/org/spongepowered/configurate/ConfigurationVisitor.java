@@ -52,6 +52,10 @@ package org.spongepowered.configurate;
  * ending immediately and the exception being rethrown within the visit
  * method.</p>
  *
+ * <p>Visitors may also control the traversal by overriding
+ * {@link #enter(ConfigurationNode, Object)}, to skip the children of a node or
+ * stop the visit early.</p>
+ *
  * <p>There are a few specializations of the visitor interface available:
  * {@link Stateless} carries no state and can act as a functional interface
  * type, and {@link Safe} which throws no checked exceptions and therefore can
@@ -96,6 +100,29 @@ public interface ConfigurationVisitor<S, T, E extends Exception> {
      */
     void enterNode(ConfigurationNode node, S state) throws E;
 
+    /**
+     * Called once per node, for every node, to decide how the visit
+     * should continue.
+     *
+     * <p>When the children of a mapping or list node are skipped, the events
+     * entering and exiting that node are still received. When the visit is
+     * stopped, no further nodes will be entered, but every node that has
+     * already been entered will still be exited.</p>
+     *
+     * <p>By default, this calls {@link #enterNode(ConfigurationNode, Object)}
+     * and continues the visit.</p>
+     *
+     * @param node the current node
+     * @param state provided state
+     * @return how to continue visiting
+     * @throws E when thrown by implementation
+     * @since 4.1.0
+     */
+    default Control enter(ConfigurationNode node, S state) throws E {
+        enterNode(node, state);
+        return Control.CONTINUE;
+    }
+
     /**
      * Called after {@link #enterNode(ConfigurationNode, Object)} for mapping
      * nodes.
@@ -201,6 +228,26 @@ public interface ConfigurationVisitor<S, T, E extends Exception> {
          */
         void enterNode(ConfigurationNode node) throws E;
 
+        @Override
+        default Control enter(ConfigurationNode node, Void state) throws E {
+            return enter(node);
+        }
+
+        /**
+         * Called once per node, for every node, to decide how the visit
+         * should continue.
+         *
+         * @param node the current node
+         * @return how to continue visiting
+         * @throws E when thrown by implementation
+         * @see ConfigurationVisitor#enter(ConfigurationNode, Object)
+         * @since 4.1.0
+         */
+        default Control enter(ConfigurationNode node) throws E {
+            enterNode(node);
+            return Control.CONTINUE;
+        }
+
         @Override
         default void enterMappingNode(ConfigurationNode node, Void state) throws E {
             enterMappingNode(node);
@@ -313,6 +360,12 @@ public interface ConfigurationVisitor<S, T, E extends Exception> {
         @Override
         void enterNode(ConfigurationNode node, S state);
 
+        @Override
+        default Control enter(ConfigurationNode node, S state) {
+            enterNode(node, state);
+            return Control.CONTINUE;
+        }
+
         @Override
         void enterMappingNode(ConfigurationNode node, S state);
 
@@ -333,4 +386,65 @@ public interface ConfigurationVisitor<S, T, E extends Exception> {
 
     }
 
+    /**
+     * A visitor that does not depend on the order nodes are visited in, and
+     * so can visit independent parts of a tree concurrently.
+     *
+     * <p>When visited with {@link ConfigurationNode#visit(Parallel,
+     * java.util.concurrent.ForkJoinPool)}, the children of
+     * large mapping and list nodes are split into groups that are visited on
+     * different threads. Each group is visited with its own state from
+     * {@link #newState()}, and the states of all groups are then
+     * {@link #combine(Object, Object) combined} into the state of their
+     * parent before its exit event. Events within each group still follow
+     * the grammar described in {@link ConfigurationVisitor}.</p>
+     *
+     * <p>Visitors must therefore be safe to call from several threads at
+     * once, as long as each call uses a different state. Stopping a parallel
+     * visit prevents any further nodes from being entered, though nodes
+     * may already have been entered by other threads.</p>
+     *
+     * @param <S> state type
+     * @param <T> terminal value type
+     * @param <E> exception type that may be thrown
+     * @since 4.1.0
+     */
+    interface Parallel<S, T, E extends Exception> extends ConfigurationVisitor<S, T, E> {
+
+        /**
+         * Combine the states of two parts of the tree.
+         *
+         * <p>The first state always holds the results of nodes that precede
+         * those of the second state in depth-first order.</p>
+         *
+         * @param first the first state
+         * @param second the second state
+         * @return a state holding the results of both
+         * @throws E when thrown by implementation
+         * @since 4.1.0
+         */
+        S combine(S first, S second) throws E;
+
+    }
+
+    /**
+     * How a visit should continue after entering a node.
+     *
+     * @since 4.1.0
+     */
+    enum Control {
+        /**
+         * Visit the children of the node, if any.
+         */
+        CONTINUE,
+        /**
+         * Do not visit the children of the node.
+         */
+        SKIP_CHILDREN,
+        /**
+         * Do not enter any further nodes.
+         */
+        STOP
+    }
+
 }
@@ -0,0 +1,868 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static io.leangen.geantyref.GenericTypeReflector.erase;
+import static io.leangen.geantyref.GenericTypeReflector.isMissingTypeParameters;
+import static java.util.Objects.requireNonNull;
+
+import io.leangen.geantyref.TypeToken;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.configurate.serialize.Scalars;
+import org.spongepowered.configurate.serialize.SerializationException;
+import org.spongepowered.configurate.serialize.TypeSerializer;
+
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable snapshot of a configuration tree.
+ *
+ * <p>The children of a snapshot are held in plain arrays that are filled in
+ * before construction completes and never modified afterwards, so snapshots
+ * can be safely read by any number of threads without any locking.</p>
+ *
+ * <p>When a node was created from a snapshot and its children have not been
+ * touched since, a new snapshot shares the children array of the old one
+ * instead of visiting them again. The shared children still name the old
+ * snapshot as their parent, so they are adopted by wrapping them in nodes
+ * with the right parent when they are first accessed.</p>
+ */
+final class FrozenConfigurationNode implements ConfigurationNode, PendingChildren {
+
+    private static final Object[] NO_KEYS = new Object[0];
+    private static final FrozenConfigurationNode[] NO_CHILDREN = new FrozenConfigurationNode[0];
+
+    /**
+     * Map nodes with more children than this will have a hash index built.
+     */
+    private static final int INDEX_THRESHOLD = 8;
+
+    private final @Nullable Object key;
+    private final @Nullable FrozenConfigurationNode parent;
+    /**
+     * The options of the source tree, used when creating mutable copies.
+     */
+    private final ConfigurationOptions sourceOptions;
+    /**
+     * The options exposed by this node, which never copy defaults.
+     */
+    private final ConfigurationOptions options;
+    private final HintMap hints;
+    private final @Nullable String comment;
+    /**
+     * Whether the source tree was able to hold comments.
+     */
+    private final boolean commented;
+    /**
+     * The tag name of the source node, only present when the source tree
+     * was made of {@link AttributedConfigurationNode}s.
+     */
+    private final @Nullable String tagName;
+    private final Map<String, String> attributes;
+    private final boolean attached;
+
+    // value storage: a scalar, or an array of children with keys for maps
+    private final @Nullable Object scalar;
+    private final Object @Nullable [] keys;
+    /**
+     * The children of this node, which may be shared with another snapshot.
+     */
+    private final FrozenConfigurationNode @Nullable [] children;
+    private final int @Nullable [] index;
+    /**
+     * Shared children wrapped to have this node as their parent.
+     */
+    private volatile FrozenConfigurationNode @Nullable [] adopted;
+
+    /**
+     * The cached hash of this node's value, or {@code 0} if not yet computed.
+     */
+    private int hash;
+
+    /**
+     * Create a snapshot of the current state of a node.
+     *
+     * @param source the node to snapshot
+     * @return a new snapshot
+     */
+    static FrozenConfigurationNode of(final ConfigurationNode source) {
+        if (source instanceof FrozenConfigurationNode) {
+            return (FrozenConfigurationNode) source;
+        }
+        final ConfigurationOptions sourceOptions = source.options();
+        return new FrozenConfigurationNode(source.key(), null, source, sourceOptions, sourceOptions.shouldCopyDefaults(false));
+    }
+
+    private FrozenConfigurationNode(final @Nullable Object key, final @Nullable FrozenConfigurationNode parent,
+            final ConfigurationNode source, final ConfigurationOptions sourceOptions, final ConfigurationOptions options) {
+        this.key = key;
+        this.parent = parent;
+        this.sourceOptions = sourceOptions;
+        this.options = options;
+        this.hints = HintMap.EMPTY.withAll(source.ownHints());
+        if (source instanceof CommentedConfigurationNodeIntermediary<?>) {
+            this.comment = ((CommentedConfigurationNodeIntermediary<?>) source).comment();
+            this.commented = true;
+        } else {
+            this.comment = null;
+            this.commented = false;
+        }
+        if (source instanceof AttributedConfigurationNode) {
+            final AttributedConfigurationNode attributed = (AttributedConfigurationNode) source;
+            this.tagName = attributed.tagName();
+            this.attributes = attributed.hasAttributes() ? attributed.attributes() : Collections.emptyMap();
+        } else {
+            this.tagName = null;
+            this.attributes = Collections.emptyMap();
+        }
+        this.attached = !source.virtual();
+
+        final @Nullable FrozenConfigurationNode shared = pendingSnapshot(source);
+        if (shared != null) {
+            // children untouched since the source was created from a snapshot
+            this.scalar = null;
+            this.keys = shared.keys;
+            this.children = shared.children;
+            this.index = shared.index;
+        } else if (source.isMap()) {
+            final Map<Object, ? extends ConfigurationNode> sourceChildren = source.childrenMap();
+            final Object[] keys = sourceChildren.isEmpty() ? NO_KEYS : new Object[sourceChildren.size()];
+            final FrozenConfigurationNode[] children = sourceChildren.isEmpty() ? NO_CHILDREN
+                    : new FrozenConfigurationNode[sourceChildren.size()];
+            int i = 0;
+            for (final Map.Entry<Object, ? extends ConfigurationNode> entry : sourceChildren.entrySet()) {
+                keys[i] = entry.getKey();
+                children[i++] = new FrozenConfigurationNode(entry.getKey(), this, entry.getValue(), sourceOptions, options);
+            }
+            this.scalar = null;
+            this.keys = keys;
+            this.children = children;
+            this.index = keys.length > INDEX_THRESHOLD ? buildIndex(keys) : null;
+        } else if (source.isList()) {
+            final List<? extends ConfigurationNode> sourceChildren = source.childrenList();
+            final FrozenConfigurationNode[] children = sourceChildren.isEmpty() ? NO_CHILDREN
+                    : new FrozenConfigurationNode[sourceChildren.size()];
+            for (int i = 0; i < children.length; ++i) {
+                children[i] = new FrozenConfigurationNode(i, this, sourceChildren.get(i), sourceOptions, options);
+            }
+            this.scalar = null;
+            this.keys = null;
+            this.children = children;
+            this.index = null;
+        } else {
+            this.scalar = source.rawScalar();
+            this.keys = null;
+            this.children = null;
+            this.index = null;
+        }
+    }
+
+    /**
+     * Create a virtual node, representing a position without any value.
+     *
+     * @param key the key of the node
+     * @param parent the parent of the node
+     */
+    private FrozenConfigurationNode(final Object key, final FrozenConfigurationNode parent) {
+        this.key = key;
+        this.parent = parent;
+        this.sourceOptions = parent.sourceOptions;
+        this.options = parent.options;
+        this.hints = HintMap.EMPTY;
+        this.comment = null;
+        this.commented = parent.commented;
+        // matches the tag name given to new children of attributed nodes
+        this.tagName = parent.tagName == null ? null : "element";
+        this.attributes = Collections.emptyMap();
+        this.attached = false;
+        this.scalar = null;
+        this.keys = null;
+        this.children = null;
+        this.index = null;
+    }
+
+    /**
+     * Create a node with the same state as a node held by another parent.
+     *
+     * @param original the node to share state with
+     * @param parent the new parent
+     */
+    private FrozenConfigurationNode(final FrozenConfigurationNode original, final FrozenConfigurationNode parent) {
+        this.key = original.key;
+        this.parent = parent;
+        this.sourceOptions = parent.sourceOptions;
+        this.options = parent.options;
+        this.hints = original.hints;
+        this.comment = original.comment;
+        this.commented = original.commented;
+        this.tagName = original.tagName;
+        this.attributes = original.attributes;
+        this.attached = original.attached;
+        this.scalar = original.scalar;
+        this.keys = original.keys;
+        this.children = original.children;
+        this.index = original.index;
+        this.hash = original.hash;
+    }
+
+    private static @Nullable FrozenConfigurationNode pendingSnapshot(final ConfigurationNode source) {
+        if (source instanceof AbstractConfigurationNode<?, ?>) {
+            return ((AbstractConfigurationNode<?, ?>) source).value.pending();
+        }
+        return null;
+    }
+
+    /**
+     * Build an open-addressed hash index over the provided keys.
+     *
+     * <p>Each slot holds the index of a key plus one, with zero marking an
+     * empty slot.</p>
+     *
+     * @param keys the keys to index
+     * @return a new index table
+     */
+    private static int[] buildIndex(final Object[] keys) {
+        final int[] index = new int[Integer.highestOneBit(keys.length * 2 - 1) << 1];
+        final int mask = index.length - 1;
+        for (int i = 0; i < keys.length; ++i) {
+            int slot = spread(keys[i].hashCode()) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+        return index;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Get the child at {@code key}, if any is present.
+     *
+     * @param key the child key
+     * @return the child, or null if none is present
+     */
+    @Nullable FrozenConfigurationNode child(final Object key) {
+        final int idx = indexOf(key);
+        return idx < 0 ? null : children()[idx];
+    }
+
+    /**
+     * Find the position of the child at {@code key}.
+     *
+     * @param key the child key
+     * @return the position, or {@code -1} if no child is present
+     */
+    private int indexOf(final Object key) {
+        final FrozenConfigurationNode @Nullable [] children = this.children;
+        if (children == null) {
+            return -1;
+        }
+
+        final Object @Nullable [] keys = this.keys;
+        if (keys == null) { // list
+            final @Nullable Integer idx = Scalars.INTEGER.tryDeserialize(key);
+            return idx == null || idx < 0 || idx >= children.length ? -1 : idx;
+        }
+
+        final int @Nullable [] index = this.index;
+        if (index == null) {
+            for (int i = 0; i < keys.length; ++i) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        final int mask = index.length - 1;
+        for (int slot = spread(key.hashCode()) & mask;; slot = (slot + 1) & mask) {
+            final int idx = index[slot];
+            if (idx == 0) {
+                return -1;
+            } else if (keys[idx - 1].equals(key)) {
+                return idx - 1;
+            }
+        }
+    }
+
+    /**
+     * Get the children of this node, in order.
+     *
+     * <p>The returned array is shared and must not be modified.</p>
+     *
+     * @return the children of this node
+     */
+    FrozenConfigurationNode[] children() {
+        final FrozenConfigurationNode @Nullable [] children = this.children;
+        if (children == null || children.length == 0) {
+            return NO_CHILDREN;
+        } else if (children[0].parent == this) {
+            return children;
+        }
+
+        FrozenConfigurationNode @Nullable [] adopted = this.adopted;
+        if (adopted == null) {
+            adopted = new FrozenConfigurationNode[children.length];
+            for (int i = 0; i < children.length; ++i) {
+                adopted[i] = new FrozenConfigurationNode(children[i], this);
+            }
+            this.adopted = adopted;
+        }
+        return adopted;
+    }
+
+    /**
+     * Get whether this node holds the same value as another snapshot, because
+     * one shares its children with the other.
+     *
+     * <p>This is only a fast path, and may be false for equal values.</p>
+     *
+     * @param that the other snapshot
+     * @return whether the children are shared
+     */
+    boolean sharesValue(final FrozenConfigurationNode that) {
+        return this.children != null && this.children == that.children;
+    }
+
+    @Override
+    public <N extends ScopedConfigurationNode<N>, A extends AbstractConfigurationNode<N, A>> void inflate(
+            final A holder, final MapConfigValue<N, A> value) {
+        for (final FrozenConfigurationNode source : children()) {
+            final Object key = requireNonNull(source.key);
+            final A child = holder.createNode(key);
+            child.initFrom(source);
+            child.attached = true;
+            value.putBuilt(key, child);
+        }
+    }
+
+    @Override
+    public <N extends ScopedConfigurationNode<N>, A extends AbstractConfigurationNode<N, A>> void inflate(
+            final A holder, final ListConfigValue<N, A> value) {
+        final FrozenConfigurationNode[] sources = children();
+        for (int i = 0; i < sources.length; ++i) {
+            final A child = holder.createNode(i);
+            child.initFrom(sources[i]);
+            child.attached = true;
+            value.addBuilt(child);
+        }
+    }
+
+    /**
+     * Get the comment held by the node this snapshot was taken from.
+     *
+     * @return the comment, if any
+     */
+    @Nullable String comment() {
+        return this.comment;
+    }
+
+    /**
+     * Get the tag name of the node this snapshot was taken from.
+     *
+     * @return the tag name, or null if the source was not
+     *     an {@link AttributedConfigurationNode}
+     */
+    @Nullable String tagName() {
+        return this.tagName;
+    }
+
+    /**
+     * Get the attributes of the node this snapshot was taken from.
+     *
+     * @return an unmodifiable map of attributes
+     */
+    Map<String, String> attributes() {
+        return this.attributes;
+    }
+
+    private boolean isNull() {
+        return this.children == null && this.scalar == null;
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("Snapshots cannot be modified. Use copy() to get a mutable node.");
+    }
+
+    @Override
+    public @Nullable Object key() {
+        return this.key;
+    }
+
+    @Override
+    public NodePath path() {
+        @Nullable FrozenConfigurationNode pointer = this;
+        if (pointer.parent == null) {
+            return NodePath.path();
+        }
+
+        final Deque<Object> pathElements = new ArrayDeque<>();
+        do {
+            pathElements.addFirst(requireNonNull(pointer.key));
+            pointer = pointer.parent;
+        } while (pointer != null && pointer.parent != null);
+        return NodePath.of(pathElements);
+    }
+
+    @Override
+    public @Nullable FrozenConfigurationNode parent() {
+        return this.parent;
+    }
+
+    @Override
+    public FrozenConfigurationNode node(final Object... path) {
+        FrozenConfigurationNode pointer = this;
+        for (final Object el : path) {
+            pointer = pointer.childOrVirtual(requireNonNull(el, () -> "element in path " + Arrays.toString(path)));
+        }
+        return pointer;
+    }
+
+    @Override
+    public FrozenConfigurationNode node(final Iterable<?> path) {
+        FrozenConfigurationNode pointer = this;
+        for (final Object el : path) {
+            pointer = pointer.childOrVirtual(requireNonNull(el, () -> "element in path " + path));
+        }
+        return pointer;
+    }
+
+    private FrozenConfigurationNode childOrVirtual(final Object key) {
+        final @Nullable FrozenConfigurationNode child = child(key);
+        return child == null ? new FrozenConfigurationNode(key, this) : child;
+    }
+
+    @Override
+    public @Nullable FrozenConfigurationNode find(final Object... path) {
+        @Nullable FrozenConfigurationNode pointer = this;
+        for (int i = 0; i < path.length && pointer != null; ++i) {
+            pointer = pointer.child(requireNonNull(path[i], () -> "element in path " + Arrays.toString(path)));
+        }
+        return pointer;
+    }
+
+    @Override
+    public @Nullable FrozenConfigurationNode find(final NodePath path) {
+        @Nullable FrozenConfigurationNode pointer = this;
+        for (int i = 0, length = path.size(); i < length && pointer != null; ++i) {
+            pointer = pointer.child(path.get(i));
+        }
+        return pointer;
+    }
+
+    @Override
+    public boolean hasChild(final Object... path) {
+        @Nullable FrozenConfigurationNode pointer = this;
+        for (final Object el : path) {
+            pointer = pointer.child(requireNonNull(el, () -> "element in path " + Arrays.toString(path)));
+            if (pointer == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean hasChild(final Iterable<?> path) {
+        @Nullable FrozenConfigurationNode pointer = this;
+        for (final Object el : path) {
+            pointer = pointer.child(requireNonNull(el, () -> "element in path " + path));
+            if (pointer == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean virtual() {
+        return !this.attached;
+    }
+
+    @Override
+    public ConfigurationOptions options() {
+        return this.options;
+    }
+
+    @Override
+    public boolean isList() {
+        return this.children != null && this.keys == null;
+    }
+
+    @Override
+    public boolean isMap() {
+        return this.keys != null;
+    }
+
+    @Override
+    public boolean empty() {
+        final FrozenConfigurationNode @Nullable [] children = this.children;
+        if (children != null) {
+            return children.length == 0;
+        }
+        final @Nullable Object scalar = this.scalar;
+        return scalar == null
+                || (scalar instanceof String && ((String) scalar).isEmpty())
+                || (scalar instanceof Collection<?> && ((Collection<?>) scalar).isEmpty());
+    }
+
+    @Override
+    public List<FrozenConfigurationNode> childrenList() {
+        return this.children == null || this.keys != null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(children()));
+    }
+
+    @Override
+    public Map<Object, FrozenConfigurationNode> childrenMap() {
+        final Object @Nullable [] keys = this.keys;
+        if (keys == null) {
+            return Collections.emptyMap();
+        }
+        final FrozenConfigurationNode[] children = children();
+        final Map<Object, FrozenConfigurationNode> ret = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; ++i) {
+            ret.put(keys[i], children[i]);
+        }
+        return Collections.unmodifiableMap(ret);
+    }
+
+    @Override
+    public int childCount() {
+        final FrozenConfigurationNode @Nullable [] children = this.children;
+        return children == null ? 0 : children.length;
+    }
+
+    @Override
+    public void forEachChild(final BiConsumer<Object, ? super ConfigurationNode> action) {
+        for (final FrozenConfigurationNode child : children()) {
+            action.accept(requireNonNull(child.key()), child);
+        }
+    }
+
+    @Override
+    public Spliterator<FrozenConfigurationNode> childrenSpliterator() {
+        return Arrays.spliterator(children());
+    }
+
+    @Override
+    public @Nullable Object get(final Type type) throws SerializationException {
+        requireNonNull(type, "type");
+        if (isMissingTypeParameters(type)) {
+            throw new SerializationException(this, type, "Raw types are not supported");
+        }
+
+        final @Nullable TypeSerializer<?> serial = this.options.serializers().get(type);
+        if (isNull()) {
+            if (serial != null && this.options.implicitInitialization()) {
+                return serial.emptyValue(type, this.options);
+            }
+            return null;
+        }
+
+        if (serial == null) {
+            final @Nullable Object value = raw();
+            return erase(type).isInstance(value) ? value : null;
+        }
+        try {
+            return serial.deserialize(type, this);
+        } catch (final SerializationException ex) {
+            ex.initPath(this::path);
+            ex.initType(type);
+            throw ex;
+        }
+    }
+
+    @Override
+    public @Nullable Object raw() {
+        final FrozenConfigurationNode @Nullable [] children = this.children;
+        if (children == null) {
+            return this.scalar;
+        }
+
+        final Object @Nullable [] keys = this.keys;
+        if (keys == null) {
+            final List<@Nullable Object> ret = new ArrayList<>(children.length);
+            for (final FrozenConfigurationNode child : children) {
+                ret.add(child.raw());
+            }
+            return ret;
+        } else {
+            final Map<Object, @Nullable Object> ret = new LinkedHashMap<>();
+            for (int i = 0; i < keys.length; ++i) {
+                ret.put(keys[i], children[i].raw());
+            }
+            return ret;
+        }
+    }
+
+    @Override
+    public ConfigurationNode raw(final @Nullable Object value) {
+        throw immutable();
+    }
+
+    @Override
+    public @Nullable Object rawScalar() {
+        return this.scalar;
+    }
+
+    @Override
+    public ConfigurationNode copy() {
+        if (this.tagName != null) {
+            return AttributedConfigurationNode.root(this.tagName, this.sourceOptions).from(this);
+        } else if (this.commented) {
+            return CommentedConfigurationNode.root(this.sourceOptions).from(this);
+        } else {
+            return BasicConfigurationNode.root(this.sourceOptions).from(this);
+        }
+    }
+
+    @Override
+    public long modificationStamp() {
+        return 0; // snapshots are never modified
+    }
+
+    @Override
+    public FrozenConfigurationNode snapshot() {
+        return this;
+    }
+
+    @Override
+    public <S, T, E extends Exception> T visit(final ConfigurationVisitor<S, T, E> visitor, final S state) throws E {
+        return visitInternal(visitor, state);
+    }
+
+    @Override
+    public <S, T> T visit(final ConfigurationVisitor.Safe<S, T> visitor, final S state) {
+        try {
+            return visitInternal(visitor, state);
+        } catch (final VisitorSafeNoopException ex) {
+            // this exception should never be thrown, has a private constructor
+            throw new AssertionError("Exception was thrown on a Safe visitor", ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S, T, E extends Exception> T visitInternal(final ConfigurationVisitor<S, T, E> visitor, final S state) throws E {
+        visitor.beginVisit(this, state);
+        if (!isNull()) {
+            final VisitStack stack = new VisitStack(this);
+            @Nullable FrozenConfigurationNode current;
+            while ((current = stack.next(visitor, state)) != null) {
+                try {
+                    final ConfigurationVisitor.Control control = visitor.enter(current, state);
+                    if (control == ConfigurationVisitor.Control.STOP) {
+                        stack.stop(visitor, state);
+                        break;
+                    }
+                    final FrozenConfigurationNode @Nullable [] children = current.children;
+                    if (children != null) {
+                        final boolean map = current.keys != null;
+                        if (map) {
+                            visitor.enterMappingNode(current, state);
+                        } else {
+                            visitor.enterListNode(current, state);
+                        }
+                        stack.pushExit(current, map);
+                        if (control == ConfigurationVisitor.Control.CONTINUE) {
+                            stack.pushChildren(children);
+                        }
+                    } else if (current.scalar != null) {
+                        visitor.enterScalarNode(current, state);
+                    }
+                } catch (final Exception ex) {
+                    if (ex instanceof ConfigurateException) {
+                        ((ConfigurateException) ex).initPath(current::path);
+                    }
+                    throw (E) ex;
+                }
+            }
+        }
+        return visitor.endVisit(state);
+    }
+
+    @Override
+    public <V> ConfigurationNode hint(final RepresentationHint<V> hint, final @Nullable V value) {
+        throw immutable();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <V> @Nullable V hint(final RepresentationHint<V> hint) {
+        final @Nullable Object value = this.hints.get(hint);
+        if (value != null) {
+            return (V) value;
+        }
+        final @Nullable FrozenConfigurationNode parent = this.parent;
+        if (parent != null && hint.inheritable()) {
+            return parent.hint(hint);
+        } else {
+            return hint.defaultValue();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <V> @Nullable V ownHint(final RepresentationHint<V> hint) {
+        return (V) this.hints.get(hint);
+    }
+
+    @Override
+    public Map<RepresentationHint<?>, ?> ownHints() {
+        return this.hints;
+    }
+
+    // Mutators, which are all unsupported
+
+    @Override
+    public ConfigurationNode set(final @Nullable Object value) {
+        throw immutable();
+    }
+
+    @Override
+    public <V> ConfigurationNode set(final TypeToken<V> type, final @Nullable V value) {
+        throw immutable();
+    }
+
+    @Override
+    public <V> ConfigurationNode set(final Class<V> type, final @Nullable V value) {
+        throw immutable();
+    }
+
+    @Override
+    public ConfigurationNode set(final Type type, final @Nullable Object value) {
+        throw immutable();
+    }
+
+    @Override
+    public ConfigurationNode from(final ConfigurationNode other) {
+        throw immutable();
+    }
+
+    @Override
+    public ConfigurationNode mergeFrom(final ConfigurationNode other) {
+        throw immutable();
+    }
+
+    @Override
+    public boolean removeChild(final Object key) {
+        throw immutable();
+    }
+
+    @Override
+    public ConfigurationNode appendListNode() {
+        throw immutable();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof FrozenConfigurationNode)) {
+            return false;
+        }
+
+        final FrozenConfigurationNode that = (FrozenConfigurationNode) o;
+        return Objects.equals(this.key, that.key) && sameValue(that);
+    }
+
+    /**
+     * Get whether this node holds a value equal to that of another snapshot,
+     * regardless of their keys.
+     *
+     * <p>Shared children settle equality, and differing hashes (which are
+     * cached) settle inequality, without a traversal.</p>
+     *
+     * @param that the other snapshot
+     * @return whether the values are equal
+     */
+    boolean sameValue(final FrozenConfigurationNode that) {
+        if (this.sharesValue(that)) {
+            return true;
+        } else if (this.valueHash() != that.valueHash()
+                || !Objects.equals(this.scalar, that.scalar)
+                || (this.keys == null) != (that.keys == null)) {
+            return false;
+        }
+
+        final FrozenConfigurationNode @Nullable [] children = this.children;
+        if (children == null || that.children == null || children == that.children) {
+            return children == that.children;
+        } else if (this.keys == null) {
+            return Arrays.equals(children, that.children);
+        } else if (children.length != that.children.length) {
+            return false;
+        }
+
+        // maps are compared without regard to order
+        for (final FrozenConfigurationNode child : children) {
+            final int idx = that.indexOf(requireNonNull(child.key));
+            if (idx < 0 || !child.equals(that.children[idx])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.key) ^ valueHash();
+    }
+
+    private int valueHash() {
+        int hash = this.hash;
+        if (hash == 0) {
+            final FrozenConfigurationNode @Nullable [] children = this.children;
+            if (children == null) {
+                hash = Objects.hashCode(this.scalar);
+            } else if (this.keys == null) {
+                hash = Arrays.hashCode(children);
+            } else {
+                for (final FrozenConfigurationNode child : children) {
+                    hash += child.hashCode();
+                }
+            }
+            this.hash = hash;
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "FrozenConfigurationNode{key=" + this.key + ", value=" + (this.children == null ? this.scalar : this.childrenMapOrList()) + '}';
+    }
+
+    private Object childrenMapOrList() {
+        return this.keys == null ? childrenList() : childrenMap();
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable map of representation hints to their values.
+ *
+ * <p>Very few nodes have any hints set, so all nodes without hints share
+ * a single {@link #EMPTY empty instance}. Otherwise, hints and values are
+ * stored in alternating slots of a single array, and updated by creating
+ * a new map.</p>
+ */
+final class HintMap extends AbstractMap<RepresentationHint<?>, Object> {
+
+    static final HintMap EMPTY = new HintMap(new Object[0]);
+
+    private final Object[] entries;
+    private @Nullable Set<Map.Entry<RepresentationHint<?>, Object>> entrySet;
+
+    private HintMap(final Object[] entries) {
+        this.entries = entries;
+    }
+
+    private int indexOf(final @Nullable Object hint) {
+        final Object[] entries = this.entries;
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i] == hint || entries[i].equals(hint)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public @Nullable Object get(final @Nullable Object hint) {
+        final int idx = indexOf(hint);
+        return idx == -1 ? null : this.entries[idx + 1];
+    }
+
+    @Override
+    public boolean containsKey(final @Nullable Object hint) {
+        return indexOf(hint) != -1;
+    }
+
+    @Override
+    public int size() {
+        return this.entries.length >> 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.entries.length == 0;
+    }
+
+    /**
+     * Get a map with the value of {@code hint} changed.
+     *
+     * @param hint the hint to change
+     * @param value the new value, or null to remove the hint
+     * @return a hint map with the change applied
+     */
+    HintMap with(final RepresentationHint<?> hint, final @Nullable Object value) {
+        final int idx = indexOf(hint);
+        if (value == null) {
+            if (idx == -1) {
+                return this;
+            } else if (this.entries.length == 2) {
+                return EMPTY;
+            }
+            final Object[] entries = new Object[this.entries.length - 2];
+            System.arraycopy(this.entries, 0, entries, 0, idx);
+            System.arraycopy(this.entries, idx + 2, entries, idx, entries.length - idx);
+            return new HintMap(entries);
+        } else if (idx == -1) {
+            final Object[] entries = Arrays.copyOf(this.entries, this.entries.length + 2);
+            entries[entries.length - 2] = hint;
+            entries[entries.length - 1] = value;
+            return new HintMap(entries);
+        } else if (this.entries[idx + 1] == value) {
+            return this;
+        } else {
+            final Object[] entries = this.entries.clone();
+            entries[idx + 1] = value;
+            return new HintMap(entries);
+        }
+    }
+
+    /**
+     * Get a map with every hint in {@code hints} set.
+     *
+     * @param hints the hints to set
+     * @return a hint map with the changes applied
+     */
+    HintMap withAll(final Map<RepresentationHint<?>, ?> hints) {
+        if (hints.isEmpty()) {
+            return this;
+        } else if (this.isEmpty() && hints instanceof HintMap) {
+            return (HintMap) hints;
+        }
+
+        HintMap ret = this;
+        for (final Map.Entry<RepresentationHint<?>, ?> entry : hints.entrySet()) {
+            ret = ret.with(entry.getKey(), entry.getValue());
+        }
+        return ret;
+    }
+
+    @Override
+    public Set<Map.Entry<RepresentationHint<?>, Object>> entrySet() {
+        @Nullable Set<Map.Entry<RepresentationHint<?>, Object>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            entrySet = this.entrySet = new AbstractSet<Map.Entry<RepresentationHint<?>, Object>>() {
+                @Override
+                public Iterator<Map.Entry<RepresentationHint<?>, Object>> iterator() {
+                    return new Iterator<Map.Entry<RepresentationHint<?>, Object>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return this.next < HintMap.this.entries.length;
+                        }
+
+                        @Override
+                        public Map.Entry<RepresentationHint<?>, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final Object[] entries = HintMap.this.entries;
+                            final int idx = this.next;
+                            this.next += 2;
+                            return new SimpleImmutableEntry<>((RepresentationHint<?>) entries[idx], entries[idx + 1]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return HintMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+}
@@ -16,20 +16,26 @@
  */
 package org.spongepowered.configurate;
 
-import org.checkerframework.checker.nullness.qual.NonNull;
+import static java.util.Objects.requireNonNull;
+
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.configurate.serialize.Scalars;
-import org.spongepowered.configurate.util.UnmodifiableCollections;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
 
 /**
  * A {@link ConfigValue} which holds a list of values.
+ *
+ * <p>Like {@link MapConfigValue}, a list value may be backed by
+ * {@link PendingChildren} whose elements are only turned into nodes on first
+ * access. Access to the
+ * backing list uses the same optimistic read scheme.</p>
  */
 final class ListConfigValue<N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> extends ConfigValue<N, T> {
 
@@ -56,43 +62,171 @@ final class ListConfigValue<N extends ScopedConfigurationNode<N>, T extends Abst
         return key instanceof Integer || key == UNALLOCATED_IDX;
     }
 
-    final AtomicReference<@NonNull List<T>> values = new AtomicReference<>(new ArrayList<>());
+    private final StampedLock lock = new StampedLock();
+    private List<T> values = new ArrayList<>();
+    /**
+     * The number of elements in {@link #values}, which can be read
+     * optimistically.
+     */
+    private int size;
+    private volatile @Nullable PendingChildren pending;
+    private volatile Object @Nullable [] elements;
 
     ListConfigValue(final T holder) {
         super(holder);
     }
 
+    ListConfigValue(final T holder, final PendingChildren pending) {
+        super(holder);
+        this.pending = pending;
+    }
+
     ListConfigValue(final T holder, final @Nullable Object startValue) {
         super(holder);
         if (startValue != null) {
             final T child = holder.createNode(0);
             child.attached = true;
             child.raw(startValue);
-            this.values.get().add(child);
+            this.addBuilt(child);
         }
     }
 
-    @Override
-    public Object get() {
-        final List<T> values = this.values.get();
-        synchronized (values) {
-            final List<Object> ret = new ArrayList<>(values.size());
-            for (T obj : values) {
-                ret.add(obj.raw()); // unwrap
+    private void inflate() {
+        final long stamp = this.writeLock(this.lock);
+        try {
+            final @Nullable PendingChildren pending = this.pending;
+            if (pending == null) {
+                return;
+            }
+            this.values = new ArrayList<>(pending.childCount());
+            try {
+                pending.inflate(this.holder, this);
+            } catch (final RuntimeException ex) {
+                // stay pending, so the next access fails the same way
+                this.values = new ArrayList<>();
+                this.size = 0;
+                throw ex;
             }
-            return ret;
+            this.pending = null;
+        } finally {
+            unlockWrite(this.lock, stamp);
         }
     }
 
-    public List<N> unwrapped() {
-        final List<T> orig = this.values.get();
-        synchronized (orig) {
-            final List<N> ret = new ArrayList<>(orig.size());
-            for (T element : orig) {
-                ret.add(element.self());
+    /**
+     * Replace the backing list of this empty value with one sized for the
+     * expected number of elements.
+     *
+     * @param expectedSize the expected number of elements
+     * @see MapConfigValue#presize(int)
+     */
+    void presize(final int expectedSize) {
+        if (expectedSize > 0 && this.values.isEmpty()) {
+            this.values = new ArrayList<>(expectedSize);
+        }
+    }
+
+    /**
+     * Add an element to this value without locking.
+     *
+     * @param child the element, which must already be attached
+     * @see MapConfigValue#putBuilt(Object, AbstractConfigurationNode)
+     */
+    void addBuilt(final T child) {
+        this.values.add(child);
+        this.size = this.values.size();
+    }
+
+    /**
+     * Perform a read-only operation on this value's elements.
+     *
+     * @param argument argument to pass to the operation
+     * @param action the operation
+     * @param <A> argument type
+     * @param <V> result type
+     * @return the operation's result
+     * @see ConfigValue#readLock(StampedLock)
+     */
+    private <A, V> V read(final A argument, final BiFunction<ListConfigValue<N, T>, A, V> action) {
+        if (this.pending != null) {
+            inflate();
+        }
+        final long stamp = this.readLock(this.lock);
+        try {
+            return action.apply(this, argument);
+        } finally {
+            unlockRead(this.lock, stamp);
+        }
+    }
+
+    private static <T> @Nullable T elementAt(final List<T> values, final Integer index) {
+        return index < values.size() ? values.get(index) : null;
+    }
+
+    /**
+     * Get the number of elements held by this value.
+     *
+     * @return the element count
+     */
+    int size() {
+        final @Nullable PendingChildren pending = this.pending;
+        if (pending != null) {
+            return pending.childCount();
+        }
+        if (this.holder.confined) {
+            return this.size;
+        }
+        return readOptimistically(this.lock, this, self -> self.size);
+    }
+
+    /**
+     * Get the elements currently held by this value.
+     *
+     * <p>The returned array is shared between callers until this value is
+     * next modified, and must not be changed.</p>
+     *
+     * @return an array of {@code N}
+     * @see MapConfigValue#elements()
+     */
+    Object[] elements() {
+        @Nullable Object[] elements = this.elements;
+        if (elements == null) {
+            if (this.pending != null) {
+                inflate();
+            }
+            final long stamp = this.readLock(this.lock);
+            try {
+                final List<T> values = this.values;
+                elements = new Object[values.size()];
+                for (int i = 0; i < elements.length; ++i) {
+                    elements[i] = values.get(i).self();
+                }
+                this.elements = elements;
+            } finally {
+                unlockRead(this.lock, stamp);
             }
-            return Collections.unmodifiableList(ret);
         }
+        return elements;
+    }
+
+    @Override
+    public Object get() {
+        final @Nullable PendingChildren pending = this.pending;
+        if (pending instanceof FrozenConfigurationNode) {
+            return requireNonNull(((FrozenConfigurationNode) pending).raw());
+        }
+
+        final List<T> values = iterateChildren();
+        final List<Object> ret = new ArrayList<>(values.size());
+        for (T obj : values) {
+            ret.add(obj.raw()); // unwrap
+        }
+        return ret;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<N> unwrapped() {
+        return Collections.unmodifiableList((List<N>) (List<?>) Arrays.asList(elements()));
     }
 
     @Override
@@ -115,7 +249,21 @@ final class ListConfigValue<N extends ScopedConfigurationNode<N>, T extends Abst
             child.raw(o);
             ++count;
         }
-        detachNodes(this.values.getAndSet(newValue));
+        detachNodes(swap(newValue));
+    }
+
+    private List<T> swap(final List<T> newValue) {
+        final long stamp = this.writeLock(this.lock);
+        try {
+            this.elements = null;
+            final List<T> oldValues = this.values;
+            this.values = newValue;
+            this.size = newValue.size();
+            this.pending = null;
+            return oldValues;
+        } finally {
+            unlockWrite(this.lock, stamp);
+        }
     }
 
     @Override
@@ -129,52 +277,61 @@ final class ListConfigValue<N extends ScopedConfigurationNode<N>, T extends Abst
     }
 
     private @Nullable T putChildInternal(final Object index, final @Nullable T value, final boolean onlyIfAbsent) {
+        if (this.pending != null) {
+            inflate();
+        }
         if (index == UNALLOCATED_IDX) {
             if (value != null) { // can't remove an unallocated node
-                List<T> values;
-                do {
+                final long stamp = this.writeLock(this.lock);
+                try {
+                    this.elements = null;
                     // Allocate an index for the newly added node
-                    values = this.values.get();
-                    values.add(value);
-                    value.key = values.lastIndexOf(value);
-                } while (!this.values.compareAndSet(values, values));
+                    this.values.add(value);
+                    this.size = this.values.size();
+                    value.rekey(this.size - 1);
+                } finally {
+                    unlockWrite(this.lock, stamp);
+                }
             }
             return null;
         } else {
-            return putChildInternal((int) index, value, onlyIfAbsent);
+            final long stamp = this.writeLock(this.lock);
+            try {
+                this.elements = null;
+                final @Nullable T ret = putChildInternal(this.values, (int) index, value, onlyIfAbsent);
+                this.size = this.values.size();
+                return ret;
+            } finally {
+                unlockWrite(this.lock, stamp);
+            }
         }
     }
 
-    private @Nullable T putChildInternal(final int index, final @Nullable T value, final boolean onlyIfAbsent) {
+    private static <T extends AbstractConfigurationNode<?, T>> @Nullable T putChildInternal(final List<T> values, final int index,
+            final @Nullable T value, final boolean onlyIfAbsent) {
         @Nullable T ret = null;
-        List<T> values;
-        do {
-            values = this.values.get();
-            synchronized (values) {
-                if (value == null) {
-                    // only remove actually existing values
-                    if (index >= 0 && index < values.size()) {
-                        // remove the value
-                        ret = values.remove(index);
-                        // update indexes for subsequent elements
-                        for (int i = index; i < values.size(); ++i) {
-                            values.get(i).key = index;
-                        }
-                    }
+        if (value == null) {
+            // only remove actually existing values
+            if (index >= 0 && index < values.size()) {
+                // remove the value
+                ret = values.remove(index);
+                // update indexes for subsequent elements
+                for (int i = index; i < values.size(); ++i) {
+                    values.get(i).rekey(i);
+                }
+            }
+        } else {
+            // check if the index is in range
+            if (index >= 0 && index < values.size()) {
+                if (onlyIfAbsent) {
+                    return values.get(index);
                 } else {
-                    // check if the index is in range
-                    if (index >= 0 && index < values.size()) {
-                        if (onlyIfAbsent) {
-                            return values.get(index);
-                        } else {
-                            ret = values.set(index, value);
-                        }
-                    } else {
-                        values.add(index, value);
-                    }
+                    ret = values.set(index, value);
                 }
+            } else {
+                values.add(index, value);
             }
-        } while (!this.values.compareAndSet(values, values));
+        }
         return ret;
     }
 
@@ -184,59 +341,60 @@ final class ListConfigValue<N extends ScopedConfigurationNode<N>, T extends Abst
         if (value == null || value < 0) {
             return null;
         }
+        return read(value, (self, index) -> elementAt(self.values, index));
+    }
 
-        final List<T> values = this.values.get();
-        synchronized (values) {
-            if (value >= values.size()) {
-                return null;
-            }
-            return values.get(value);
-        }
+    @Override
+    public List<T> iterateChildren() {
+        return read(null, (self, unused) -> new ArrayList<>(self.values));
     }
 
     @Override
-    public Iterable<T> iterateChildren() {
-        final List<T> values = this.values.get();
-        synchronized (values) {
-            return UnmodifiableCollections.copyOf(values);
+    Iterable<T> createdChildren() {
+        if (this.pending != null) {
+            return Collections.emptyList();
         }
+        return iterateChildren();
+    }
+
+    @Override
+    @Nullable PendingChildren pendingChildren() {
+        return this.pending;
     }
 
     @Override
     ListConfigValue<N, T> copy(final T holder) {
-        final ListConfigValue<N, T> copy = new ListConfigValue<>(holder);
-        final List<T> copyValues;
+        return copy(holder, false);
+    }
 
-        final List<T> values = this.values.get();
-        synchronized (values) {
-            copyValues = new ArrayList<>(values.size());
-            for (T obj : values) {
-                copyValues.add(obj.copy(holder)); // recursively copy
-            }
+    @Override
+    ListConfigValue<N, T> copy(final T holder, final boolean parallel) {
+        final @Nullable PendingChildren pending = this.pending;
+        if (pending != null) { // share the pending children
+            return new ListConfigValue<>(holder, pending);
         }
 
-        copy.values.set(copyValues);
+        final ListConfigValue<N, T> copy = new ListConfigValue<>(holder);
+        copy.values = ParallelCopy.copy(iterateChildren(), holder, parallel); // recursively copy
+        copy.size = copy.values.size();
         return copy;
     }
 
     @Override
     boolean isEmpty() {
-        return this.values.get().isEmpty();
+        return this.size() == 0;
     }
 
     private static void detachNodes(final List<? extends AbstractConfigurationNode<?, ?>> children) {
-        synchronized (children) {
-            for (AbstractConfigurationNode<?, ?> node : children) {
-                node.attached = false;
-                node.clear();
-            }
+        for (AbstractConfigurationNode<?, ?> node : children) {
+            node.attached = false;
+            node.clear();
         }
     }
 
     @Override
     public void clear() {
-        final List<T> oldValues = this.values.getAndSet(new ArrayList<>());
-        detachNodes(oldValues);
+        detachNodes(swap(new ArrayList<>()));
     }
 
     @Override
@@ -248,17 +406,17 @@ final class ListConfigValue<N extends ScopedConfigurationNode<N>, T extends Abst
             return false;
         }
         final ListConfigValue<?, ?> that = (ListConfigValue<?, ?>) other;
-        return Objects.equals(this.values.get(), that.values.get());
+        return Arrays.equals(elements(), that.elements());
     }
 
     @Override
     public int hashCode() {
-        return this.values.get().hashCode();
+        return Arrays.hashCode(elements());
     }
 
     @Override
     public String toString() {
-        return "ListConfigValue{values=" + this.values.get().toString() + '}';
+        return "ListConfigValue{values=" + iterateChildren() + '}';
     }
 
 }
@@ -16,39 +16,198 @@
  */
 package org.spongepowered.configurate;
 
+import static java.util.Objects.requireNonNull;
+
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
 
 /**
  * A {@link ConfigValue} which holds a map of values.
+ *
+ * <p>A map value may be backed by {@link PendingChildren}, such as a snapshot
+ * of a mapping node, in which case child nodes will only be created once
+ * they are first accessed. Until then, copies of this value will share the
+ * same pending children.</p>
+ *
+ * <p>Access to the backing map is guarded by a {@link StampedLock}. Lookups
+ * and copies of the map are made while holding the read lock, so readers
+ * only block while a write is in progress. The number of children and the
+ * cached array of children are plain fields, and are read without
+ * locking.</p>
  */
 final class MapConfigValue<N extends ScopedConfigurationNode<N>, A extends AbstractConfigurationNode<N, A>> extends ConfigValue<N, A> {
 
-    volatile Map<Object, A> values;
+    private final StampedLock lock = new StampedLock();
+    private Map<Object, A> values;
+    /**
+     * The number of entries in {@link #values}, which can be read
+     * optimistically.
+     */
+    private int size;
+    private volatile @Nullable PendingChildren pending;
+    private volatile Object @Nullable [] elements;
 
     MapConfigValue(final A holder) {
         super(holder);
         this.values = newMap();
     }
 
+    MapConfigValue(final A holder, final PendingChildren pending) {
+        super(holder);
+        this.values = newMap();
+        this.pending = pending;
+    }
+
+    private void inflate() {
+        final long stamp = this.writeLock(this.lock);
+        try {
+            final @Nullable PendingChildren pending = this.pending;
+            if (pending == null) {
+                return;
+            }
+            this.presize(pending.childCount());
+            try {
+                pending.inflate(this.holder, this);
+            } catch (final RuntimeException ex) {
+                // stay pending, so the next access fails the same way
+                this.values.clear();
+                this.size = 0;
+                throw ex;
+            }
+            this.pending = null;
+        } finally {
+            unlockWrite(this.lock, stamp);
+        }
+    }
+
     private Map<Object, A> newMap() {
-        final Map<Object, A> ret = this.holder.options().mapFactory().create();
-        if (!(ret instanceof ConcurrentMap)) {
-            return Collections.synchronizedMap(ret);
-        } else {
-            return ret;
+        return this.holder.options().mapFactory().create();
+    }
+
+    /**
+     * Replace the backing map of this empty value with one sized for the
+     * expected number of children.
+     *
+     * <p>Like {@link #putBuilt(Object, AbstractConfigurationNode)}, this may
+     * only be used by a {@link TreeBuilder} before the value is published.</p>
+     *
+     * @param expectedSize the expected number of children
+     */
+    void presize(final int expectedSize) {
+        if (expectedSize > 0 && this.values.isEmpty()) {
+            this.values = this.holder.options().mapFactory().create(expectedSize);
+        }
+    }
+
+    /**
+     * Add a child to this value without locking.
+     *
+     * <p>This is only safe while a {@link TreeBuilder} is building the value,
+     * before it is visible to any other thread, or while its pending children
+     * are inflated under the write lock.</p>
+     *
+     * @param key the child's key
+     * @param child the child, which must already be attached
+     */
+    void putBuilt(final Object key, final A child) {
+        this.values.put(key, child);
+        this.size = this.values.size();
+    }
+
+    /**
+     * Perform a read-only operation on this value's children.
+     *
+     * @param argument argument to pass to the operation
+     * @param action the operation
+     * @param <T> argument type
+     * @param <V> result type
+     * @return the operation's result
+     * @see ConfigValue#readLock(StampedLock)
+     */
+    private <T, V> V read(final T argument, final BiFunction<MapConfigValue<N, A>, T, V> action) {
+        if (this.pending != null) {
+            inflate();
+        }
+        final long stamp = this.readLock(this.lock);
+        try {
+            return action.apply(this, argument);
+        } finally {
+            unlockRead(this.lock, stamp);
+        }
+    }
+
+    /**
+     * Get the number of children held by this value.
+     *
+     * @return the child count
+     */
+    int size() {
+        final @Nullable PendingChildren pending = this.pending;
+        if (pending != null) {
+            return pending.childCount();
+        }
+        if (this.holder.confined) {
+            return this.size;
+        }
+        return readOptimistically(this.lock, this, self -> self.size);
+    }
+
+    /**
+     * Get the children currently held by this value, in iteration order.
+     *
+     * <p>The returned array is shared between callers until this value is
+     * next modified, and must not be changed.</p>
+     *
+     * @return an array of {@code N}
+     */
+    Object[] elements() {
+        @Nullable Object[] elements = this.elements;
+        if (elements == null) {
+            if (this.pending != null) {
+                inflate();
+            }
+            // cache under the read lock, so a writer can't invalidate it in between
+            final long stamp = this.readLock(this.lock);
+            try {
+                elements = new Object[this.values.size()];
+                int i = 0;
+                for (final A child : this.values.values()) {
+                    elements[i++] = child.self();
+                }
+                this.elements = elements;
+            } finally {
+                unlockRead(this.lock, stamp);
+            }
         }
+        return elements;
+    }
+
+    /**
+     * Get a copy of the child nodes currently held by this value.
+     *
+     * @return a new map of the children
+     */
+    Map<Object, A> copyValues() {
+        return read(null, (self, unused) -> new LinkedHashMap<>(self.values));
     }
 
     @Override
     public @Nullable Object get() {
+        final @Nullable PendingChildren pending = this.pending;
+        if (pending instanceof FrozenConfigurationNode) {
+            return ((FrozenConfigurationNode) pending).raw();
+        }
+
         final Map<Object, Object> value = new LinkedHashMap<>();
-        for (Map.Entry<Object, A> ent : this.values.entrySet()) {
+        for (Map.Entry<Object, A> ent : copyValues().entrySet()) {
             value.put(ent.getKey(), ent.getValue().raw()); // unwrap key from the backing node
         }
         return value;
@@ -56,7 +215,7 @@ final class MapConfigValue<N extends ScopedConfigurationNode<N>, A extends Abstr
 
     public Map<Object, N> unwrapped() {
         final Map<Object, N> unwrapped = new LinkedHashMap<>();
-        this.values.forEach((k, v) -> unwrapped.put(k, v.self()));
+        copyValues().forEach((k, v) -> unwrapped.put(k, v.self()));
         return Collections.unmodifiableMap(unwrapped);
     }
 
@@ -73,56 +232,103 @@ final class MapConfigValue<N extends ScopedConfigurationNode<N>, A extends Abstr
                 child.attached = true;
                 child.raw(ent.getValue());
             }
-            synchronized (this) {
-                final Map<Object, A> oldMap = this.values;
-                this.values = newValue;
-                detachChildren(oldMap);
-            }
+            detachChildren(swap(newValue));
         } else {
             throw new IllegalArgumentException("Map configuration values can only be set to values of type Map");
         }
     }
 
+    private Map<Object, A> swap(final Map<Object, A> newValue) {
+        final long stamp = this.writeLock(this.lock);
+        try {
+            this.elements = null;
+            final Map<Object, A> oldMap = this.values;
+            this.values = newValue;
+            this.size = newValue.size();
+            this.pending = null;
+            return oldMap;
+        } finally {
+            unlockWrite(this.lock, stamp);
+        }
+    }
+
     @Override
     @Nullable A putChild(final Object key, final @Nullable A value) {
-        if (value == null) {
-            return this.values.remove(key);
-        } else {
-            return this.values.put(key, value);
-        }
+        return write(key, value, false);
     }
 
     @Override
     @Nullable A putChildIfAbsent(final Object key, final @Nullable A value) {
-        if (value == null) {
-            return this.values.remove(key);
-        } else {
-            return this.values.putIfAbsent(key, value);
+        return write(key, value, true);
+    }
+
+    private @Nullable A write(final Object key, final @Nullable A value, final boolean onlyIfAbsent) {
+        if (this.pending != null) {
+            inflate();
+        }
+        final long stamp = this.writeLock(this.lock);
+        try {
+            this.elements = null;
+            final @Nullable A ret;
+            if (value == null) {
+                ret = this.values.remove(key);
+            } else if (onlyIfAbsent) {
+                ret = this.values.putIfAbsent(key, value);
+            } else {
+                ret = this.values.put(key, value);
+            }
+            this.size = this.values.size();
+            return ret;
+        } finally {
+            unlockWrite(this.lock, stamp);
         }
     }
 
     @Override
     public @Nullable A child(final @Nullable Object key) {
-        return this.values.get(key);
+        return read(key, (self, k) -> self.values.get(k));
+    }
+
+    @Override
+    public List<A> iterateChildren() {
+        return read(null, (self, unused) -> new ArrayList<>(self.values.values()));
+    }
+
+    @Override
+    Iterable<A> createdChildren() {
+        if (this.pending != null) {
+            return Collections.emptyList();
+        }
+        return iterateChildren();
     }
 
     @Override
-    public Iterable<A> iterateChildren() {
-        return this.values.values();
+    @Nullable PendingChildren pendingChildren() {
+        return this.pending;
     }
 
     @Override
     MapConfigValue<N, A> copy(final A holder) {
+        return copy(holder, false);
+    }
+
+    @Override
+    MapConfigValue<N, A> copy(final A holder, final boolean parallel) {
+        final @Nullable PendingChildren pending = this.pending;
+        if (pending != null) { // share the pending children
+            return new MapConfigValue<>(holder, pending);
+        }
+
         final MapConfigValue<N, A> copy = new MapConfigValue<>(holder);
-        for (Map.Entry<Object, A> ent : this.values.entrySet()) {
-            copy.values.put(ent.getKey(), ent.getValue().copy(holder)); // recursively copy
+        for (final A child : ParallelCopy.copy(iterateChildren(), holder, parallel)) { // recursively copy
+            copy.putBuilt(requireNonNull(child.key), child);
         }
         return copy;
     }
 
     @Override
     boolean isEmpty() {
-        return this.values.isEmpty();
+        return this.size() == 0;
     }
 
     private static void detachChildren(final Map<Object, ? extends AbstractConfigurationNode<?, ?>> map) {
@@ -134,11 +340,7 @@ final class MapConfigValue<N extends ScopedConfigurationNode<N>, A extends Abstr
 
     @Override
     public void clear() {
-        synchronized (this) {
-            final Map<Object, A> oldMap = this.values;
-            this.values = newMap();
-            detachChildren(oldMap);
-        }
+        detachChildren(swap(newMap()));
     }
 
     @Override
@@ -150,17 +352,22 @@ final class MapConfigValue<N extends ScopedConfigurationNode<N>, A extends Abstr
             return false;
         }
         final MapConfigValue<?, ?> that = (MapConfigValue<?, ?>) other;
-        return Objects.equals(this.values, that.values);
+        return size() == that.size() && Objects.equals(copyValues(), that.copyValues());
     }
 
     @Override
     public int hashCode() {
-        return this.values.hashCode();
+        // consistent with Map.hashCode(), without copying the map
+        int hash = 0;
+        for (final Object child : elements()) {
+            hash += Objects.hashCode(((ConfigurationNode) child).key()) ^ child.hashCode();
+        }
+        return hash;
     }
 
     @Override
     public String toString() {
-        return "MapConfigValue{values=" + this.values + '}';
+        return "MapConfigValue{values=" + copyValues() + '}';
     }
 
 }
@@ -0,0 +1,278 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.auto.value.AutoValue;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The differences between two configuration trees.
+ *
+ * <p>Changes are reported at the deepest path where the trees differ: a
+ * setting that was changed is reported at its own path, while a section
+ * that only exists in one of the trees is reported as a whole.</p>
+ *
+ * @since 4.1.0
+ */
+public final class NodeDiff {
+
+    private static final NodeDiff EMPTY = new NodeDiff(Collections.emptyList());
+
+    private final List<Change> changes;
+
+    /**
+     * Compute the differences between two nodes.
+     *
+     * <p>Subtrees that are the same node, that still share their value, or
+     * that are snapshots sharing their children (such as snapshots taken
+     * before and after modifying a tree copied from a snapshot) are skipped
+     * without being visited. Otherwise, both trees are walked together.
+     * Differing hashes, which are cached, settle that subtrees differ, but
+     * matching hashes are confirmed by comparing every value. In the worst
+     * case, such as comparing with a freshly loaded tree, every value of
+     * both trees is visited.</p>
+     *
+     * <p>When a snapshot is compared with a mutable node, the mutable node
+     * is snapshotted first so that both sides can be pruned.</p>
+     *
+     * @param oldNode the original node
+     * @param newNode the updated node
+     * @return the differences between the nodes
+     * @since 4.1.0
+     */
+    public static NodeDiff between(final ConfigurationNode oldNode, final ConfigurationNode newNode) {
+        requireNonNull(oldNode, "oldNode");
+        requireNonNull(newNode, "newNode");
+        final List<Change> changes = new ArrayList<>();
+        if (oldNode instanceof FrozenConfigurationNode != newNode instanceof FrozenConfigurationNode) {
+            diff(NodePath.path(), oldNode.snapshot(), newNode.snapshot(), changes);
+        } else {
+            diff(NodePath.path(), oldNode, newNode, changes);
+        }
+        return changes.isEmpty() ? EMPTY : new NodeDiff(Collections.unmodifiableList(changes));
+    }
+
+    private static void diff(final NodePath path, final ConfigurationNode oldNode, final ConfigurationNode newNode,
+            final List<Change> changes) {
+        if (unchanged(oldNode, newNode)) {
+            return;
+        }
+
+        if (oldNode.isMap() && newNode.isMap()) {
+            oldNode.forEachChild((key, oldChild) -> {
+                final @Nullable ConfigurationNode newChild = newNode.find(key);
+                if (newChild == null) {
+                    changes.add(Change.of(Change.Kind.REMOVED, path.withAppendedChild(key), oldChild.raw(), null));
+                } else {
+                    diff(path.withAppendedChild(key), oldChild, newChild, changes);
+                }
+            });
+            newNode.forEachChild((key, newChild) -> {
+                if (!oldNode.hasChild(key)) {
+                    changes.add(Change.of(Change.Kind.ADDED, path.withAppendedChild(key), null, newChild.raw()));
+                }
+            });
+        } else if (oldNode.isList() && newNode.isList()) {
+            final int oldCount = oldNode.childCount();
+            final int newCount = newNode.childCount();
+            for (int i = 0; i < Math.min(oldCount, newCount); ++i) {
+                diff(path.withAppendedChild(i), oldNode.node(i), newNode.node(i), changes);
+            }
+            for (int i = newCount; i < oldCount; ++i) {
+                changes.add(Change.of(Change.Kind.REMOVED, path.withAppendedChild(i), oldNode.node(i).raw(), null));
+            }
+            for (int i = oldCount; i < newCount; ++i) {
+                changes.add(Change.of(Change.Kind.ADDED, path.withAppendedChild(i), null, newNode.node(i).raw()));
+            }
+        } else {
+            final @Nullable Object oldValue = oldNode.raw();
+            final @Nullable Object newValue = newNode.raw();
+            if (oldValue == null) {
+                if (newValue != null) {
+                    changes.add(Change.of(Change.Kind.ADDED, path, null, newValue));
+                }
+            } else if (newValue == null) {
+                changes.add(Change.of(Change.Kind.REMOVED, path, oldValue, null));
+            } else if (!oldValue.equals(newValue)) {
+                changes.add(Change.of(Change.Kind.CHANGED, path, oldValue, newValue));
+            }
+        }
+    }
+
+    private static boolean unchanged(final ConfigurationNode oldNode, final ConfigurationNode newNode) {
+        if (oldNode == newNode) {
+            return true;
+        } else if (oldNode instanceof FrozenConfigurationNode && newNode instanceof FrozenConfigurationNode) {
+            return ((FrozenConfigurationNode) oldNode).sameValue((FrozenConfigurationNode) newNode);
+        } else if (oldNode instanceof AbstractConfigurationNode<?, ?> && newNode instanceof AbstractConfigurationNode<?, ?>) {
+            return ((AbstractConfigurationNode<?, ?>) oldNode).sameValue((AbstractConfigurationNode<?, ?>) newNode);
+        }
+        return false;
+    }
+
+    private NodeDiff(final List<Change> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Get whether the two trees were equal.
+     *
+     * @return if there are no changes
+     * @since 4.1.0
+     */
+    public boolean empty() {
+        return this.changes.isEmpty();
+    }
+
+    /**
+     * Get every change between the two trees, in tree order.
+     *
+     * @return an unmodifiable list of changes
+     * @since 4.1.0
+     */
+    public List<Change> changes() {
+        return this.changes;
+    }
+
+    /**
+     * Get the changes of a certain kind.
+     *
+     * @param kind the kind of change
+     * @return an unmodifiable list of changes
+     * @since 4.1.0
+     */
+    public List<Change> changes(final Change.Kind kind) {
+        final List<Change> ret = new ArrayList<>();
+        for (final Change change : this.changes) {
+            if (change.kind() == kind) {
+                ret.add(change);
+            }
+        }
+        return Collections.unmodifiableList(ret);
+    }
+
+    /**
+     * Get whether anything at or below a path has changed.
+     *
+     * <p>This also considers changes to the sections containing the path,
+     * since those changes will have replaced the path's value.</p>
+     *
+     * @param path the path to check
+     * @return whether any change affects the path
+     * @since 4.1.0
+     */
+    public boolean affects(final NodePath path) {
+        for (final Change change : this.changes) {
+            if (startsWith(change.path(), path) || startsWith(path, change.path())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(final NodePath path, final NodePath prefix) {
+        if (prefix.size() > path.size()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.size(); ++i) {
+            if (!path.get(i).equals(prefix.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "NodeDiff{changes=" + this.changes + '}';
+    }
+
+    /**
+     * A single difference between two trees.
+     *
+     * @since 4.1.0
+     */
+    @AutoValue
+    public abstract static class Change {
+
+        static Change of(final Kind kind, final NodePath path, final @Nullable Object oldValue, final @Nullable Object newValue) {
+            return new AutoValue_NodeDiff_Change(kind, path, oldValue, newValue);
+        }
+
+        Change() { }
+
+        /**
+         * Get the kind of change.
+         *
+         * @return the kind
+         * @since 4.1.0
+         */
+        public abstract Kind kind();
+
+        /**
+         * Get the path of the changed node, relative to the compared nodes.
+         *
+         * @return the path
+         * @since 4.1.0
+         */
+        public abstract NodePath path();
+
+        /**
+         * Get the raw value of the node in the original tree.
+         *
+         * @return the old value, or null if the node was added
+         * @since 4.1.0
+         */
+        public abstract @Nullable Object oldValue();
+
+        /**
+         * Get the raw value of the node in the updated tree.
+         *
+         * @return the new value, or null if the node was removed
+         * @since 4.1.0
+         */
+        public abstract @Nullable Object newValue();
+
+        /**
+         * The kinds of change between trees.
+         *
+         * @since 4.1.0
+         */
+        public enum Kind {
+            /**
+             * A node that is only present in the updated tree.
+             */
+            ADDED,
+            /**
+             * A node that is only present in the original tree.
+             */
+            REMOVED,
+            /**
+             * A node that is present in both trees with different values.
+             */
+            CHANGED
+        }
+
+    }
+
+}
@@ -0,0 +1,413 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static java.util.Objects.requireNonNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.configurate.reactive.Disposable;
+import org.spongepowered.configurate.reactive.Publisher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * A secondary index over a configuration tree, mapping an index key
+ * computed from each node to the paths of every node with that key.
+ *
+ * <p>Indexes are opt-in and kept up to date lazily. Before each query, the
+ * index compares the {@link ConfigurationNode#modificationStamp() stamps}
+ * of the indexed nodes to the stamps seen when they were last indexed,
+ * and only revisits the subtrees that were modified since.</p>
+ *
+ * <p>When the root node itself is replaced, for example when a
+ * {@link org.spongepowered.configurate.reference.ConfigurationReference}
+ * is reloaded, the index must be {@link #rebuild(ConfigurationNode) rebuilt}.
+ * Large lists and maps are indexed in parallel when a rebuild is performed
+ * in a {@link ForkJoinPool}. An index can instead
+ * {@link #follow(Publisher, ForkJoinPool) follow} a publisher of new trees,
+ * until it is {@link #dispose() disposed}.</p>
+ *
+ * @param <K> index key type
+ * @since 4.1.0
+ */
+public final class NodeIndex<K> implements Disposable {
+
+    private final Function<? super ConfigurationNode, ? extends @Nullable K> extractor;
+    private ConfigurationNode root;
+    private Map<K, Set<NodePath>> index;
+    private Entry<K> rootEntry;
+    private @Nullable Disposable subscription;
+
+    /**
+     * Create an index from the scalar value of each node in a tree.
+     *
+     * @param root the root of the tree to index
+     * @return a new index
+     * @since 4.1.0
+     */
+    public static NodeIndex<Object> byValue(final ConfigurationNode root) {
+        return create(root, ConfigurationNode::rawScalar);
+    }
+
+    /**
+     * Create an index from the key of each child of a map node in a tree.
+     *
+     * <p>Elements of list nodes are not indexed.</p>
+     *
+     * @param root the root of the tree to index
+     * @return a new index
+     * @since 4.1.0
+     */
+    public static NodeIndex<Object> byKey(final ConfigurationNode root) {
+        return create(root, NodeIndex::mapKey);
+    }
+
+    /**
+     * Create an index from an arbitrary key computed for each node.
+     *
+     * <p>The extractor may return {@code null} for any node that should
+     * not be indexed. It must only depend on the node's own key and value,
+     * and on the keys of its ancestors.</p>
+     *
+     * @param root the root of the tree to index
+     * @param extractor the function computing the index key of a node
+     * @param <K> index key type
+     * @return a new index
+     * @since 4.1.0
+     */
+    public static <K> NodeIndex<K> create(final ConfigurationNode root,
+            final Function<? super ConfigurationNode, ? extends @Nullable K> extractor) {
+        final NodeIndex<K> ret = new NodeIndex<>(requireNonNull(extractor, "extractor"));
+        ret.rebuild(root);
+        return ret;
+    }
+
+    /**
+     * Create an index from an arbitrary key computed for each node, building
+     * the index in parallel.
+     *
+     * @param root the root of the tree to index
+     * @param extractor the function computing the index key of a node
+     * @param pool the pool to build the index in
+     * @param <K> index key type
+     * @return a new index
+     * @see #create(ConfigurationNode, Function)
+     * @since 4.1.0
+     */
+    public static <K> NodeIndex<K> create(final ConfigurationNode root,
+            final Function<? super ConfigurationNode, ? extends @Nullable K> extractor, final ForkJoinPool pool) {
+        final NodeIndex<K> ret = new NodeIndex<>(requireNonNull(extractor, "extractor"));
+        ret.rebuild(root, pool);
+        return ret;
+    }
+
+    private static @Nullable Object mapKey(final ConfigurationNode node) {
+        final @Nullable ConfigurationNode parent = node.parent();
+        return parent != null && parent.isMap() ? node.key() : null;
+    }
+
+    @SuppressWarnings("initialization.fields.uninitialized")
+    private NodeIndex(final Function<? super ConfigurationNode, ? extends @Nullable K> extractor) {
+        this.extractor = extractor;
+    }
+
+    /**
+     * Get the root node of the indexed tree.
+     *
+     * @return the root node
+     * @since 4.1.0
+     */
+    public synchronized ConfigurationNode root() {
+        return this.root;
+    }
+
+    /**
+     * Get the paths of every node with the given index key.
+     *
+     * <p>The index is refreshed before it is queried. The returned set is
+     * a snapshot, and will not reflect later changes to the tree.</p>
+     *
+     * @param key the index key
+     * @return the paths of matching nodes, relative to the root node
+     * @since 4.1.0
+     */
+    public synchronized Set<NodePath> paths(final K key) {
+        this.refresh();
+        final @Nullable Set<NodePath> paths = this.index.get(key);
+        return paths == null ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(paths));
+    }
+
+    /**
+     * Get every index key currently held by at least one node.
+     *
+     * <p>The index is refreshed before it is queried. The returned set is
+     * a snapshot, and will not reflect later changes to the tree.</p>
+     *
+     * @return the index keys
+     * @since 4.1.0
+     */
+    public synchronized Set<K> keys() {
+        this.refresh();
+        return Collections.unmodifiableSet(new HashSet<>(this.index.keySet()));
+    }
+
+    /**
+     * Bring the index up to date with any changes made to the tree.
+     *
+     * <p>Only subtrees whose stamps changed since they were last indexed
+     * are revisited. This is performed automatically by each query.</p>
+     *
+     * @since 4.1.0
+     */
+    public synchronized void refresh() {
+        this.rootEntry = this.update(this.rootEntry, this.root, NodePath.path());
+    }
+
+    /**
+     * Discard the current index and index a new tree.
+     *
+     * @param root the root of the new tree
+     * @since 4.1.0
+     */
+    public synchronized void rebuild(final ConfigurationNode root) {
+        this.root = requireNonNull(root, "root");
+        this.index = new ConcurrentHashMap<>();
+        this.rootEntry = this.build(root, NodePath.path(), false);
+    }
+
+    /**
+     * Discard the current index and index a new tree, splitting large lists
+     * and maps across the provided pool.
+     *
+     * @param root the root of the new tree
+     * @param pool the pool to build the index in
+     * @since 4.1.0
+     */
+    public synchronized void rebuild(final ConfigurationNode root, final ForkJoinPool pool) {
+        this.root = requireNonNull(root, "root");
+        this.index = new ConcurrentHashMap<>();
+        this.rootEntry = pool.invoke(ForkJoinTask.adapt(() -> this.build(root, NodePath.path(), true)));
+    }
+
+    /**
+     * Rebuild this index in the provided pool whenever a new tree is
+     * published, until this index is disposed.
+     *
+     * <p>Any publisher this index was previously following is
+     * unsubscribed from.</p>
+     *
+     * @param updates the publisher of new trees
+     * @param pool the pool to build the index in
+     * @return this index
+     * @since 4.1.0
+     */
+    public synchronized NodeIndex<K> follow(final Publisher<? extends ConfigurationNode> updates, final ForkJoinPool pool) {
+        requireNonNull(pool, "pool");
+        final @Nullable Disposable previous = this.subscription;
+        this.subscription = updates.subscribe(node -> this.rebuild(node, pool));
+        if (previous != null) {
+            previous.dispose();
+        }
+        return this;
+    }
+
+    /**
+     * Stop following any publisher of new trees.
+     *
+     * <p>The index itself remains usable, and keeps following changes
+     * made to its current tree.</p>
+     *
+     * @since 4.1.0
+     */
+    @Override
+    public synchronized void dispose() {
+        final @Nullable Disposable subscription = this.subscription;
+        this.subscription = null;
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Entry<K> update(final @Nullable Entry<K> entry, final ConfigurationNode node, final NodePath path) {
+        if (entry == null) {
+            return this.build(node, path, false);
+        } else if (entry.node != node || !entry.path.equals(path)) {
+            // Replaced, or moved by a list removal: paths of the whole subtree are stale
+            this.remove(entry);
+            return this.build(node, path, false);
+        }
+
+        final long stamp = node.modificationStamp();
+        if (entry.stamp == stamp) {
+            return entry;
+        }
+
+        final @Nullable K key = this.extractor.apply(node);
+        if (!Objects.equals(key, entry.key)) {
+            this.unindex(entry.key, path);
+            this.index(key, path);
+            entry.key = key;
+        }
+
+        final Map<Object, Entry<K>> previous = entry.children;
+        if (node.childCount() == 0) {
+            entry.children = Collections.emptyMap();
+        } else {
+            final Map<Object, Entry<K>> children = new HashMap<>();
+            node.forEachChild((childKey, child) -> {
+                final @Nullable Entry<K> existing = previous.isEmpty() ? null : previous.remove(childKey);
+                children.put(childKey, this.update(existing, child, path.withAppendedChild(childKey)));
+            });
+            entry.children = children;
+        }
+        for (final Entry<K> removed : previous.values()) {
+            this.remove(removed);
+        }
+        entry.stamp = stamp;
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Entry<K> build(final ConfigurationNode node, final NodePath path, final boolean parallel) {
+        // Read the stamp first, so changes made while indexing are seen by the next refresh
+        final long stamp = node.modificationStamp();
+        final @Nullable K key = this.extractor.apply(node);
+        this.index(key, path);
+        final Entry<K> ret = new Entry<>(node, path, stamp, key);
+
+        if (node.childCount() == 0) {
+            return ret;
+        }
+        final List<Object> keys = new ArrayList<>();
+        final List<ConfigurationNode> children = new ArrayList<>();
+        node.forEachChild((childKey, child) -> {
+            keys.add(childKey);
+            children.add(child);
+        });
+
+        final @Nullable Object[] built = new Object[keys.size()];
+        if (parallel && built.length > ParallelCopy.LEAF_SIZE && ForkJoinTask.inForkJoinPool()) {
+            new Build(path, keys, children, built, 0, built.length).invoke();
+        } else {
+            for (int i = 0; i < built.length; ++i) {
+                built[i] = this.build(children.get(i), path.withAppendedChild(keys.get(i)), parallel);
+            }
+        }
+        final Map<Object, Entry<K>> childEntries = new HashMap<>();
+        for (int i = 0; i < built.length; ++i) {
+            childEntries.put(keys.get(i), (Entry<K>) built[i]);
+        }
+        ret.children = childEntries;
+        return ret;
+    }
+
+    private void remove(final Entry<K> entry) {
+        this.unindex(entry.key, entry.path);
+        for (final Entry<K> child : entry.children.values()) {
+            this.remove(child);
+        }
+    }
+
+    private void index(final @Nullable K key, final NodePath path) {
+        if (key != null) {
+            this.index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(path);
+        }
+    }
+
+    private void unindex(final @Nullable K key, final NodePath path) {
+        if (key != null) {
+            this.index.computeIfPresent(key, (k, paths) -> {
+                paths.remove(path);
+                return paths.isEmpty() ? null : paths;
+            });
+        }
+    }
+
+    /**
+     * The indexed state of a single node.
+     */
+    private static final class Entry<K> {
+
+        final ConfigurationNode node;
+        final NodePath path;
+        long stamp;
+        @Nullable K key;
+        Map<Object, Entry<K>> children = Collections.emptyMap();
+
+        Entry(final ConfigurationNode node, final NodePath path, final long stamp, final @Nullable K key) {
+            this.node = node;
+            this.path = path;
+            this.stamp = stamp;
+            this.key = key;
+        }
+
+    }
+
+    /**
+     * Indexes a range of sibling nodes, splitting large ranges in two.
+     */
+    private final class Build extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final NodePath parent;
+        private final List<Object> keys;
+        private final List<ConfigurationNode> children;
+        private final @Nullable Object[] results;
+        private final int start;
+        private final int end;
+
+        Build(final NodePath parent, final List<Object> keys, final List<ConfigurationNode> children, final @Nullable Object[] results,
+                final int start, final int end) {
+            this.parent = parent;
+            this.keys = keys;
+            this.children = children;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= ParallelCopy.LEAF_SIZE) {
+                for (int i = this.start; i < this.end; ++i) {
+                    this.results[i] = NodeIndex.this.build(this.children.get(i), this.parent.withAppendedChild(this.keys.get(i)), true);
+                }
+            } else {
+                final int middle = (this.start + this.end) >>> 1;
+                invokeAll(
+                    new Build(this.parent, this.keys, this.children, this.results, this.start, middle),
+                    new Build(this.parent, this.keys, this.children, this.results, middle, this.end)
+                );
+            }
+        }
+
+    }
+
+}
@@ -153,4 +153,17 @@ public interface NodePath extends Iterable<Object> {
      */
     NodePath copy();
 
+    /**
+     * Prepare this path for repeated lookups.
+     *
+     * <p>The returned compiled path caches the node it resolves to, making
+     * it well suited for paths that are looked up frequently.</p>
+     *
+     * @return a new compiled path
+     * @since 4.1.0
+     */
+    default CompiledNodePath compile() {
+        return new CompiledNodePathImpl(copy());
+    }
+
 }
@@ -0,0 +1,100 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import java.util.stream.Stream;
+
+/**
+ * A compiled query that matches nodes by the shape of their paths.
+ *
+ * <p>Selectors are written as a series of segments separated by dots. Each
+ * segment may be:</p>
+ * <ul>
+ *     <li>a key, matching the child with that key, such as {@code servers}
+ *     </li>
+ *     <li>{@code *}, matching any one child of a map or list</li>
+ *     <li>{@code **}, matching any number of levels, including none</li>
+ * </ul>
+ *
+ * <p>Any segment may be followed by list subscripts, either {@code [n]} to
+ * match the list element at index {@code n}, or {@code [*]} to match any
+ * element. A subscript may also stand on its own, as in {@code [0].name}.
+ * Characters with a special meaning may be included in keys by preceding
+ * them with a backslash. The empty selector matches only the node it is
+ * evaluated against.</p>
+ *
+ * <p>For example, {@code servers.*.ports[*]} selects every port of every
+ * server, while {@code **.enabled} selects every node with the key
+ * {@code enabled}, at any depth.</p>
+ *
+ * <p>Selectors are compiled into an automaton, and every node is matched
+ * against all segments at once in a single traversal of the tree. Subtrees
+ * that cannot contain matches are never visited, and children named by key
+ * are looked up directly rather than by scanning their siblings.</p>
+ *
+ * @see ConfigurationNode#select(NodeSelector)
+ * @since 4.1.0
+ */
+public interface NodeSelector {
+
+    /**
+     * Compile a selector expression.
+     *
+     * @param selector the selector expression
+     * @return a compiled selector
+     * @throws IllegalArgumentException if the expression is not valid
+     * @since 4.1.0
+     */
+    static NodeSelector compile(final String selector) {
+        return NodeSelectorImpl.compile(selector);
+    }
+
+    /**
+     * Get the expression this selector was compiled from.
+     *
+     * @return the selector expression
+     * @since 4.1.0
+     */
+    String selector();
+
+    /**
+     * Get whether a path relative to the root of a query would be matched
+     * by this selector.
+     *
+     * <p>Keys of list elements must be integers for index subscripts
+     * to match.</p>
+     *
+     * @param path the path to test
+     * @return whether the path matches
+     * @since 4.1.0
+     */
+    boolean matches(NodePath path);
+
+    /**
+     * Find the nodes below {@code root} that match this selector.
+     *
+     * <p>Matches are found lazily, in depth-first order, as the returned
+     * stream is consumed. Only non-virtual nodes are matched. The tree
+     * should not be modified while the stream is in use.</p>
+     *
+     * @param root the node to evaluate paths from
+     * @return a stream of matching nodes
+     * @since 4.1.0
+     */
+    Stream<? extends ConfigurationNode> select(ConfigurationNode root);
+
+}
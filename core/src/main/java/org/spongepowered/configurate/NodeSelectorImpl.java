@@ -0,0 +1,371 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static java.util.Objects.requireNonNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A selector compiled to a nondeterministic automaton over path segments.
+ *
+ * <p>State {@code i} means the first {@code i} segments have been matched,
+ * and the set of active states is held as a bit set in a {@code long}. A
+ * {@code **} segment can both consume a key while staying in its state, and
+ * be skipped without consuming anything.</p>
+ */
+final class NodeSelectorImpl implements NodeSelector {
+
+    static final int MAX_SEGMENTS = Long.SIZE - 1;
+
+    private static final byte KEY = 0;
+    private static final byte INDEX = 1;
+    private static final byte ANY = 2;
+    private static final byte ANY_INDEX = 3;
+    private static final byte DESCENDANTS = 4;
+
+    private final String selector;
+    private final byte[] kinds;
+    private final Object[] values;
+    private final long initial;
+    private final long accept;
+    /**
+     * States whose segment is matched by looking up a key or index
+     * directly, rather than by scanning every child.
+     */
+    private final long direct;
+
+    private NodeSelectorImpl(final String selector, final byte[] kinds, final Object[] values) {
+        this.selector = selector;
+        this.kinds = kinds;
+        this.values = values;
+        this.accept = 1L << kinds.length;
+        long direct = 0;
+        for (int i = 0; i < kinds.length; ++i) {
+            if (kinds[i] == KEY || kinds[i] == INDEX) {
+                direct |= 1L << i;
+            }
+        }
+        this.direct = direct;
+        this.initial = this.closure(1L);
+    }
+
+    static NodeSelector compile(final String selector) {
+        requireNonNull(selector, "selector");
+        final List<Byte> kinds = new ArrayList<>();
+        final List<Object> values = new ArrayList<>();
+        final int length = selector.length();
+        int i = 0;
+        while (i < length) {
+            final int start = i;
+            final StringBuilder key = new StringBuilder();
+            boolean escaped = false;
+            while (i < length && selector.charAt(i) != '.' && selector.charAt(i) != '[') {
+                char c = selector.charAt(i++);
+                if (c == '\\') {
+                    if (i == length) {
+                        throw invalid(selector, i, "expected a character to escape");
+                    }
+                    c = selector.charAt(i++);
+                    escaped = true;
+                }
+                key.append(c);
+            }
+
+            if (key.length() > 0) {
+                final String name = key.toString();
+                if (!escaped && name.equals("*")) {
+                    kinds.add(ANY);
+                    values.add(name);
+                } else if (!escaped && name.equals("**")) {
+                    kinds.add(DESCENDANTS);
+                    values.add(name);
+                } else {
+                    kinds.add(KEY);
+                    values.add(name);
+                }
+            }
+
+            while (i < length && selector.charAt(i) == '[') {
+                final int close = selector.indexOf(']', i);
+                if (close == -1) {
+                    throw invalid(selector, i, "unclosed subscript");
+                }
+                final String index = selector.substring(i + 1, close);
+                if (index.equals("*")) {
+                    kinds.add(ANY_INDEX);
+                    values.add(index);
+                } else {
+                    try {
+                        final int value = Integer.parseInt(index);
+                        if (value < 0) {
+                            throw invalid(selector, i + 1, "negative list index");
+                        }
+                        kinds.add(INDEX);
+                        values.add(value);
+                    } catch (final NumberFormatException ex) {
+                        throw invalid(selector, i + 1, "expected a list index or *");
+                    }
+                }
+                i = close + 1;
+            }
+
+            if (i == start) {
+                throw invalid(selector, i, "empty segment");
+            } else if (i < length) {
+                if (selector.charAt(i) != '.') {
+                    throw invalid(selector, i, "expected '.' or '['");
+                } else if (++i == length) {
+                    throw invalid(selector, i, "empty segment");
+                }
+            }
+        }
+
+        if (kinds.size() > MAX_SEGMENTS) {
+            throw new IllegalArgumentException("Selector '" + selector + "' has more than " + MAX_SEGMENTS + " segments");
+        }
+
+        final byte[] kindArray = new byte[kinds.size()];
+        for (int j = 0; j < kindArray.length; ++j) {
+            kindArray[j] = kinds.get(j);
+        }
+        return new NodeSelectorImpl(selector, kindArray, values.toArray());
+    }
+
+    private static IllegalArgumentException invalid(final String selector, final int index, final String message) {
+        return new IllegalArgumentException("Invalid selector '" + selector + "' at index " + index + ": " + message);
+    }
+
+    /**
+     * Add the states reachable by skipping {@code **} segments.
+     *
+     * @param states the states
+     * @return the states with their closure
+     */
+    private long closure(final long states) {
+        long ret = states;
+        for (int i = 0; i < this.kinds.length; ++i) {
+            if ((ret & (1L << i)) != 0 && this.kinds[i] == DESCENDANTS) {
+                ret |= 1L << (i + 1);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Get the states reached by consuming a key from every state in
+     * {@code states}.
+     *
+     * @param states the current states
+     * @param key the key to consume
+     * @return the next states, or {@code 0} if none are active
+     */
+    private long next(final long states, final Object key) {
+        long ret = 0;
+        for (int i = 0; i < this.kinds.length; ++i) {
+            if ((states & (1L << i)) == 0) {
+                continue;
+            }
+            switch (this.kinds[i]) {
+                case KEY:
+                    if (this.values[i].equals(key.toString())) {
+                        ret |= 1L << (i + 1);
+                    }
+                    break;
+                case INDEX:
+                    if (this.values[i].equals(key)) {
+                        ret |= 1L << (i + 1);
+                    }
+                    break;
+                case ANY:
+                    ret |= 1L << (i + 1);
+                    break;
+                case ANY_INDEX:
+                    if (key instanceof Integer) {
+                        ret |= 1L << (i + 1);
+                    }
+                    break;
+                default: // descendants
+                    ret |= 1L << i;
+                    break;
+            }
+        }
+        return ret == 0 ? 0 : this.closure(ret);
+    }
+
+    @Override
+    public String selector() {
+        return this.selector;
+    }
+
+    @Override
+    public boolean matches(final NodePath path) {
+        long states = this.initial;
+        for (final Object element : path) {
+            states = this.next(states, element);
+            if (states == 0) {
+                return false;
+            }
+        }
+        return (states & this.accept) != 0;
+    }
+
+    @Override
+    public Stream<? extends ConfigurationNode> select(final ConfigurationNode root) {
+        requireNonNull(root, "root");
+        final Iterator<ConfigurationNode> matches = new Matches(root);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(matches, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Get the children of {@code node} that may advance any of
+     * {@code states}.
+     *
+     * @param node the node
+     * @param states the states active at the node
+     * @return an iterator over candidate children
+     */
+    private Iterator<? extends ConfigurationNode> candidates(final ConfigurationNode node, final long states) {
+        if ((states & ~this.accept & ~this.direct) == 0) {
+            // every active state needs a specific child, so look those up instead of scanning
+            final List<ConfigurationNode> ret = new ArrayList<>(Long.bitCount(states & this.direct));
+            for (int i = 0; i < this.kinds.length; ++i) {
+                if ((states & (1L << i)) != 0) {
+                    final @Nullable ConfigurationNode child = node.find(this.values[i]);
+                    if (child != null && !containsSame(ret, child)) {
+                        ret.add(child);
+                    }
+                }
+            }
+            return ret.isEmpty() ? Collections.emptyIterator() : ret.iterator();
+        }
+        return Spliterators.iterator(node.childrenSpliterator());
+    }
+
+    private static boolean containsSame(final List<ConfigurationNode> nodes, final ConfigurationNode node) {
+        for (final ConfigurationNode existing : nodes) {
+            if (existing == node) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof NodeSelectorImpl && this.selector.equals(((NodeSelectorImpl) other).selector);
+    }
+
+    @Override
+    public int hashCode() {
+        return 17 * this.selector.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "NodeSelector{selector=" + this.selector + '}';
+    }
+
+    /**
+     * Lazily walks a tree, producing the nodes that match.
+     */
+    final class Matches implements Iterator<ConfigurationNode> {
+
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private @Nullable ConfigurationNode next;
+
+        Matches(final ConfigurationNode root) {
+            if (!root.virtual()) {
+                if ((NodeSelectorImpl.this.initial & NodeSelectorImpl.this.accept) != 0) {
+                    this.next = root;
+                }
+                this.push(root, NodeSelectorImpl.this.initial);
+            }
+        }
+
+        private void push(final ConfigurationNode node, final long states) {
+            // only descend if a state other than acceptance can still advance
+            if ((states & ~NodeSelectorImpl.this.accept) != 0 && (node.isMap() || node.isList())) {
+                this.frames.push(new Frame(candidates(node, states), states));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.next == null) {
+                final @Nullable Frame frame = this.frames.peek();
+                if (frame == null) {
+                    return false;
+                }
+                if (!frame.children.hasNext()) {
+                    this.frames.pop();
+                    continue;
+                }
+
+                final ConfigurationNode child = frame.children.next();
+                final long states = NodeSelectorImpl.this.next(frame.states, requireNonNull(child.key()));
+                if (states != 0) {
+                    if ((states & NodeSelectorImpl.this.accept) != 0) {
+                        this.next = child;
+                    }
+                    this.push(child, states);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public ConfigurationNode next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final ConfigurationNode ret = requireNonNull(this.next);
+            this.next = null;
+            return ret;
+        }
+
+    }
+
+    /**
+     * Children remaining to be matched, and the states active at
+     * their parent.
+     */
+    static final class Frame {
+
+        final Iterator<? extends ConfigurationNode> children;
+        final long states;
+
+        Frame(final Iterator<? extends ConfigurationNode> children, final long states) {
+            this.children = children;
+            this.states = states;
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Copies a range of sibling nodes, splitting large ranges across a fork-join
+ * pool.
+ *
+ * <p>Every copied node is itself copied in parallel mode, so a large list or
+ * map deep within a tree will also be split up. Ranges of at most
+ * {@link #LEAF_SIZE} nodes are copied on the current thread.</p>
+ *
+ * @param <A> node type
+ */
+final class ParallelCopy<A extends AbstractConfigurationNode<?, A>> extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int LEAF_SIZE = 32;
+
+    private final List<A> sources;
+    private final A holder;
+    private final @Nullable Object[] results;
+    private final int start;
+    private final int end;
+
+    private ParallelCopy(final List<A> sources, final A holder, final @Nullable Object[] results, final int start, final int end) {
+        this.sources = sources;
+        this.holder = holder;
+        this.results = results;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Create deep copies of each of {@code sources}, in order.
+     *
+     * <p>Copies will only be made in parallel if requested, and if the
+     * current thread is already part of a fork-join pool.</p>
+     *
+     * @param sources the nodes to copy
+     * @param holder the parent of the copies
+     * @param parallel whether to copy in parallel
+     * @param <A> node type
+     * @return a new mutable list of copied nodes
+     */
+    @SuppressWarnings("unchecked")
+    static <A extends AbstractConfigurationNode<?, A>> List<A> copy(final List<A> sources, final A holder, final boolean parallel) {
+        if (!parallel || sources.size() <= LEAF_SIZE || !ForkJoinTask.inForkJoinPool()) {
+            final List<A> ret = new ArrayList<>(sources.size());
+            for (final A source : sources) {
+                ret.add(source.copy(holder, parallel));
+            }
+            return ret;
+        }
+
+        final @Nullable Object[] results = new Object[sources.size()];
+        new ParallelCopy<>(sources, holder, results, 0, results.length).invoke();
+        return new ArrayList<>((List<A>) (List<?>) Arrays.asList(results));
+    }
+
+    @Override
+    protected void compute() {
+        if (this.end - this.start <= LEAF_SIZE) {
+            for (int i = this.start; i < this.end; ++i) {
+                this.results[i] = this.sources.get(i).copy(this.holder, true);
+            }
+        } else {
+            final int middle = (this.start + this.end) >>> 1;
+            invokeAll(
+                new ParallelCopy<>(this.sources, this.holder, this.results, this.start, middle),
+                new ParallelCopy<>(this.sources, this.holder, this.results, middle, this.end)
+            );
+        }
+    }
+
+}
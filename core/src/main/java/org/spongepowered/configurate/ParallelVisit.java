@@ -0,0 +1,191 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Visits a range of sibling nodes, splitting large ranges across a fork-join
+ * pool.
+ *
+ * <p>Ranges of at most {@link #LEAF_SIZE} nodes are visited on the current
+ * thread with a single state. The states of larger ranges are combined in
+ * order once both halves have been visited.</p>
+ *
+ * @param <S> state type
+ * @param <E> exception type
+ * @see ParallelCopy
+ */
+final class ParallelVisit<S, E extends Exception> extends RecursiveTask<S> {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int LEAF_SIZE = 32;
+
+    private final ConfigurationVisitor.Parallel<S, ?, E> visitor;
+    private final AtomicBoolean stopped;
+    private final Object[] nodes;
+    private final int start;
+    private final int end;
+
+    private ParallelVisit(final ConfigurationVisitor.Parallel<S, ?, E> visitor, final AtomicBoolean stopped, final Object[] nodes,
+            final int start, final int end) {
+        this.visitor = visitor;
+        this.stopped = stopped;
+        this.nodes = nodes;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Visit the tree starting at {@code root} in the provided pool.
+     *
+     * @param root the node to start at
+     * @param visitor the visitor
+     * @param pool the pool to visit in
+     * @param <S> state type
+     * @param <T> terminal type
+     * @param <E> exception type
+     * @return the terminal value
+     * @throws E when thrown by the visitor
+     */
+    @SuppressWarnings("unchecked")
+    static <S, T, E extends Exception> T visit(final AbstractConfigurationNode<?, ?> root,
+            final ConfigurationVisitor.Parallel<S, T, E> visitor, final ForkJoinPool pool) throws E {
+        S state = visitor.newState();
+        visitor.beginVisit(root.self(), state);
+        if (!(root.value instanceof NullConfigValue)) { // only visit if we have an actual value
+            final S initial = state;
+            final AtomicBoolean stopped = new AtomicBoolean();
+            try {
+                state = pool.invoke(ForkJoinTask.adapt(() -> {
+                    try {
+                        return visitNode(visitor, stopped, root, initial);
+                    } catch (final Exception ex) {
+                        throw new VisitFailure(ex);
+                    }
+                }));
+            } catch (final RuntimeException ex) {
+                // tasks may be rethrown wrapped in copies of the original exception
+                Throwable cause = ex;
+                while (cause instanceof VisitFailure && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw (E) cause;
+            }
+        }
+        return visitor.endVisit(state);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S, E extends Exception> S visitNode(final ConfigurationVisitor.Parallel<S, ?, E> visitor, final AtomicBoolean stopped,
+            final AbstractConfigurationNode<?, ?> node, final S state) throws E {
+        if (stopped.get()) {
+            return state;
+        }
+
+        S ret = state;
+        try {
+            final ConfigurationVisitor.Control control = visitor.enter(node.self(), ret);
+            if (control == ConfigurationVisitor.Control.STOP) {
+                stopped.set(true);
+                return ret;
+            }
+            final boolean children = control == ConfigurationVisitor.Control.CONTINUE;
+            final ConfigValue<?, ?> value = node.value;
+            if (value instanceof MapConfigValue) {
+                visitor.enterMappingNode(node.self(), ret);
+                if (children) {
+                    ret = visitChildren(visitor, stopped, ((MapConfigValue<?, ?>) value).elements(), ret);
+                }
+                visitor.exitMappingNode(node.self(), ret);
+            } else if (value instanceof ListConfigValue) {
+                visitor.enterListNode(node.self(), ret);
+                if (children) {
+                    ret = visitChildren(visitor, stopped, ((ListConfigValue<?, ?>) value).elements(), ret);
+                }
+                visitor.exitListNode(node.self(), ret);
+            } else if (value instanceof ScalarConfigValue) {
+                visitor.enterScalarNode(node.self(), ret);
+            }
+        } catch (final VisitFailure ex) {
+            throw ex;
+        } catch (final Exception ex) {
+            // Assign an appropriate path to ConfigurateExceptions
+            if (ex instanceof ConfigurateException) {
+                ((ConfigurateException) ex).initPath(node::path);
+            }
+            throw (E) ex;
+        }
+        return ret;
+    }
+
+    private static <S, E extends Exception> S visitChildren(final ConfigurationVisitor.Parallel<S, ?, E> visitor, final AtomicBoolean stopped,
+            final Object[] children, final S state) throws E {
+        if (children.length <= LEAF_SIZE) {
+            S ret = state;
+            for (final Object child : children) {
+                ret = visitNode(visitor, stopped, (AbstractConfigurationNode<?, ?>) child, ret);
+            }
+            return ret;
+        }
+        return visitor.combine(state, new ParallelVisit<>(visitor, stopped, children, 0, children.length).invoke());
+    }
+
+    @Override
+    protected S compute() {
+        try {
+            if (this.end - this.start <= LEAF_SIZE) {
+                S state = this.visitor.newState();
+                for (int i = this.start; i < this.end; ++i) {
+                    state = visitNode(this.visitor, this.stopped, (AbstractConfigurationNode<?, ?>) this.nodes[i], state);
+                }
+                return state;
+            } else {
+                final int middle = (this.start + this.end) >>> 1;
+                final ParallelVisit<S, E> first = new ParallelVisit<>(this.visitor, this.stopped, this.nodes, this.start, middle);
+                final ParallelVisit<S, E> second = new ParallelVisit<>(this.visitor, this.stopped, this.nodes, middle, this.end);
+                invokeAll(first, second);
+                return this.visitor.combine(first.join(), second.join());
+            }
+        } catch (final VisitFailure ex) {
+            throw ex;
+        } catch (final Exception ex) {
+            throw new VisitFailure(ex);
+        }
+    }
+
+    /**
+     * Carries an exception thrown by a visitor out of the pool.
+     */
+    static final class VisitFailure extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        VisitFailure(final Throwable cause) {
+            super(cause);
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+/**
+ * The children of a map or list value, before any nodes have been created
+ * for them.
+ *
+ * <p>A value holding pending children will create its child nodes on
+ * first access, under its write lock. Until then, copies of the value share
+ * the same pending children, so inflating must not change them.</p>
+ */
+interface PendingChildren {
+
+    /**
+     * Get the number of children that will be created.
+     *
+     * @return the child count
+     */
+    int childCount();
+
+    /**
+     * Create the children of a map value.
+     *
+     * <p>Children must be added with
+     * {@link MapConfigValue#putBuilt(Object, AbstractConfigurationNode)}.</p>
+     *
+     * @param holder the node holding the value
+     * @param value the value to populate
+     * @param <N> the node type
+     * @param <A> the implementation type
+     */
+    <N extends ScopedConfigurationNode<N>, A extends AbstractConfigurationNode<N, A>> void inflate(A holder, MapConfigValue<N, A> value);
+
+    /**
+     * Create the elements of a list value.
+     *
+     * <p>Elements must be added in order with
+     * {@link ListConfigValue#addBuilt(AbstractConfigurationNode)}.</p>
+     *
+     * @param holder the node holding the value
+     * @param value the value to populate
+     * @param <N> the node type
+     * @param <A> the implementation type
+     */
+    <N extends ScopedConfigurationNode<N>, A extends AbstractConfigurationNode<N, A>> void inflate(A holder, ListConfigValue<N, A> value);
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static java.util.Objects.requireNonNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Read-only views of the raw value of a node.
+ *
+ * <p>Views read the children of their node whenever they are accessed, and
+ * only unwrap the value of a child once it is requested.</p>
+ */
+final class RawView {
+
+    private RawView() {
+    }
+
+    /**
+     * Create a view of the raw value of a node.
+     *
+     * @param node the node to view
+     * @return a view of the node's raw value
+     * @see ConfigurationNode#rawView()
+     */
+    static @Nullable Object of(final ConfigurationNode node) {
+        if (node.isMap()) {
+            return new MapView(node);
+        } else if (node.isList()) {
+            return new ListView(node);
+        } else {
+            return node.rawScalar();
+        }
+    }
+
+    private static Iterator<? extends ConfigurationNode> children(final ConfigurationNode node, final boolean list) {
+        final Spliterator<? extends ConfigurationNode> children;
+        if (list ? node.isList() : node.isMap()) {
+            children = node.childrenSpliterator();
+        } else {
+            children = Spliterators.emptySpliterator();
+        }
+        return Spliterators.iterator(children);
+    }
+
+    static final class MapView extends AbstractMap<Object, @Nullable Object> {
+
+        private final ConfigurationNode node;
+        private @Nullable Set<Map.Entry<Object, @Nullable Object>> entrySet;
+
+        MapView(final ConfigurationNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public int size() {
+            return this.node.isMap() ? this.node.childCount() : 0;
+        }
+
+        @Override
+        public boolean containsKey(final @Nullable Object key) {
+            return key != null && this.node.isMap() && this.node.find(key) != null;
+        }
+
+        @Override
+        public @Nullable Object get(final @Nullable Object key) {
+            if (key == null || !this.node.isMap()) {
+                return null;
+            }
+            final @Nullable ConfigurationNode child = this.node.find(key);
+            return child == null ? null : child.rawView();
+        }
+
+        @Override
+        public Set<Map.Entry<Object, @Nullable Object>> entrySet() {
+            @Nullable Set<Map.Entry<Object, @Nullable Object>> entrySet = this.entrySet;
+            if (entrySet == null) {
+                entrySet = this.entrySet = new AbstractSet<Map.Entry<Object, @Nullable Object>>() {
+                    @Override
+                    public Iterator<Map.Entry<Object, @Nullable Object>> iterator() {
+                        final Iterator<? extends ConfigurationNode> children = children(MapView.this.node, false);
+                        return new Iterator<Map.Entry<Object, @Nullable Object>>() {
+                            @Override
+                            public boolean hasNext() {
+                                return children.hasNext();
+                            }
+
+                            @Override
+                            public Map.Entry<Object, @Nullable Object> next() {
+                                final ConfigurationNode child = children.next();
+                                return new SimpleImmutableEntry<>(requireNonNull(child.key()), child.rawView());
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return MapView.this.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+    }
+
+    static final class ListView extends AbstractList<@Nullable Object> implements RandomAccess {
+
+        private final ConfigurationNode node;
+
+        ListView(final ConfigurationNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public @Nullable Object get(final int index) {
+            if (!this.node.isList()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+            }
+            return this.node.childrenList().get(index).rawView();
+        }
+
+        @Override
+        public int size() {
+            return this.node.isList() ? this.node.childCount() : 0;
+        }
+
+        @Override
+        public Iterator<@Nullable Object> iterator() {
+            final Iterator<? extends ConfigurationNode> children = children(this.node, true);
+            return new Iterator<@Nullable Object>() {
+                @Override
+                public boolean hasNext() {
+                    return children.hasNext();
+                }
+
+                @Override
+                public @Nullable Object next() {
+                    return children.next().rawView();
+                }
+            };
+        }
+
+    }
+
+}
@@ -20,30 +20,85 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Objects;
 
 /**
  * A {@link ConfigValue} which holds a single ("scalar") value.
+ *
+ * <p>Scalar values are immutable, and are replaced as a whole whenever a node
+ * receives a new value. Values of the most common primitive types are held
+ * unboxed, in the specialized {@link OfInt}, {@link OfLong}, {@link OfDouble}
+ * and {@link OfBoolean} variants.</p>
  */
-final class ScalarConfigValue<N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> extends ConfigValue<N, T> {
+abstract class ScalarConfigValue<N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> extends ConfigValue<N, T> {
+
+    /**
+     * Create a new scalar value, unboxing the value if possible.
+     *
+     * @param holder the node holding this value
+     * @param value the value to hold
+     * @param <N> the node type
+     * @param <T> the implementation node type
+     * @return a new scalar value
+     * @throws IllegalArgumentException if the holder's options do not accept
+     *                                  values of this type
+     */
+    static <N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> ScalarConfigValue<N, T> of(
+            final T holder, final Object value) {
+        final Class<?> type = value.getClass();
+        checkAccepted(holder, type);
+        if (type == Integer.class) {
+            return new OfInt<>(holder, (Integer) value);
+        } else if (type == Long.class) {
+            return new OfLong<>(holder, (Long) value);
+        } else if (type == Double.class) {
+            return new OfDouble<>(holder, (Double) value);
+        } else if (type == Boolean.class) {
+            return new OfBoolean<>(holder, (Boolean) value);
+        } else {
+            return new OfObject<>(holder, value);
+        }
+    }
+
+    static <N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> ScalarConfigValue<N, T> ofInt(
+            final T holder, final int value) {
+        checkAccepted(holder, Integer.class);
+        return new OfInt<>(holder, value);
+    }
+
+    static <N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> ScalarConfigValue<N, T> ofLong(
+            final T holder, final long value) {
+        checkAccepted(holder, Long.class);
+        return new OfLong<>(holder, value);
+    }
+
+    static <N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> ScalarConfigValue<N, T> ofDouble(
+            final T holder, final double value) {
+        checkAccepted(holder, Double.class);
+        return new OfDouble<>(holder, value);
+    }
+
+    static <N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> ScalarConfigValue<N, T> ofBoolean(
+            final T holder, final boolean value) {
+        checkAccepted(holder, Boolean.class);
+        return new OfBoolean<>(holder, value);
+    }
 
-    private volatile @Nullable Object value;
+    private static void checkAccepted(final AbstractConfigurationNode<?, ?> holder, final Class<?> type) {
+        if (!holder.options().acceptsType(type)) {
+            throw new IllegalArgumentException("Configuration does not accept objects of type " + type);
+        }
+    }
 
     ScalarConfigValue(final T holder) {
         super(holder);
     }
 
     @Override
-    public @Nullable Object get() {
-        return this.value;
-    }
+    abstract Object get();
 
     @Override
     public void set(final @Nullable Object value) {
-        if (value != null && !this.holder.options().acceptsType(value.getClass())) {
-            throw new IllegalArgumentException("Configuration does not accept objects of type " + value.getClass());
-        }
-        this.value = value;
+        throw new UnsupportedOperationException("Scalar values are immutable, a new value should be created instead");
     }
 
     @Override
@@ -67,22 +122,16 @@ final class ScalarConfigValue<N extends ScopedConfigurationNode<N>, T extends Ab
     }
 
     @Override
-    ScalarConfigValue<N, T> copy(final T holder) {
-        final ScalarConfigValue<N, T> copy = new ScalarConfigValue<>(holder);
-        copy.value = this.value;
-        return copy;
-    }
+    abstract ScalarConfigValue<N, T> copy(T holder);
 
     @Override
     boolean isEmpty() {
-        final @Nullable Object value = this.value;
-        return (value instanceof String && ((String) value).isEmpty())
-                || (value instanceof Collection<?> && ((Collection<?>) value).isEmpty());
+        return false;
     }
 
     @Override
     public void clear() {
-        this.value = null;
+        // nothing to release, scalar values are simply replaced
     }
 
     @Override
@@ -94,17 +143,197 @@ final class ScalarConfigValue<N extends ScopedConfigurationNode<N>, T extends Ab
             return false;
         }
         final ScalarConfigValue<?, ?> that = (ScalarConfigValue<?, ?>) other;
-        return Objects.equals(this.value, that.value);
+        return get().equals(that.get());
     }
 
     @Override
     public int hashCode() {
-        return 7 + Objects.hashCode(this.value);
+        return 7 + get().hashCode();
     }
 
     @Override
     public String toString() {
-        return "ScalarConfigValue{value=" + this.value + '}';
+        return "ScalarConfigValue{value=" + get() + '}';
+    }
+
+    /**
+     * A scalar holding an arbitrary object.
+     */
+    static final class OfObject<N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> extends ScalarConfigValue<N, T> {
+
+        private final Object value;
+
+        OfObject(final T holder, final Object value) {
+            super(holder);
+            this.value = value;
+        }
+
+        @Override
+        Object get() {
+            return this.value;
+        }
+
+        @Override
+        OfObject<N, T> copy(final T holder) {
+            return new OfObject<>(holder, this.value);
+        }
+
+        @Override
+        boolean isEmpty() {
+            final Object value = this.value;
+            return (value instanceof String && ((String) value).isEmpty())
+                    || (value instanceof Collection<?> && ((Collection<?>) value).isEmpty());
+        }
+
+    }
+
+    /**
+     * A scalar holding an unboxed {@code int}.
+     */
+    static final class OfInt<N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> extends ScalarConfigValue<N, T> {
+
+        final int value;
+
+        OfInt(final T holder, final int value) {
+            super(holder);
+            this.value = value;
+        }
+
+        @Override
+        Object get() {
+            return this.value;
+        }
+
+        @Override
+        OfInt<N, T> copy(final T holder) {
+            return new OfInt<>(holder, this.value);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (other instanceof OfInt<?, ?>) {
+                return this.value == ((OfInt<?, ?>) other).value;
+            }
+            return super.equals(other);
+        }
+
+        @Override
+        public int hashCode() {
+            return 7 + Integer.hashCode(this.value);
+        }
+
+    }
+
+    /**
+     * A scalar holding an unboxed {@code long}.
+     */
+    static final class OfLong<N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> extends ScalarConfigValue<N, T> {
+
+        final long value;
+
+        OfLong(final T holder, final long value) {
+            super(holder);
+            this.value = value;
+        }
+
+        @Override
+        Object get() {
+            return this.value;
+        }
+
+        @Override
+        OfLong<N, T> copy(final T holder) {
+            return new OfLong<>(holder, this.value);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (other instanceof OfLong<?, ?>) {
+                return this.value == ((OfLong<?, ?>) other).value;
+            }
+            return super.equals(other);
+        }
+
+        @Override
+        public int hashCode() {
+            return 7 + Long.hashCode(this.value);
+        }
+
+    }
+
+    /**
+     * A scalar holding an unboxed {@code double}.
+     */
+    static final class OfDouble<N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> extends ScalarConfigValue<N, T> {
+
+        final double value;
+
+        OfDouble(final T holder, final double value) {
+            super(holder);
+            this.value = value;
+        }
+
+        @Override
+        Object get() {
+            return this.value;
+        }
+
+        @Override
+        OfDouble<N, T> copy(final T holder) {
+            return new OfDouble<>(holder, this.value);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (other instanceof OfDouble<?, ?>) {
+                // same semantics as Double.equals
+                return Double.doubleToLongBits(this.value) == Double.doubleToLongBits(((OfDouble<?, ?>) other).value);
+            }
+            return super.equals(other);
+        }
+
+        @Override
+        public int hashCode() {
+            return 7 + Double.hashCode(this.value);
+        }
+
+    }
+
+    /**
+     * A scalar holding an unboxed {@code boolean}.
+     */
+    static final class OfBoolean<N extends ScopedConfigurationNode<N>, T extends AbstractConfigurationNode<N, T>> extends ScalarConfigValue<N, T> {
+
+        final boolean value;
+
+        OfBoolean(final T holder, final boolean value) {
+            super(holder);
+            this.value = value;
+        }
+
+        @Override
+        Object get() {
+            return this.value;
+        }
+
+        @Override
+        OfBoolean<N, T> copy(final T holder) {
+            return new OfBoolean<>(holder, this.value);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (other instanceof OfBoolean<?, ?>) {
+                return this.value == ((OfBoolean<?, ?>) other).value;
+            }
+            return super.equals(other);
+        }
+
+        @Override
+        public int hashCode() {
+            return 7 + Boolean.hashCode(this.value);
+        }
+
     }
 
 }
@@ -25,7 +25,11 @@ import org.spongepowered.configurate.util.CheckedConsumer;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 /**
  * Intermediate node type to reduce need for casting.
@@ -59,6 +63,22 @@ public interface ScopedConfigurationNode<N extends ScopedConfigurationNode<N>> e
     @Override
     N copy();
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default N copy(final ForkJoinPool pool) {
+        return this.copy();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default N publish() {
+        return self();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -71,6 +91,40 @@ public interface ScopedConfigurationNode<N extends ScopedConfigurationNode<N>> e
     @Override
     N node(Iterable<?> path);
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default @Nullable N find(final Object... path) {
+        return hasChild(path) ? node(path) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default @Nullable N find(final NodePath path) {
+        return hasChild(path) ? node(path) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default Stream<N> select(final String selector) {
+        return this.select(NodeSelector.compile(selector));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    default Stream<N> select(final NodeSelector selector) {
+        // every node below a node of type N is also of type N
+        return (Stream<N>) selector.select(this);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -144,6 +198,38 @@ public interface ScopedConfigurationNode<N extends ScopedConfigurationNode<N>> e
     @Override
     N raw(@Nullable Object value);
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default N rawInt(final int value) {
+        return raw(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default N rawLong(final long value) {
+        return raw(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default N rawDouble(final double value) {
+        return raw(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default N rawBoolean(final boolean value) {
+        return raw(value);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -156,6 +242,20 @@ public interface ScopedConfigurationNode<N extends ScopedConfigurationNode<N>> e
     @Override
     Map<Object, N> childrenMap();
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default Spliterator<N> childrenSpliterator() {
+        if (this.isList()) {
+            return this.childrenList().spliterator();
+        } else if (this.isMap()) {
+            return this.childrenMap().values().spliterator();
+        } else {
+            return Spliterators.emptySpliterator();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
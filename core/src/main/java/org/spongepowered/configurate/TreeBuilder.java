@@ -0,0 +1,236 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static java.util.Objects.requireNonNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.function.Consumer;
+
+/**
+ * Builds the value of a node from a stream of structural events, as
+ * produced by a parser.
+ *
+ * <p>Maps and lists are opened with {@link #beginMap()} and
+ * {@link #beginList()}, and closed with {@link #end()}. Within a map, each
+ * value must be preceded by its {@link #key(Object)}, while values within a
+ * list are appended in order.</p>
+ *
+ * <p>Nodes are created already attached, without the checks and locking
+ * required when modifying a node that may be shared. The built value only
+ * becomes visible once it is published to the target node by
+ * {@link #finish()}, as a single modification. A tree builder may
+ * therefore only be used from one thread.</p>
+ *
+ * <p>Setting a {@code null} scalar value does not create a node, unless
+ * the node was already created by {@link #node()}.</p>
+ *
+ * @param <N> the node type
+ * @since 4.1.0
+ */
+public interface TreeBuilder<N extends ScopedConfigurationNode<N>> {
+
+    /**
+     * Create a builder that will replace the value of {@code target}.
+     *
+     * @param target the node to build a value for
+     * @param <N> the node type
+     * @return a new builder
+     * @throws IllegalArgumentException if the target was not created by
+     *     Configurate
+     * @since 4.1.0
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <N extends ScopedConfigurationNode<N>> TreeBuilder<N> into(final N target) {
+        if (!(requireNonNull(target, "target") instanceof AbstractConfigurationNode<?, ?>)) {
+            throw new IllegalArgumentException("Trees can only be built into nodes created by Configurate, not " + target.getClass());
+        }
+        return new TreeBuilderImpl<>((AbstractConfigurationNode) target);
+    }
+
+    /**
+     * Start a map value at the current position.
+     *
+     * @return this builder
+     * @since 4.1.0
+     */
+    TreeBuilder<N> beginMap();
+
+    /**
+     * Start a map value at the current position, sized for an expected
+     * number of entries.
+     *
+     * @param expectedSize the expected number of entries
+     * @return this builder
+     * @since 4.1.0
+     */
+    TreeBuilder<N> beginMap(int expectedSize);
+
+    /**
+     * Set the key of the next value in the current map.
+     *
+     * @param key the key
+     * @return this builder
+     * @throws IllegalStateException if the current value is not a map
+     * @since 4.1.0
+     */
+    TreeBuilder<N> key(Object key);
+
+    /**
+     * Start a list value at the current position.
+     *
+     * @return this builder
+     * @since 4.1.0
+     */
+    TreeBuilder<N> beginList();
+
+    /**
+     * Start a list value at the current position, sized for an expected
+     * number of elements.
+     *
+     * @param expectedSize the expected number of elements
+     * @return this builder
+     * @since 4.1.0
+     */
+    TreeBuilder<N> beginList(int expectedSize);
+
+    /**
+     * Set a map value at the current position, whose entries will only be
+     * built once the map is first accessed.
+     *
+     * <p>The callback is given a builder positioned within the map, and must
+     * build exactly {@code size} entries without ending the map. Copies of
+     * the node share the callback until their entries are accessed, so it
+     * may be called more than once and from any thread. It must therefore
+     * only read state that will not change. Any exception it throws is
+     * passed on to the code accessing the map.</p>
+     *
+     * @param size the number of entries the callback will build
+     * @param entries the callback building the entries
+     * @return this builder
+     * @throws IllegalArgumentException if the size is negative
+     * @since 4.1.0
+     */
+    TreeBuilder<N> deferredMap(int size, Consumer<? super TreeBuilder<N>> entries);
+
+    /**
+     * Set a list value at the current position, whose elements will only be
+     * built once the list is first accessed.
+     *
+     * <p>The same restrictions apply to the callback as for
+     * {@link #deferredMap(int, Consumer)}.</p>
+     *
+     * @param size the number of elements the callback will build
+     * @param elements the callback building the elements
+     * @return this builder
+     * @throws IllegalArgumentException if the size is negative
+     * @since 4.1.0
+     */
+    TreeBuilder<N> deferredList(int size, Consumer<? super TreeBuilder<N>> elements);
+
+    /**
+     * Set a scalar value at the current position.
+     *
+     * @param value the value
+     * @return this builder
+     * @throws IllegalArgumentException if the value is a collection, map or
+     *     node, or is not accepted by the node's options
+     * @since 4.1.0
+     */
+    TreeBuilder<N> scalar(@Nullable Object value);
+
+    /**
+     * Set an int value at the current position, without boxing.
+     *
+     * @param value the value
+     * @return this builder
+     * @see ConfigurationNode#rawInt(int)
+     * @since 4.1.0
+     */
+    TreeBuilder<N> scalarInt(int value);
+
+    /**
+     * Set a long value at the current position, without boxing.
+     *
+     * @param value the value
+     * @return this builder
+     * @see ConfigurationNode#rawLong(long)
+     * @since 4.1.0
+     */
+    TreeBuilder<N> scalarLong(long value);
+
+    /**
+     * Set a double value at the current position, without boxing.
+     *
+     * @param value the value
+     * @return this builder
+     * @see ConfigurationNode#rawDouble(double)
+     * @since 4.1.0
+     */
+    TreeBuilder<N> scalarDouble(double value);
+
+    /**
+     * Set a boolean value at the current position, without boxing.
+     *
+     * @param value the value
+     * @return this builder
+     * @see ConfigurationNode#rawBoolean(boolean)
+     * @since 4.1.0
+     */
+    TreeBuilder<N> scalarBoolean(boolean value);
+
+    /**
+     * End the current map or list.
+     *
+     * @return this builder
+     * @throws IllegalStateException if there is no open map or list
+     * @since 4.1.0
+     */
+    TreeBuilder<N> end();
+
+    /**
+     * Get the node the next value will be written to, creating it if
+     * necessary.
+     *
+     * <p>The node can be used to set comments, hints or other metadata
+     * before its value is written. It must not be given a value directly.</p>
+     *
+     * @return the node at the current position
+     * @since 4.1.0
+     */
+    N node();
+
+    /**
+     * Get the path of the current position, without creating a node.
+     *
+     * @return the current path
+     * @since 4.1.0
+     */
+    NodePath path();
+
+    /**
+     * Publish the built value to the target node.
+     *
+     * @return the target node
+     * @throws IllegalStateException if a map or list is still open, or if
+     *     this builder was passed to a deferred map or list callback
+     * @since 4.1.0
+     */
+    N finish();
+
+}
@@ -0,0 +1,351 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static java.util.Objects.requireNonNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+final class TreeBuilderImpl<N extends ScopedConfigurationNode<N>, A extends AbstractConfigurationNode<N, A>> implements TreeBuilder<N> {
+
+    private final A target;
+    private final List<Frame<N, A>> frames = new ArrayList<>();
+    /**
+     * The number of frames that were open before building started, which
+     * can't be ended by this builder.
+     */
+    private final int baseDepth;
+    private @Nullable ConfigValue<N, A> rootValue;
+    private boolean finished;
+
+    TreeBuilderImpl(final A target) {
+        this.target = target;
+        this.baseDepth = 0;
+    }
+
+    private TreeBuilderImpl(final Frame<N, A> base) {
+        this.target = base.holder;
+        this.frames.add(base);
+        this.baseDepth = 1;
+    }
+
+    @Override
+    public TreeBuilder<N> beginMap() {
+        return this.beginMap(0);
+    }
+
+    @Override
+    public TreeBuilder<N> beginMap(final int expectedSize) {
+        final A node = this.next();
+        final MapConfigValue<N, A> value = new MapConfigValue<>(node);
+        value.presize(expectedSize);
+        this.store(node, value);
+        this.frames.add(new Frame<>(node, value, null));
+        return this;
+    }
+
+    @Override
+    public TreeBuilder<N> key(final Object key) {
+        this.checkOpen();
+        final @Nullable Frame<N, A> frame = this.frames.isEmpty() ? null : this.top();
+        if (frame == null || frame.map == null) {
+            throw new IllegalStateException("Keys can only be set within a map");
+        }
+        frame.key = requireNonNull(key, "key");
+        frame.slot = null;
+        return this;
+    }
+
+    @Override
+    public TreeBuilder<N> beginList() {
+        return this.beginList(0);
+    }
+
+    @Override
+    public TreeBuilder<N> beginList(final int expectedSize) {
+        final A node = this.next();
+        final ListConfigValue<N, A> value = new ListConfigValue<>(node);
+        value.presize(expectedSize);
+        this.store(node, value);
+        this.frames.add(new Frame<>(node, null, value));
+        return this;
+    }
+
+    @Override
+    public TreeBuilder<N> deferredMap(final int size, final Consumer<? super TreeBuilder<N>> entries) {
+        final Deferred<N> deferred = new Deferred<>(size, entries);
+        final A node = this.next();
+        this.store(node, new MapConfigValue<>(node, deferred));
+        return this;
+    }
+
+    @Override
+    public TreeBuilder<N> deferredList(final int size, final Consumer<? super TreeBuilder<N>> elements) {
+        final Deferred<N> deferred = new Deferred<>(size, elements);
+        final A node = this.next();
+        this.store(node, new ListConfigValue<>(node, deferred));
+        return this;
+    }
+
+    @Override
+    public TreeBuilder<N> scalar(final @Nullable Object value) {
+        if (value instanceof Collection<?> || value instanceof Map<?, ?> || value instanceof ConfigurationNode) {
+            throw new IllegalArgumentException("Only scalar values can be set with scalar(), not " + value.getClass());
+        }
+        if (value == null) {
+            if (this.frames.isEmpty()) {
+                this.store(this.next(), NullConfigValue.instance());
+            } else {
+                final Frame<N, A> frame = this.top();
+                if (frame.map != null) {
+                    this.requireKey(frame);
+                }
+                this.consumed();
+            }
+            return this;
+        }
+        final A node = this.next();
+        this.store(node, ScalarConfigValue.of(node, value));
+        return this;
+    }
+
+    @Override
+    public TreeBuilder<N> scalarInt(final int value) {
+        final A node = this.next();
+        this.store(node, ScalarConfigValue.ofInt(node, value));
+        return this;
+    }
+
+    @Override
+    public TreeBuilder<N> scalarLong(final long value) {
+        final A node = this.next();
+        this.store(node, ScalarConfigValue.ofLong(node, value));
+        return this;
+    }
+
+    @Override
+    public TreeBuilder<N> scalarDouble(final double value) {
+        final A node = this.next();
+        this.store(node, ScalarConfigValue.ofDouble(node, value));
+        return this;
+    }
+
+    @Override
+    public TreeBuilder<N> scalarBoolean(final boolean value) {
+        final A node = this.next();
+        this.store(node, ScalarConfigValue.ofBoolean(node, value));
+        return this;
+    }
+
+    @Override
+    public TreeBuilder<N> end() {
+        this.checkOpen();
+        if (this.frames.size() <= this.baseDepth) {
+            throw new IllegalStateException("There is no open map or list to end");
+        }
+        this.frames.remove(this.frames.size() - 1);
+        return this;
+    }
+
+    @Override
+    public N node() {
+        this.checkOpen();
+        return this.frames.isEmpty() ? this.target.self() : this.slot(this.top()).self();
+    }
+
+    @Override
+    public NodePath path() {
+        if (this.frames.isEmpty()) {
+            return this.target.path();
+        }
+        final Frame<N, A> frame = this.top();
+        if (frame.slot != null) {
+            return frame.slot.path();
+        } else if (frame.list != null) {
+            return frame.holder.path().withAppendedChild(frame.count);
+        } else if (frame.key != null) {
+            return frame.holder.path().withAppendedChild(frame.key);
+        } else {
+            return frame.holder.path();
+        }
+    }
+
+    @Override
+    public N finish() {
+        this.checkOpen();
+        if (this.baseDepth > 0) {
+            throw new IllegalStateException("Deferred values are finished by returning from their callback");
+        }
+        if (!this.frames.isEmpty()) {
+            throw new IllegalStateException(this.frames.size() + " maps or lists have not been ended");
+        }
+        this.finished = true;
+        if (this.rootValue != null) {
+            this.target.insertValue(this.rootValue);
+        }
+        return this.target.self();
+    }
+
+    private void checkOpen() {
+        if (this.finished) {
+            throw new IllegalStateException("This builder has already been finished");
+        }
+    }
+
+    private Frame<N, A> top() {
+        return this.frames.get(this.frames.size() - 1);
+    }
+
+    /**
+     * Get the node the next value should be stored in.
+     *
+     * @return the node
+     */
+    private A next() {
+        this.checkOpen();
+        if (this.frames.isEmpty()) {
+            if (this.rootValue != null) {
+                throw new IllegalStateException("A value has already been built for the target node");
+            }
+            return this.target;
+        }
+        return this.slot(this.top());
+    }
+
+    private A slot(final Frame<N, A> frame) {
+        @Nullable A slot = frame.slot;
+        if (slot == null) {
+            if (frame.map != null) {
+                final Object key = this.requireKey(frame);
+                slot = frame.holder.createNode(key);
+                slot.attached = true;
+                frame.map.putBuilt(key, slot);
+                frame.count++;
+            } else {
+                slot = frame.holder.createNode(frame.count++);
+                slot.attached = true;
+                requireNonNull(frame.list).addBuilt(slot);
+            }
+            frame.slot = slot;
+        }
+        return slot;
+    }
+
+    private Object requireKey(final Frame<N, A> frame) {
+        final @Nullable Object key = frame.key;
+        if (key == null) {
+            throw new IllegalStateException("No key has been set for the next value in this map");
+        }
+        return key;
+    }
+
+    private void store(final A node, final ConfigValue<N, A> value) {
+        if (this.frames.isEmpty()) {
+            this.rootValue = value;
+        } else {
+            // the node is not yet reachable from the target, so needs no locking
+            node.value = value;
+            this.consumed();
+        }
+    }
+
+    private void consumed() {
+        final Frame<N, A> frame = this.top();
+        frame.slot = null;
+        frame.key = null;
+    }
+
+    /**
+     * A map or list that is being built.
+     */
+    static final class Frame<N extends ScopedConfigurationNode<N>, A extends AbstractConfigurationNode<N, A>> {
+
+        final A holder;
+        final @Nullable MapConfigValue<N, A> map;
+        final @Nullable ListConfigValue<N, A> list;
+        @Nullable Object key;
+        @Nullable A slot;
+        /**
+         * The number of children created so far.
+         */
+        int count;
+
+        Frame(final A holder, final @Nullable MapConfigValue<N, A> map, final @Nullable ListConfigValue<N, A> list) {
+            this.holder = holder;
+            this.map = map;
+            this.list = list;
+        }
+
+    }
+
+    /**
+     * The children of a deferred map or list, built by a callback once first
+     * accessed.
+     */
+    static final class Deferred<N extends ScopedConfigurationNode<N>> implements PendingChildren {
+
+        private final int size;
+        private final Consumer<? super TreeBuilder<N>> children;
+
+        Deferred(final int size, final Consumer<? super TreeBuilder<N>> children) {
+            if (size < 0) {
+                throw new IllegalArgumentException("Size must not be negative, but was " + size);
+            }
+            this.size = size;
+            this.children = requireNonNull(children, "children");
+        }
+
+        @Override
+        public int childCount() {
+            return this.size;
+        }
+
+        @Override
+        public <M extends ScopedConfigurationNode<M>, B extends AbstractConfigurationNode<M, B>> void inflate(
+                final B holder, final MapConfigValue<M, B> value) {
+            this.build(new Frame<>(holder, value, null));
+        }
+
+        @Override
+        public <M extends ScopedConfigurationNode<M>, B extends AbstractConfigurationNode<M, B>> void inflate(
+                final B holder, final ListConfigValue<M, B> value) {
+            this.build(new Frame<>(holder, null, value));
+        }
+
+        @SuppressWarnings("unchecked")
+        private <M extends ScopedConfigurationNode<M>, B extends AbstractConfigurationNode<M, B>> void build(final Frame<M, B> frame) {
+            final TreeBuilderImpl<M, B> builder = new TreeBuilderImpl<>(frame);
+            // the value is only ever held by nodes of the type it was built for
+            this.children.accept((TreeBuilder<N>) (TreeBuilder<?>) builder);
+            builder.checkOpen();
+            builder.finished = true;
+            if (builder.frames.size() != 1) {
+                throw new IllegalStateException((builder.frames.size() - 1) + " maps or lists have not been ended");
+            } else if (frame.count != this.size) {
+                throw new IllegalStateException("Expected " + this.size + " children to be built, but " + frame.count + " were");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The pending work of a depth-first visit, held in a pair of growable arrays.
+ *
+ * <p>Each frame is either a node that is still to be entered, or a mapping or
+ * list node that is waiting for its exit event once its children have
+ * been visited.</p>
+ */
+final class VisitStack {
+
+    private static final byte ENTER = 0;
+    private static final byte EXIT_MAP = 1;
+    private static final byte EXIT_LIST = 2;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] nodes = new Object[INITIAL_CAPACITY];
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    VisitStack(final Object root) {
+        this.push(root, ENTER);
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity > this.nodes.length) {
+            final int newCapacity = Math.max(capacity, this.nodes.length << 1);
+            this.nodes = Arrays.copyOf(this.nodes, newCapacity);
+            this.kinds = Arrays.copyOf(this.kinds, newCapacity);
+        }
+    }
+
+    private void push(final Object node, final byte kind) {
+        this.ensureCapacity(this.size + 1);
+        this.nodes[this.size] = node;
+        this.kinds[this.size++] = kind;
+    }
+
+    /**
+     * Queue the exit event of a mapping or list node, to be delivered once
+     * any children pushed afterwards have been visited.
+     *
+     * @param node the node to exit
+     * @param map whether the node is a mapping node
+     */
+    void pushExit(final ConfigurationNode node, final boolean map) {
+        this.push(node, map ? EXIT_MAP : EXIT_LIST);
+    }
+
+    /**
+     * Queue children to be entered, so that the first child is entered first.
+     *
+     * @param children the children
+     */
+    void pushChildren(final Object[] children) {
+        this.ensureCapacity(this.size + children.length);
+        for (int i = children.length - 1; i >= 0; --i) {
+            this.nodes[this.size] = children[i];
+            this.kinds[this.size++] = ENTER;
+        }
+    }
+
+    /**
+     * Get the next node to enter, delivering any exit events that
+     * precede it.
+     *
+     * @param visitor the visitor to deliver exit events to
+     * @param state the visitor state
+     * @param <N> node type
+     * @param <S> state type
+     * @param <E> exception type
+     * @return the next node, or null once the visit is complete
+     * @throws E when thrown by the visitor
+     */
+    @SuppressWarnings("unchecked")
+    <N, S, E extends Exception> @Nullable N next(final ConfigurationVisitor<S, ?, E> visitor, final S state) throws E {
+        while (this.size > 0) {
+            final int idx = --this.size;
+            final Object node = this.nodes[idx];
+            this.nodes[idx] = null;
+            switch (this.kinds[idx]) {
+                case ENTER:
+                    return (N) node;
+                case EXIT_MAP:
+                    visitor.exitMappingNode((ConfigurationNode) node, state);
+                    break;
+                default:
+                    visitor.exitListNode((ConfigurationNode) node, state);
+                    break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Discard every node that has not been entered yet, delivering the exit
+     * events of nodes that have been.
+     *
+     * @param visitor the visitor to deliver exit events to
+     * @param state the visitor state
+     * @param <S> state type
+     * @param <E> exception type
+     * @throws E when thrown by the visitor
+     */
+    <S, E extends Exception> void stop(final ConfigurationVisitor<S, ?, E> visitor, final S state) throws E {
+        int kept = 0;
+        for (int i = 0; i < this.size; ++i) {
+            if (this.kinds[i] != ENTER) {
+                this.nodes[kept] = this.nodes[i];
+                this.kinds[kept++] = this.kinds[i];
+            }
+        }
+        Arrays.fill(this.nodes, kept, this.size, null);
+        this.size = kept;
+        // with only exit frames remaining, this delivers all of them
+        this.next(visitor, state);
+    }
+
+}
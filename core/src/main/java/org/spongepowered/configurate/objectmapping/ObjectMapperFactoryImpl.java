@@ -255,7 +255,7 @@ final class ObjectMapperFactoryImpl implements ObjectMapper.Factory, TypeSeriali
     public @Nullable Object emptyValue(final Type specificType, final ConfigurationOptions options) {
         try {
             // preserve options, but don't copy defaults into temporary node
-            return get(specificType).load(BasicConfigurationNode.root(options.shouldCopyDefaults(false)));
+            return get(specificType).load(BasicConfigurationNode.confinedRoot(options.shouldCopyDefaults(false)));
         } catch (final SerializationException ex) {
             return null;
         }
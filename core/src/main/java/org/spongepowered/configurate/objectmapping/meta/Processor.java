@@ -95,7 +95,8 @@ public interface Processor<V> {
      */
     static Processor.Factory<Comment, Object> localizedComments(final ResourceBundle source) {
         return (data, fieldType) -> {
-            final String translated = Localization.key(source, data.value());
+            // equal translations of different keys share one string across every node
+            final String translated = Localization.key(source, data.value()).intern();
             return (value, destination) -> {
                 if (destination instanceof CommentedConfigurationNodeIntermediary<?>) {
                     final CommentedConfigurationNodeIntermediary<?> commented = (CommentedConfigurationNodeIntermediary<?>) destination;
@@ -20,6 +20,8 @@ import io.leangen.geantyref.TypeToken;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.configurate.ConfigurateException;
 import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.NodeDiff;
+import org.spongepowered.configurate.NodeIndex;
 import org.spongepowered.configurate.NodePath;
 import org.spongepowered.configurate.ScopedConfigurationNode;
 import org.spongepowered.configurate.loader.ConfigurationLoader;
@@ -30,6 +32,7 @@ import org.spongepowered.configurate.serialize.SerializationException;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 /**
@@ -141,6 +144,21 @@ public interface ConfigurationReference<N extends ConfigurationNode> extends Aut
      */
     N node();
 
+    /**
+     * Get an immutable snapshot of the base node this reference refers to.
+     *
+     * <p>Snapshots are cached until the node is next modified, so repeated
+     * calls are cheap. They may be shared between threads without
+     * synchronization.</p>
+     *
+     * @return a snapshot of the node
+     * @see ConfigurationNode#snapshot()
+     * @since 4.1.0
+     */
+    default ConfigurationNode snapshot() {
+        return node().snapshot();
+    }
+
     /**
      * Get the loader this reference uses to load and save its node.
      *
@@ -400,6 +418,55 @@ public interface ConfigurationReference<N extends ConfigurationNode> extends Aut
      */
     Publisher<N> updates();
 
+    /**
+     * Access the {@link Publisher} that will broadcast the changes made by
+     * each update, relative to the node that was previously published.
+     *
+     * <p>Changes are only computed while this publisher has subscribers.
+     * The initial load of a reference is not reported.</p>
+     *
+     * <p>The default implementation compares a snapshot taken at each update
+     * with the one taken at the previous update, or when this method was
+     * called.</p>
+     *
+     * @return the publisher
+     * @since 4.1.0
+     */
+    default Publisher<NodeDiff> changes() {
+        final AtomicReference<ConfigurationNode> previous = new AtomicReference<>(snapshot());
+        return updates().map(node -> {
+            final ConfigurationNode current = node.snapshot();
+            return NodeDiff.between(previous.getAndSet(current), current);
+        });
+    }
+
+    /**
+     * Create an index over the node held by this reference.
+     *
+     * <p>The index is rebuilt in parallel whenever this reference is
+     * reloaded, and follows any changes made to the current node between
+     * reloads. It stays attached until the index is
+     * {@link NodeIndex#dispose() disposed} or this reference is closed.</p>
+     *
+     * @param extractor the function computing the index key of a node
+     * @param pool the pool to build the index in
+     * @param <K> index key type
+     * @return a new index
+     * @see NodeIndex#create(ConfigurationNode, Function)
+     * @see NodeIndex#follow(Publisher, ForkJoinPool)
+     * @since 4.1.0
+     */
+    default <K> NodeIndex<K> index(Function<? super ConfigurationNode, ? extends @Nullable K> extractor, ForkJoinPool pool) {
+        final NodeIndex<K> index = NodeIndex.create(node(), extractor, pool);
+        index.follow(updates(), pool);
+        // A reload may have been published before subscribing
+        final N current = node();
+        if (index.root() != current) {
+            index.rebuild(current, pool);
+        }
+        return index;
+    }
+
     /**
      * A stream that will receive errors that occur while loading or saving to
      * this reference.
@@ -23,6 +23,7 @@ import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.configurate.ConfigurateException;
 import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.NodeDiff;
 import org.spongepowered.configurate.NodePath;
 import org.spongepowered.configurate.ScopedConfigurationNode;
 import org.spongepowered.configurate.loader.ConfigurationLoader;
@@ -40,14 +41,17 @@ import java.util.function.Function;
 class ManualConfigurationReference<N extends ScopedConfigurationNode<N>> implements ConfigurationReference<N> {
 
     protected volatile @MonotonicNonNull N node;
+    private volatile @Nullable CachedSnapshot snapshot;
     private final ConfigurationLoader<? extends N> loader;
     protected final Processor.TransactionalIso<N> updateListener;
     protected final Processor.Iso<Map.Entry<ErrorPhase, Throwable>> errorListener;
+    protected final Processor.Iso<NodeDiff> changeListener;
 
     ManualConfigurationReference(final ConfigurationLoader<? extends N> loader, final Executor taskExecutor) {
         this.loader = loader;
         this.updateListener = Processor.createTransactional(taskExecutor);
         this.errorListener = Processor.create(taskExecutor);
+        this.changeListener = Processor.create(taskExecutor);
         this.errorListener.fallbackHandler(it -> {
             System.err.println("Unhandled error while performing a " + it.getKey() + " for a "
                 + "configuration reference: " + it.getValue());
@@ -58,7 +62,27 @@ class ManualConfigurationReference<N extends ScopedConfigurationNode<N>> impleme
     @Override
     public final void load() throws ConfigurateException {
         synchronized (this.loader) {
-            this.updateListener.submit(this.node = this.loader.load());
+            final @Nullable N previous = this.node;
+            final N loaded = this.loader.load();
+            this.node = loaded;
+            publishUpdate(previous, loaded);
+        }
+    }
+
+    /**
+     * Notify subscribers that this reference points to a new node.
+     *
+     * <p>Changes are only computed when there is a subscriber for them, and
+     * are not reported for the initial load.</p>
+     *
+     * @param previous the previously published node, or null for the
+     *     initial load
+     * @param current the new node
+     */
+    protected final void publishUpdate(final @Nullable ConfigurationNode previous, final N current) {
+        this.updateListener.submit(current);
+        if (previous != null && this.changeListener.hasSubscribers()) {
+            this.changeListener.submit(NodeDiff.between(previous, current));
         }
     }
 
@@ -78,11 +102,17 @@ class ManualConfigurationReference<N extends ScopedConfigurationNode<N>> impleme
                 this.node = (N) newNode;
                 this.loader.save(this.node);
                 if (newNode != existing) {
-                    this.updateListener.submit(this.node);
+                    publishUpdate(existing, this.node);
                 }
             } else {
+                // the node is updated in place, so keep its original state to compare with
+                final @Nullable ConfigurationNode original = this.changeListener.hasSubscribers() ? this.snapshot() : null;
                 this.loader.save(this.node.from(newNode));
-                this.updateListener.submit(this.node);
+                if (original != null) {
+                    publishUpdate(original, this.node);
+                } else {
+                    this.updateListener.submit(this.node);
+                }
             }
         }
     }
@@ -109,6 +139,21 @@ class ManualConfigurationReference<N extends ScopedConfigurationNode<N>> impleme
         return this.node;
     }
 
+    @Override
+    public final ConfigurationNode snapshot() {
+        final N node = this.node;
+        // read the stamp first, so any concurrent modification will invalidate the new snapshot
+        final long stamp = node.modificationStamp();
+        final @Nullable CachedSnapshot cached = this.snapshot;
+        if (cached != null && cached.source == node && cached.stamp == stamp) {
+            return cached.snapshot;
+        }
+
+        final ConfigurationNode snapshot = node.snapshot();
+        this.snapshot = new CachedSnapshot(node, stamp, snapshot);
+        return snapshot;
+    }
+
     @Override
     public final ConfigurationLoader<? extends N> loader() {
         return this.loader;
@@ -140,6 +185,11 @@ class ManualConfigurationReference<N extends ScopedConfigurationNode<N>> impleme
         return this.updateListener;
     }
 
+    @Override
+    public final Publisher<NodeDiff> changes() {
+        return this.changeListener;
+    }
+
     @Override
     public final Publisher<Map.Entry<ErrorPhase, Throwable>> errors() {
         return this.errorListener;
@@ -148,6 +198,24 @@ class ManualConfigurationReference<N extends ScopedConfigurationNode<N>> impleme
     @Override
     public void close() {
         this.updateListener.onClose();
+        this.changeListener.onClose();
+    }
+
+    /**
+     * A snapshot of a node, with the stamp the node had when it was taken.
+     */
+    static final class CachedSnapshot {
+
+        final ConfigurationNode source;
+        final long stamp;
+        final ConfigurationNode snapshot;
+
+        CachedSnapshot(final ConfigurationNode source, final long stamp, final ConfigurationNode snapshot) {
+            this.source = source;
+            this.stamp = stamp;
+            this.snapshot = snapshot;
+        }
+
     }
 
 }
@@ -18,7 +18,9 @@ package org.spongepowered.configurate.reference;
 
 import io.leangen.geantyref.TypeToken;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.configurate.CompiledNodePath;
 import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.NodePath;
 import org.spongepowered.configurate.ScopedConfigurationNode;
 import org.spongepowered.configurate.reactive.Disposable;
@@ -40,13 +42,19 @@ class ValueReferenceImpl<@Nullable T, N extends ScopedConfigurationNode<N>> impl
     private final NodePath path;
     private final TypeToken<T> type;
     private final TypeSerializer<T> serializer;
+    private final CompiledNodePath compiledPath;
+    private final @Nullable T def;
     private final Publisher.Cached<@Nullable T> deserialized;
+    // the node the current value was read from, and its stamp at that time
+    private volatile Source source = Source.NONE;
 
     ValueReferenceImpl(final ManualConfigurationReference<N> root, final NodePath path, final TypeToken<T> type,
                        final @Nullable T def) throws SerializationException {
         this.root = root;
         this.path = path;
+        this.compiledPath = path.compile();
         this.type = type;
+        this.def = def;
         final @Nullable TypeSerializer<T> serializer = root.node().options().serializers().get(type);
         if (serializer == null) {
             throw new SerializationException(this.path, type.getType(), "Unsupported type" + type);
@@ -69,19 +77,54 @@ class ValueReferenceImpl<@Nullable T, N extends ScopedConfigurationNode<N>> impl
     }
 
     private @Nullable T deserializedValueFrom(final N parent, final @Nullable T defaultVal) throws SerializationException {
-        final N node = parent.node(this.path);
-        if (!node.virtual()) {
-            return this.serializer.deserialize(this.type.getType(), node);
-        }
-        final @Nullable T defaultOrEmpty = defaultVal == null ? this.serializer.emptyValue(this.type.getType(), node.options()) : defaultVal;
-        if (node.options().shouldCopyDefaults()) {
-            this.serializer.serialize(this.type.getType(), defaultOrEmpty, node);
+        final N node = this.compiledPath.node(parent);
+        try {
+            if (!node.virtual()) {
+                return this.serializer.deserialize(this.type.getType(), node);
+            }
+            final @Nullable T defaultOrEmpty = defaultVal == null ? this.serializer.emptyValue(this.type.getType(), node.options()) : defaultVal;
+            if (node.options().shouldCopyDefaults()) {
+                this.serializer.serialize(this.type.getType(), defaultOrEmpty, node);
+            }
+            return defaultOrEmpty;
+        } finally {
+            // also after a failure, so an invalid value is only read again once it changes
+            sourceRead(parent);
         }
-        return defaultOrEmpty;
+    }
+
+    /**
+     * Record the current state of the node at this reference's path, after
+     * it has been read or written.
+     *
+     * @param parent the root node
+     */
+    private void sourceRead(final N parent) {
+        final @Nullable N node = this.compiledPath.find(parent);
+        this.source = node == null ? Source.NONE : new Source(node, node.modificationStamp());
+    }
+
+    /**
+     * Get whether the value held by this reference may be out of date,
+     * because the node at its path has been changed or replaced directly.
+     *
+     * @return whether the value must be read again
+     */
+    private boolean sourceChanged() {
+        final @Nullable N node = this.compiledPath.find(this.root.node());
+        final Source source = this.source;
+        return node != source.node || (node != null && node.modificationStamp() != source.stamp);
     }
 
     @Override
     public @Nullable T get() {
+        if (sourceChanged()) {
+            try {
+                this.deserialized.submit(deserializedValueFrom(this.root.node(), this.def));
+            } catch (final SerializationException e) {
+                this.root.errorListener.submit(UnmodifiableCollections.immutableMapEntry(ErrorPhase.VALUE, e));
+            }
+        }
         return this.deserialized.get();
     }
 
@@ -89,6 +132,7 @@ class ValueReferenceImpl<@Nullable T, N extends ScopedConfigurationNode<N>> impl
     public boolean set(final @Nullable T value) {
         try {
             this.serializer.serialize(this.type.getType(), value, node());
+            sourceRead(this.root.node());
             this.deserialized.submit(value);
             return true;
         } catch (final SerializationException e) {
@@ -114,6 +158,7 @@ class ValueReferenceImpl<@Nullable T, N extends ScopedConfigurationNode<N>> impl
     public Publisher<Boolean> setAndSaveAsync(final @Nullable T value) {
         return Publisher.execute(() -> {
             this.serializer.serialize(this.type.getType(), value, node());
+            sourceRead(this.root.node());
             this.deserialized.submit(value);
             this.root.save();
             return true;
@@ -136,6 +181,7 @@ class ValueReferenceImpl<@Nullable T, N extends ScopedConfigurationNode<N>> impl
             final @Nullable T orig = get();
             final T updated = action.apply(orig);
             this.serializer.serialize(this.type.getType(), updated, node());
+            sourceRead(this.root.node());
             this.deserialized.submit(updated);
             this.root.save();
             return true;
@@ -144,7 +190,7 @@ class ValueReferenceImpl<@Nullable T, N extends ScopedConfigurationNode<N>> impl
 
     @Override
     public N node() {
-        return this.root.node().node(this.path);
+        return this.compiledPath.node(this.root.node());
     }
 
     @Override
@@ -162,4 +208,19 @@ class ValueReferenceImpl<@Nullable T, N extends ScopedConfigurationNode<N>> impl
         return this.deserialized.executor();
     }
 
+    /**
+     * A node a value was read from, with its stamp at that time.
+     */
+    private static final class Source {
+        static final Source NONE = new Source(null, 0);
+
+        final @Nullable ConfigurationNode node;
+        final long stamp;
+
+        Source(final @Nullable ConfigurationNode node, final long stamp) {
+            this.node = node;
+            this.stamp = stamp;
+        }
+    }
+
 }
@@ -67,13 +67,37 @@ class WatchingConfigurationReference<N extends ScopedConfigurationNode<N>>
     public void submit(final WatchEvent<?> item) {
         if (!this.saveSuppressed || item.kind() == StandardWatchEventKinds.ENTRY_MODIFY) {
             try {
-                load();
+                reload();
             } catch (final Exception e) {
                 this.errorListener.submit(UnmodifiableCollections.immutableMapEntry(ErrorPhase.LOADING, e));
             }
         }
     }
 
+    /**
+     * Load the configuration again, only notifying subscribers if the loaded
+     * contents differ from the current node.
+     *
+     * <p>An identical reload keeps the existing node. Maps and lists the
+     * loader has not created children for yet are equal without being read
+     * if both nodes take them from the same source, as when a snapshot is
+     * loaded again. Otherwise the loaded tree is hashed, so most changes are
+     * found without comparing every node, but an identical tree still has
+     * to be compared in full.</p>
+     *
+     * @throws ConfigurateException if unable to load
+     */
+    private void reload() throws ConfigurateException {
+        synchronized (loader()) {
+            final N loaded = loader().load();
+            final @Nullable N previous = this.node;
+            if (!loaded.equals(previous)) {
+                this.node = loaded;
+                publishUpdate(previous, loaded);
+            }
+        }
+    }
+
     @Override
     public void onError(final Throwable thrown) {
         this.errorListener.submit(UnmodifiableCollections.immutableMapEntry(ErrorPhase.UNKNOWN, thrown));
@@ -63,7 +63,7 @@ public abstract class AbstractListChildSerializer<T> implements TypeSerializer<T
             }
             return ret;
         } else {
-            final @Nullable Object unwrappedVal = node.raw();
+            final @Nullable Object unwrappedVal = node.rawView();
             if (unwrappedVal != null) {
                 final T ret = createNew(1, entryType);
                 deserializeSingle(0, ret, entrySerial.deserialize(entryType, node));
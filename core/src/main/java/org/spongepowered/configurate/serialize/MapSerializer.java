@@ -28,9 +28,11 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterators;
 
 final class MapSerializer implements TypeSerializer<Map<?, ?>> {
 
@@ -63,11 +65,13 @@ final class MapSerializer implements TypeSerializer<Map<?, ?>> {
                 throw new SerializationException(type, "No type serializer available for value type " + value);
             }
 
-            final BasicConfigurationNode keyNode = BasicConfigurationNode.root(node.options());
+            final BasicConfigurationNode keyNode = BasicConfigurationNode.confinedRoot(node.options());
 
-            for (Map.Entry<Object, ? extends ConfigurationNode> ent : node.childrenMap().entrySet()) {
-                ret.put(requireNonNull(keySerial.deserialize(key, keyNode.set(ent.getKey())), "key"),
-                    requireNonNull(valueSerial.deserialize(value, ent.getValue()), "value"));
+            // iterate without copying the child map
+            for (final Iterator<? extends ConfigurationNode> it = Spliterators.iterator(node.childrenSpliterator()); it.hasNext();) {
+                final ConfigurationNode child = it.next();
+                ret.put(requireNonNull(keySerial.deserialize(key, keyNode.set(child.key())), "key"),
+                    requireNonNull(valueSerial.deserialize(value, child), "value"));
             }
         }
         return ret;
@@ -106,7 +110,7 @@ final class MapSerializer implements TypeSerializer<Map<?, ?>> {
             } else {
                 unvisitedKeys = new HashSet<>(node.childrenMap().keySet());
             }
-            final BasicConfigurationNode keyNode = BasicConfigurationNode.root(node.options());
+            final BasicConfigurationNode keyNode = BasicConfigurationNode.confinedRoot(node.options());
             for (Map.Entry<?, ?> ent : obj.entrySet()) {
                 keySerial.serialize(key, ent.getKey(), keyNode);
                 final Object keyObj = requireNonNull(keyNode.raw(), "Key must not be null!");
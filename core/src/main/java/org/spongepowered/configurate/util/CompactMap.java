@@ -0,0 +1,265 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate.util;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map which preserves insertion order, storing small numbers of entries
+ * in a single array.
+ *
+ * <p>Keys and values are stored in alternating slots of the array, and looked
+ * up with a linear scan. Once the map grows past {@link #THRESHOLD} entries,
+ * its contents are moved to a {@link LinkedHashMap} which is used from then
+ * on, until the map is cleared.</p>
+ *
+ * <p>Like {@link LinkedHashMap}, this map is not thread-safe.</p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class CompactMap<K, V> extends AbstractMap<K, V> {
+
+    static final int THRESHOLD = 8;
+    private static final int INITIAL_CAPACITY = 2;
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] table = EMPTY;
+    private int size;
+    private int modCount;
+    private @Nullable Map<K, V> promoted;
+    private @Nullable Set<Map.Entry<K, V>> entrySet;
+
+    private int indexOf(final @Nullable Object key) {
+        final Object[] table = this.table;
+        for (int i = 0, end = this.size << 1; i < end; i += 2) {
+            if (Objects.equals(key, table[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        final @Nullable Map<K, V> promoted = this.promoted;
+        return promoted == null ? this.size : promoted.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(final @Nullable Object key) {
+        final @Nullable Map<K, V> promoted = this.promoted;
+        return promoted == null ? indexOf(key) != -1 : promoted.containsKey(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(final @Nullable Object key) {
+        final @Nullable Map<K, V> promoted = this.promoted;
+        if (promoted != null) {
+            return promoted.get(key);
+        }
+        final int idx = indexOf(key);
+        return idx == -1 ? null : (V) this.table[idx + 1];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable V put(final K key, final V value) {
+        final @Nullable Map<K, V> promoted = this.promoted;
+        if (promoted != null) {
+            return promoted.put(key, value);
+        }
+
+        final int idx = indexOf(key);
+        if (idx != -1) {
+            final V old = (V) this.table[idx + 1];
+            this.table[idx + 1] = value;
+            return old;
+        }
+
+        if (this.size == THRESHOLD) {
+            promote().put(key, value);
+            return null;
+        }
+
+        final int slot = this.size << 1;
+        if (slot == this.table.length) {
+            this.table = Arrays.copyOf(this.table, Math.max(INITIAL_CAPACITY, this.size) << 2);
+        }
+        this.table[slot] = key;
+        this.table[slot + 1] = value;
+        this.size++;
+        this.modCount++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<K, V> promote() {
+        final Map<K, V> promoted = new LinkedHashMap<>(THRESHOLD << 2);
+        final Object[] table = this.table;
+        for (int i = 0, end = this.size << 1; i < end; i += 2) {
+            promoted.put((K) table[i], (V) table[i + 1]);
+        }
+        this.promoted = promoted;
+        this.table = EMPTY;
+        this.size = 0;
+        this.modCount++;
+        return promoted;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public @Nullable V remove(final @Nullable Object key) {
+        final @Nullable Map<K, V> promoted = this.promoted;
+        if (promoted != null) {
+            return promoted.remove(key);
+        }
+
+        final int idx = indexOf(key);
+        if (idx == -1) {
+            return null;
+        }
+        final V old = (V) this.table[idx + 1];
+        removeAt(idx);
+        return old;
+    }
+
+    private void removeAt(final int idx) {
+        final int end = this.size << 1;
+        System.arraycopy(this.table, idx + 2, this.table, idx, end - idx - 2);
+        this.table[end - 2] = null;
+        this.table[end - 1] = null;
+        this.size--;
+        this.modCount++;
+    }
+
+    @Override
+    public void clear() {
+        this.promoted = null;
+        this.table = EMPTY;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        @Nullable Set<Map.Entry<K, V>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            entrySet = this.entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            final @Nullable Map<K, V> promoted = CompactMap.this.promoted;
+            return promoted == null ? new EntryIterator() : promoted.entrySet().iterator();
+        }
+
+        @Override
+        public int size() {
+            return CompactMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+        private int next;
+        private int last = -1;
+        private int expectedModCount = CompactMap.this.modCount;
+
+        @Override
+        public boolean hasNext() {
+            return this.next < CompactMap.this.size << 1;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (CompactMap.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Object[] table = CompactMap.this.table;
+            this.last = this.next;
+            this.next += 2;
+            return new Entry((K) table[this.last], (V) table[this.last + 1]);
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == -1) {
+                throw new IllegalStateException();
+            }
+            if (CompactMap.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(this.last);
+            this.next = this.last;
+            this.last = -1;
+            this.expectedModCount = CompactMap.this.modCount;
+        }
+
+    }
+
+    /**
+     * An entry which writes changed values through to the map.
+     */
+    private final class Entry extends SimpleEntry<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        Entry(final K key, final V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(final V value) {
+            CompactMap.this.put(getKey(), value);
+            return super.setValue(value);
+        }
+
+    }
+
+}
@@ -76,12 +76,33 @@ public final class MapFactories {
         return DefaultFactory.INSERTION_ORDERED;
     }
 
+    /**
+     * Returns a {@link MapFactory} which creates compact maps which are
+     * sorted by insertion order.
+     *
+     * <p>Maps with only a few entries are stored in a single array, and are
+     * converted to a hash-based map once they grow larger. This reduces the
+     * memory used by configurations with many small mapping nodes.</p>
+     *
+     * @return a map factory which produces compact maps sorted by insertion
+     *     order
+     * @since 4.1.0
+     */
+    public static MapFactory compact() {
+        return DefaultFactory.COMPACT;
+    }
+
     private enum DefaultFactory implements MapFactory {
         UNORDERED {
             @Override
             public <K, V> ConcurrentMap<K, V> create() {
                 return new ConcurrentHashMap<>();
             }
+
+            @Override
+            public <K, V> ConcurrentMap<K, V> create(final int expectedSize) {
+                return new ConcurrentHashMap<>(expectedSize);
+            }
         },
         SORTED_NATURAL {
             @Override
@@ -94,6 +115,18 @@ public final class MapFactories {
             public <K, V> Map<K, V> create() {
                 return new LinkedHashMap<>();
             }
+
+            @Override
+            public <K, V> Map<K, V> create(final int expectedSize) {
+                // avoid rehashing at the default load factor
+                return new LinkedHashMap<>(expectedSize + expectedSize / 3 + 1);
+            }
+        },
+        COMPACT {
+            @Override
+            public <K, V> Map<K, V> create() {
+                return new CompactMap<>();
+            }
         }
     }
 
@@ -19,7 +19,10 @@ package org.spongepowered.configurate.util;
 import java.util.Map;
 
 /**
- * A factory which creates thread-safe map instances.
+ * A factory which creates map instances.
+ *
+ * <p>Created maps do not need to be thread-safe. Configuration nodes only
+ * access the maps holding their children while holding a lock.</p>
  *
  * @since 4.0.0
  */
@@ -36,4 +39,20 @@ public interface MapFactory {
      */
     <K, V> Map<K, V> create();
 
+    /**
+     * Create a new map instance for the given types, which is expected to
+     * hold a certain number of entries.
+     *
+     * <p>By default, this ignores the expected size.</p>
+     *
+     * @param expectedSize the expected number of entries
+     * @param <K> key type
+     * @param <V> value type
+     * @return a new map instance
+     * @since 4.1.0
+     */
+    default <K, V> Map<K, V> create(final int expectedSize) {
+        return this.create();
+    }
+
 }
@@ -19,6 +19,7 @@ package org.spongepowered.configurate;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -30,6 +31,7 @@ import com.google.common.collect.ImmutableMap;
 import io.leangen.geantyref.TypeToken;
 import org.junit.jupiter.api.Test;
 import org.spongepowered.configurate.objectmapping.ConfigSerializable;
+import org.spongepowered.configurate.objectmapping.meta.NodeKey;
 import org.spongepowered.configurate.serialize.SerializationException;
 import org.spongepowered.configurate.util.UnmodifiableCollections;
 
@@ -41,7 +43,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.IntStream;
 
 public class AbstractConfigurationNodeTest {
@@ -183,6 +192,63 @@ public class AbstractConfigurationNodeTest {
         assertArrayEquals(new Object[]{"a", "b", "c"}, root.node("a", "b", "c").path().array());
     }
 
+    @Test
+    void testHashUpdatedOnNestedChange() {
+        final ConfigurationNode first = BasicConfigurationNode.root();
+        first.node("a", "b", "c").raw("value");
+        first.node("a", "list").appendListNode().raw(1);
+        final ConfigurationNode second = first.copy();
+
+        final int hash = first.hashCode();
+        assertEquals(hash, first.hashCode());
+        assertEquals(hash, second.hashCode());
+        assertEquals(first, second);
+
+        second.node("a", "b", "c").raw("other");
+        assertNotEquals(first, second);
+
+        second.node("a", "b", "c").raw("value");
+        assertEquals(first, second);
+        assertEquals(hash, second.hashCode());
+
+        second.node("a", "list", 0).raw(2);
+        assertNotEquals(first, second);
+        second.node("a", "list").removeChild(0);
+        first.node("a", "list").removeChild(0);
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testPathCached() {
+        final ConfigurationNode root = BasicConfigurationNode.root();
+        final ConfigurationNode child = root.node("a", "b", "c");
+        assertSame(child.path(), child.path());
+    }
+
+    @Test
+    void testPathUpdatedOnListRemoval() throws SerializationException {
+        final ConfigurationNode root = BasicConfigurationNode.root();
+        final ConfigurationNode list = root.node("list");
+        list.appendListNode().raw("zero");
+        list.appendListNode().node("name").raw("one");
+        list.appendListNode().node("name").raw("two");
+
+        final ConfigurationNode two = list.node(2, "name");
+        assertEquals(NodePath.path("list", 2, "name"), two.path());
+
+        list.removeChild(0);
+        assertEquals(NodePath.path("list", 0, "name"), list.node(0, "name").path());
+        assertEquals(NodePath.path("list", 1, "name"), two.path());
+        assertEquals("two", list.node(1, "name").getString());
+
+        // an appended node only gets its index once attached
+        final ConfigurationNode appended = list.appendListNode();
+        final NodePath unallocated = appended.path();
+        appended.raw("three");
+        assertNotEquals(unallocated, appended.path());
+        assertEquals(NodePath.path("list", 2), appended.path());
+    }
+
     @Test
     void testMergeValues() {
         final ConfigurationNode first = BasicConfigurationNode.root();
@@ -388,6 +454,24 @@ public class AbstractConfigurationNodeTest {
         assertEquals(true, copiedSet.hint(IS_EVIL));
     }
 
+    @Test
+    void testCopiedHintsIndependent() {
+        final ConfigurationNode original = BasicConfigurationNode.root();
+        original.hint(IS_EVIL, true).hint(INDENT, 4);
+
+        final ConfigurationNode copy = original.copy();
+        copy.hint(IS_EVIL, null);
+        copy.hint(INDENT, 2);
+
+        assertEquals(true, original.hint(IS_EVIL));
+        assertEquals(4, original.hint(INDENT));
+        assertEquals(ImmutableMap.of(IS_EVIL, true, INDENT, 4), original.ownHints());
+        assertEquals(ImmutableMap.of(INDENT, 2), copy.ownHints());
+
+        copy.hint(INDENT, null);
+        assertTrue(copy.ownHints().isEmpty());
+    }
+
     @Test
     void testHintsMerged() {
         final ConfigurationNode hintHolder = BasicConfigurationNode.root()
@@ -450,6 +534,63 @@ public class AbstractConfigurationNodeTest {
         assertEquals(new Empty(), node.get(Empty.class));
     }
 
+    @Test
+    void testCachedDeserialization() throws SerializationException {
+        final BasicConfigurationNode uncached = BasicConfigurationNode.root(n -> n.node("ignore-me").raw("a"));
+        assertNotSame(uncached.get(Empty.class), uncached.get(Empty.class));
+
+        final BasicConfigurationNode node = BasicConfigurationNode.root(ConfigurationOptions.defaults().cacheDeserializedValues(true),
+            n -> n.node("ignore-me").raw("a"));
+        final Empty first = node.get(Empty.class);
+        assertEquals("a", first.ignoreMe);
+        assertSame(first, node.get(Empty.class));
+
+        node.node("ignore-me").raw("b");
+        final Empty second = node.get(Empty.class);
+        assertNotSame(first, second);
+        assertEquals("b", second.ignoreMe);
+        assertSame(second, node.get(Empty.class));
+    }
+
+    @Test
+    void testCachedDeserializationCopiesDefaults() throws SerializationException {
+        final ConfigurationOptions options = ConfigurationOptions.defaults()
+            .cacheDeserializedValues(true)
+            .shouldCopyDefaults(true);
+        final BasicConfigurationNode node = BasicConfigurationNode.root(options, n -> n.node("unrelated").raw(1));
+
+        // the first read writes the default, so its result is not kept
+        final Empty first = node.get(Empty.class);
+        assertEquals("hello", node.node("ignore-me").raw());
+
+        final Empty second = node.get(Empty.class);
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertSame(second, node.get(Empty.class));
+    }
+
+    @ConfigSerializable
+    static class Indexed {
+        @NodeKey int index;
+        String name;
+    }
+
+    @Test
+    void testCachedDeserializationFollowsKey() throws SerializationException {
+        final BasicConfigurationNode node = BasicConfigurationNode.root(ConfigurationOptions.defaults().cacheDeserializedValues(true), n -> {
+            n.appendListNode().node("name").raw("first");
+            n.appendListNode().node("name").raw("second");
+        });
+        final BasicConfigurationNode second = node.node(1);
+        assertEquals(1, second.get(Indexed.class).index);
+
+        node.removeChild(0);
+
+        final Indexed moved = second.get(Indexed.class);
+        assertEquals("second", moved.name);
+        assertEquals(0, moved.index);
+    }
+
     @Test
     void testAppendListToMap() throws SerializationException {
         final BasicConfigurationNode node = BasicConfigurationNode.root(n -> {
@@ -487,4 +628,262 @@ public class AbstractConfigurationNodeTest {
         assertFalse(target.virtual());
     }
 
+    @Test
+    void testMergeInPlace() throws SerializationException {
+        final BasicConfigurationNode target = BasicConfigurationNode.root(n -> {
+            n.node("section", "kept").set(1);
+            n.node("section", "empty").set(null);
+            n.node("other").set("value");
+        });
+        final BasicConfigurationNode source = BasicConfigurationNode.root(n -> {
+            n.node("section", "kept").set(2);
+            n.node("section", "added").set(3);
+            n.node("added", "nested").set(4);
+        });
+        final BasicConfigurationNode section = target.node("section");
+        final BasicConfigurationNode kept = target.node("section", "kept");
+
+        target.mergeFrom(source);
+
+        assertSame(section, target.node("section"));
+        assertSame(kept, target.node("section", "kept"));
+        assertEquals(1, kept.raw());
+        assertEquals(3, target.node("section", "added").raw());
+        assertEquals(4, target.node("added", "nested").raw());
+        assertEquals("value", target.node("other").raw());
+
+        // absent subtrees are copied, not shared with the source
+        assertNotSame(source.node("added"), target.node("added"));
+        target.node("added", "nested").set(5);
+        assertEquals(4, source.node("added", "nested").raw());
+    }
+
+    @Test
+    void testFindDoesNotCreateNodes() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        root.node("features", "flag").set(true);
+        root.node("list").appendListNode().set("first");
+
+        assertSame(root.node("features", "flag"), root.find("features", "flag"));
+        assertSame(root.node("features", "flag"), root.find(NodePath.path("features", "flag")));
+        assertEquals("first", root.find("list", 0).raw());
+        assertNull(root.find("features", "missing"));
+        assertNull(root.find(NodePath.path("features", "flag", "child")));
+        assertNull(root.find("list", 1));
+        assertSame(root, root.find());
+    }
+
+    @Test
+    void testTypedGettersByPath() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.root(ConfigurationOptions.defaults().shouldCopyDefaults(false));
+        root.node("a", "int").set(5);
+        root.node("a", "bool").set(true);
+        root.node("a", "string").set("hello");
+
+        assertEquals(5, root.getInt(NodePath.path("a", "int"), 3));
+        assertEquals(5L, root.getLong(NodePath.path("a", "int"), 3L));
+        assertEquals(5d, root.getDouble(NodePath.path("a", "int"), 3d));
+        assertTrue(root.getBoolean(NodePath.path("a", "bool"), false));
+        assertEquals("hello", root.getString(NodePath.path("a", "string"), "default"));
+        assertEquals(3, root.getInt(NodePath.path("a", "missing"), 3));
+        assertEquals("default", root.getString(NodePath.path("b", "missing"), "default"));
+        assertFalse(root.hasChild("b"));
+    }
+
+    @Test
+    void testTypedGettersByPathCopyDefaults() {
+        final BasicConfigurationNode root = BasicConfigurationNode.root(ConfigurationOptions.defaults().shouldCopyDefaults(true));
+
+        assertEquals(3, root.getInt(NodePath.path("a", "missing"), 3));
+        assertEquals(3, root.node("a", "missing").raw());
+    }
+
+    @Test
+    void testPrimitiveScalars() {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        root.node("int").rawInt(5);
+        root.node("long").rawLong(5_000_000_000L);
+        root.node("double").rawDouble(0.5);
+        root.node("bool").rawBoolean(true);
+
+        assertEquals(5, root.node("int").raw());
+        assertEquals(5, root.node("int").getInt());
+        assertEquals(5L, root.node("int").getLong());
+        assertEquals("5", root.node("int").getString());
+        assertEquals(5_000_000_000L, root.node("long").raw());
+        assertEquals(5_000_000_000L, root.node("long").getLong());
+        assertEquals(0.5, root.node("double").getDouble());
+        assertEquals(0.5f, root.node("double").getFloat());
+        assertTrue(root.node("bool").getBoolean());
+        assertEquals(true, root.node("bool").raw());
+
+        final BasicConfigurationNode boxed = BasicConfigurationNode.root();
+        boxed.node("int").raw(5);
+        boxed.node("long").raw(5_000_000_000L);
+        boxed.node("double").raw(0.5);
+        boxed.node("bool").raw(true);
+        assertEquals(boxed, root);
+        assertEquals(boxed.hashCode(), root.hashCode());
+
+        root.node("int").raw("five");
+        assertEquals("five", root.node("int").raw());
+        assertEquals(3, root.node("int").getInt(3));
+    }
+
+    @Test
+    void testPrimitiveScalarsRespectNativeTypes() {
+        final BasicConfigurationNode root = BasicConfigurationNode.root(ConfigurationOptions.defaults()
+            .nativeTypes(UnmodifiableCollections.toSet(String.class)));
+
+        assertThrows(IllegalArgumentException.class, () -> root.node("int").rawInt(5));
+        assertTrue(root.node("int").virtual());
+    }
+
+    @Test
+    void testModificationStampPropagates() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        root.node("a", "b").set("c");
+        final BasicConfigurationNode a = root.node("a");
+        final BasicConfigurationNode other = root.node("other").raw(1);
+
+        final long rootStamp = root.modificationStamp();
+        final long aStamp = a.modificationStamp();
+        final long otherStamp = other.modificationStamp();
+        root.node("a", "b").set("d");
+
+        assertTrue(root.modificationStamp() > rootStamp);
+        assertTrue(a.modificationStamp() > aStamp);
+        assertEquals(otherStamp, other.modificationStamp());
+
+        // virtual nodes do not modify their parents
+        final long afterSet = root.modificationStamp();
+        root.node("virtual").hint(RepresentationHint.of("test", String.class), "value");
+        assertEquals(afterSet, root.modificationStamp());
+
+        root.removeChild("other");
+        assertTrue(root.modificationStamp() > afterSet);
+    }
+
+    @Test
+    void testModificationStampUnchangedByReads() {
+        // copies of snapshots create their children lazily
+        final ConfigurationNode root = BasicConfigurationNode.root(n -> n.node("a", "b", "c").raw(1)).snapshot().copy();
+        final long stamp = root.modificationStamp();
+
+        assertEquals(1, root.node("a", "b", "c").getInt());
+        assertEquals(1, root.childrenMap().size());
+        assertEquals(stamp, root.modificationStamp());
+    }
+
+    @Test
+    void testReadsDuringConcurrentWrites() throws Exception {
+        final ConfigurationNode root = BasicConfigurationNode.root(n -> {
+            n.node("stable").raw("value");
+            n.node("list").appendListNode().raw(0);
+        });
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final CountDownLatch started = new CountDownLatch(4);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 3; ++i) {
+                readers.add(executor.submit(() -> {
+                    started.countDown();
+                    while (running.get()) {
+                        assertEquals("value", root.node("stable").getString());
+                        assertFalse(root.node("list").childrenList().isEmpty());
+                        root.childrenMap().values().forEach(ConfigurationNode::raw);
+                    }
+                }));
+            }
+            final Future<?> writer = executor.submit(() -> {
+                started.countDown();
+                for (int i = 0; i < 5_000; ++i) {
+                    root.node("churn", "key" + i).raw(i);
+                    root.node("list").appendListNode().raw(i);
+                    if (i % 100 == 0) {
+                        root.removeChild("churn");
+                        root.node("list").raw(Collections.singletonList(0));
+                    }
+                }
+            });
+            started.await();
+            writer.get(30, TimeUnit.SECONDS);
+            running.set(false);
+            for (final Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testChildIteration() {
+        final ConfigurationNode node = BasicConfigurationNode.root(n -> {
+            n.node("map", "a").raw(1);
+            n.node("map", "b").raw(2);
+            n.node("list").appendListNode().raw("x");
+            n.node("list").appendListNode().raw("y");
+            n.node("scalar").raw(true);
+        });
+
+        for (final ConfigurationNode source : Arrays.asList(node, node.snapshot())) {
+            assertEquals(2, source.node("map").childCount());
+            assertEquals(2, source.node("list").childCount());
+            assertEquals(0, source.node("scalar").childCount());
+            assertEquals(0, source.node("missing").childCount());
+
+            final Map<Object, Object> seen = new HashMap<>();
+            source.node("map").forEachChild((key, child) -> seen.put(key, child.raw()));
+            assertEquals(ImmutableMap.of("a", 1, "b", 2), seen);
+
+            final List<Object> elements = new ArrayList<>();
+            source.node("list").forEachChild((key, child) -> elements.add(key + "=" + child.raw()));
+            assertEquals(ImmutableList.of("0=x", "1=y"), elements);
+        }
+    }
+
+    @Test
+    void testChildrenSpliteratorIgnoresLaterChanges() {
+        final BasicConfigurationNode node = BasicConfigurationNode.root(n -> {
+            n.node("a").raw(1);
+            n.node("b").raw(2);
+        });
+
+        final Spliterator<BasicConfigurationNode> children = node.childrenSpliterator();
+        node.node("c").raw(3);
+        node.removeChild("a");
+
+        final List<Object> keys = new ArrayList<>();
+        children.forEachRemaining(child -> keys.add(child.key()));
+        assertEquals(ImmutableList.of("a", "b"), keys);
+        assertEquals(2, node.childCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRawView() {
+        final ConfigurationNode node = BasicConfigurationNode.root(n -> {
+            n.node("map", "a").raw(1);
+            n.node("map", "b", "c").raw("d");
+            n.node("list").appendListNode().raw("x");
+            n.node("list").appendListNode().node("y").raw(true);
+        });
+
+        final Object view = node.rawView();
+        assertEquals(node.raw(), view);
+        assertEquals(node.snapshot().raw(), node.snapshot().rawView());
+        final Map<Object, Object> mapView = (Map<Object, Object>) node.node("map").rawView();
+        assertEquals(1, mapView.get("a"));
+        assertThrows(UnsupportedOperationException.class, () -> mapView.put("e", "f"));
+
+        // views read the node when they are accessed
+        node.node("map", "e").raw(5);
+        assertEquals(node.raw(), view);
+        assertEquals(5, mapView.get("e"));
+        assertEquals("x", ((List<?>) node.node("list").rawView()).get(0));
+    }
+
 }
@@ -16,6 +16,7 @@
  */
 package org.spongepowered.configurate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -44,4 +45,28 @@ public class AttributedConfigurationNodeTest {
         assertFalse(child.virtual());
     }
 
+    @Test
+    void testSnapshotKeepsAttributes() {
+        final AttributedConfigurationNode node = AttributedConfigurationNode.root("settings");
+        node.addAttribute("version", "2");
+        node.node("server").tagName("host").addAttribute("secure", "true").raw("localhost");
+
+        final ConfigurationNode snapshot = node.snapshot();
+
+        final ConfigurationNode copy = snapshot.copy();
+        assertTrue(copy instanceof AttributedConfigurationNode);
+        final AttributedConfigurationNode attributedCopy = (AttributedConfigurationNode) copy;
+        assertEquals("settings", attributedCopy.tagName());
+        assertEquals("2", attributedCopy.attribute("version"));
+        assertEquals("host", attributedCopy.node("server").tagName());
+        assertEquals("true", attributedCopy.node("server").attribute("secure"));
+        assertEquals("localhost", attributedCopy.node("server").raw());
+
+        final AttributedConfigurationNode restored = AttributedConfigurationNode.root().from(snapshot);
+        assertEquals("settings", restored.tagName());
+        assertEquals("2", restored.attribute("version"));
+        assertEquals("host", restored.node("server").tagName());
+        assertEquals("true", restored.node("server").attribute("secure"));
+    }
+
 }
@@ -18,6 +18,8 @@ package org.spongepowered.configurate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.junit.jupiter.api.Test;
 
@@ -80,4 +82,27 @@ public class CommentedConfigurationNodeImplTest {
         assertEquals("always", target.node("no-parent", "child").comment());
     }
 
+    @Test
+    void testCommentsCopied() {
+        final CommentedConfigurationNode source = CommentedConfigurationNode.root();
+        source.node("commented").raw(1).comment("one");
+        source.node("plain").raw(2);
+
+        final CommentedConfigurationNode copy = source.copy();
+        assertEquals("one", copy.node("commented").comment());
+        assertNull(copy.node("plain").comment());
+
+        copy.node("commented").comment("two");
+        assertEquals("one", source.node("commented").comment());
+    }
+
+    @Test
+    void testEqualCommentKeepsInstance() {
+        final String original = new String("hello");
+        final CommentedConfigurationNode node = CommentedConfigurationNode.root().comment(original);
+
+        node.comment(new String("hello"));
+        assertSame(original, node.comment());
+    }
+
 }
@@ -17,10 +17,15 @@
 package org.spongepowered.configurate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class ConfigurationVisitorTest {
 
@@ -80,6 +85,115 @@ public class ConfigurationVisitorTest {
         assertEquals("b(l)t", result);
     }
 
+    private static BasicConfigurationNode createTree() {
+        final BasicConfigurationNode base = BasicConfigurationNode.root();
+        base.node("cats").act(c -> {
+            c.node("large").raw("great");
+            c.node("small").raw("stupendous");
+        });
+        base.node("fish").act(c -> {
+            c.appendListNode().raw("one");
+            c.appendListNode().raw("two");
+        });
+        base.node("dog").raw("woof");
+        return base;
+    }
+
+    @Test
+    void testSkipChildren() {
+        final ConfigurationVisitor.Safe<StringBuilder, String> visitor = new TestVisitor() {
+            @Override
+            public Control enter(final ConfigurationNode node, final StringBuilder state) {
+                enterNode(node, state);
+                return "cats".equals(node.key()) ? Control.SKIP_CHILDREN : Control.CONTINUE;
+            }
+        };
+
+        assertEquals("b(m(-cats-m)(-fish-l(-0-s)(-1-s))(-dog-s))t", createTree().visit(visitor));
+        assertEquals("b(m(-cats-m)(-fish-l(-0-s)(-1-s))(-dog-s))t", createTree().snapshot().visit(visitor));
+    }
+
+    @Test
+    void testStop() {
+        final ConfigurationVisitor.Safe<StringBuilder, String> visitor = new TestVisitor() {
+            @Override
+            public Control enter(final ConfigurationNode node, final StringBuilder state) {
+                if (Integer.valueOf(1).equals(node.key())) {
+                    return Control.STOP;
+                }
+                enterNode(node, state);
+                return Control.CONTINUE;
+            }
+        };
+
+        assertEquals("b(m(-cats-m(-large-s)(-small-s))(-fish-l(-0-s)))t", createTree().visit(visitor));
+        assertEquals("b(m(-cats-m(-large-s)(-small-s))(-fish-l(-0-s)))t", createTree().snapshot().visit(visitor));
+    }
+
+    @Test
+    void testStatelessStop() {
+        final List<Object> visited = new ArrayList<>();
+        createTree().visit(new ConfigurationVisitor.Stateless<RuntimeException>() {
+            @Override
+            public void enterNode(final ConfigurationNode node) {
+                visited.add(node.key());
+            }
+
+            @Override
+            public Control enter(final ConfigurationNode node) {
+                enterNode(node);
+                return "fish".equals(node.key()) ? Control.STOP : Control.CONTINUE;
+            }
+        });
+
+        assertEquals(Arrays.asList(null, "cats", "large", "small", "fish"), visited);
+    }
+
+    @Test
+    void testParallelVisitMatchesSequential() throws VisitorSafeNoopException {
+        final BasicConfigurationNode base = BasicConfigurationNode.root();
+        for (int i = 0; i < 500; ++i) {
+            final BasicConfigurationNode entry = base.node("entries").appendListNode();
+            entry.node("id").raw(i);
+            for (int j = 0; j < 40; ++j) {
+                entry.node("values").appendListNode().raw(j);
+            }
+        }
+        base.node("name").raw("parallel");
+
+        final ParallelTestVisitor visitor = new ParallelTestVisitor();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(base.visit(VISITOR), base.visit(visitor, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testParallelVisitExceptionRethrown() {
+        final BasicConfigurationNode base = BasicConfigurationNode.root();
+        for (int i = 0; i < 100; ++i) {
+            base.appendListNode().raw(i);
+        }
+
+        final ParallelTestVisitor visitor = new ParallelTestVisitor() {
+            @Override
+            public void enterScalarNode(final ConfigurationNode node, final StringBuilder state) {
+                if (Integer.valueOf(77).equals(node.raw())) {
+                    throw new IllegalStateException("bad value");
+                }
+            }
+        };
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final IllegalStateException ex = assertThrows(IllegalStateException.class, () -> base.visit(visitor, pool));
+            assertEquals("bad value", ex.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     /**
      * A visitor that tracks events and outputs a string with the
      * following tokens.
@@ -148,4 +262,16 @@ public class ConfigurationVisitorTest {
         }
     }
 
+    /**
+     * A test visitor that joins the output of separately visited subtrees.
+     */
+    static class ParallelTestVisitor extends TestVisitor
+            implements ConfigurationVisitor.Parallel<StringBuilder, String, VisitorSafeNoopException> {
+
+        @Override
+        public StringBuilder combine(final StringBuilder first, final StringBuilder second) {
+            return first.append(second);
+        }
+    }
+
 }
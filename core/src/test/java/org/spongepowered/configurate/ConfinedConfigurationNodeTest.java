@@ -0,0 +1,92 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.spongepowered.configurate.serialize.SerializationException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+public class ConfinedConfigurationNodeTest {
+
+    @Test
+    void testConfinedNodeMatchesShared() throws SerializationException {
+        final BasicConfigurationNode shared = BasicConfigurationNode.root();
+        final BasicConfigurationNode confined = BasicConfigurationNode.confinedFactory().createNode();
+        for (final BasicConfigurationNode node : Arrays.asList(shared, confined)) {
+            node.node("name").set("test");
+            node.node("worlds").setList(String.class, Arrays.asList("overworld", "nether"));
+            node.node("limits", "players").set(20);
+            node.node("limits").mergeFrom(BasicConfigurationNode.root(n -> n.node("entities").set(500)));
+            node.node("removed").set("gone");
+            node.node("removed").set(null);
+            node.hint(RepresentationHint.of("test", String.class), "hinted");
+        }
+
+        assertEquals(shared, confined);
+        assertEquals(shared.hint(RepresentationHint.of("test", String.class)), confined.hint(RepresentationHint.of("test", String.class)));
+        assertEquals(500, confined.node("limits", "entities").getInt());
+    }
+
+    @Test
+    void testChildrenAreConfined() {
+        final CommentedConfigurationNode root = CommentedConfigurationNode.confinedRoot(ConfigurationOptions.defaults());
+        final CommentedConfigurationNode child = root.node("a", "b").comment("hello");
+
+        assertTrue(((AbstractConfigurationNode<?, ?>) root).confined);
+        assertTrue(((AbstractConfigurationNode<?, ?>) child).confined);
+        assertEquals("hello", child.comment());
+        assertFalse(((AbstractConfigurationNode<?, ?>) root.copy()).confined);
+    }
+
+    @Test
+    void testPublishReleasesWholeTree() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.confinedRoot(ConfigurationOptions.defaults());
+        final BasicConfigurationNode detached = root.node("later");
+        root.node("values").set(Collections.singletonMap("key", Arrays.asList(1, 2, 3)));
+
+        final BasicConfigurationNode leaf = root.node("values", "key", 2);
+        assertEquals(root, leaf.publish().parent().parent().parent());
+
+        assertFalse(((AbstractConfigurationNode<?, ?>) root).confined);
+        assertFalse(((AbstractConfigurationNode<?, ?>) leaf).confined);
+
+        // nodes created before publishing are released when attached
+        detached.set("attached");
+        assertFalse(((AbstractConfigurationNode<?, ?>) detached).confined);
+        assertEquals("attached", root.node("later").getString());
+    }
+
+    @Test
+    void testModificationStampAdvances() {
+        final BasicConfigurationNode root = BasicConfigurationNode.confinedRoot(ConfigurationOptions.defaults());
+        final long initial = root.modificationStamp();
+        root.node("a").raw("b");
+        assertNotEquals(initial, root.modificationStamp());
+
+        final Map<Object, BasicConfigurationNode> children = root.publish().childrenMap();
+        assertEquals("b", children.get("a").raw());
+    }
+
+}
@@ -21,11 +21,14 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.junit.jupiter.api.Test;
 import org.spongepowered.configurate.serialize.SerializationException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 public class CopyTest {
 
@@ -89,4 +92,70 @@ public class CopyTest {
         assertNotSame(originalVal.parent(), copyVal.parent());
     }
 
+    @Test
+    void testCopiesOfSnapshotAreIndependent() throws SerializationException {
+        final ConfigurationNode node = BasicConfigurationNode.root();
+        node.node("section", "val1").set(true);
+        node.node("section", "val2").set("TEST");
+        node.node("section", "list").appendListNode().set("value1");
+        node.node("other").set(5);
+
+        final ConfigurationNode snapshot = node.snapshot();
+        final ConfigurationNode first = snapshot.copy();
+        final ConfigurationNode second = first.copy();
+
+        assertEquals(node, first);
+        assertEquals(Arrays.asList("value1"), first.node("section", "list").raw());
+
+        first.node("section", "val2").set("FIRST");
+        first.node("section", "list").appendListNode().set("value2");
+        second.node("other").set(6);
+        final ConfigurationNode third = first.copy();
+        third.node("section", "val1").set(false);
+
+        assertEquals("TEST", snapshot.node("section", "val2").raw());
+        assertEquals("FIRST", first.node("section", "val2").raw());
+        assertEquals("TEST", second.node("section", "val2").raw());
+        assertEquals("FIRST", third.node("section", "val2").raw());
+        assertEquals(Arrays.asList("value1", "value2"), first.node("section", "list").raw());
+        assertEquals(Arrays.asList("value1"), second.node("section", "list").raw());
+        assertEquals(5, first.node("other").raw());
+        assertEquals(6, second.node("other").raw());
+        assertEquals(true, first.node("section", "val1").raw());
+        assertEquals(false, third.node("section", "val1").raw());
+
+        final ConfigurationNode val = second.node("section", "list", 0);
+        assertFalse(val.virtual());
+        assertEquals(NodePath.path("section", "list", 0), val.path());
+        assertSame(second, val.parent().parent().parent());
+    }
+
+    @Test
+    void testParallelCopy() {
+        final CommentedConfigurationNode node = CommentedConfigurationNode.root(n -> {
+            for (int i = 0; i < ParallelCopy.LEAF_SIZE * 4; ++i) {
+                final CommentedConfigurationNode section = n.node("section" + i).comment("Section " + i);
+                for (int j = 0; j < ParallelCopy.LEAF_SIZE * 2; ++j) {
+                    section.node("list").appendListNode().node("value").raw(i * j);
+                }
+            }
+        });
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final CommentedConfigurationNode copy = node.copy(pool);
+            assertNotSame(node, copy);
+            assertEquals(node, copy);
+            assertEquals(new ArrayList<>(node.childrenMap().keySet()), new ArrayList<>(copy.childrenMap().keySet()));
+            assertEquals("Section 7", copy.node("section7").comment());
+            assertEquals(7 * 9, copy.node("section7", "list", 9, "value").raw());
+            assertSame(copy, copy.node("section7", "list", 9).parent().parent().parent());
+
+            node.node("section7", "list", 9, "value").raw("changed");
+            assertEquals(7 * 9, copy.node("section7", "list", 9, "value").raw());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
 }
@@ -0,0 +1,145 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.spongepowered.configurate.serialize.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class FrozenConfigurationNodeTest {
+
+    @Test
+    void testSnapshotIsIsolatedFromSource() throws SerializationException {
+        final ConfigurationNode node = BasicConfigurationNode.root();
+        node.node("test").set(5);
+        node.node("section", "val1").set(true);
+        node.node("list").appendListNode().set("value1");
+        node.node("list").appendListNode().set("value2");
+
+        final ConfigurationNode snapshot = node.snapshot();
+        node.node("test").set(6);
+        node.node("list").appendListNode().set("value3");
+
+        assertEquals(5, snapshot.node("test").getInt());
+        assertTrue(snapshot.node("section", "val1").getBoolean());
+        assertEquals(Arrays.asList("value1", "value2"), snapshot.node("list").getList(String.class));
+        assertEquals(Arrays.asList("test", "section", "list"), new ArrayList<>(snapshot.childrenMap().keySet()));
+        assertSame(snapshot, snapshot.snapshot());
+    }
+
+    @Test
+    void testSnapshotLookup() throws SerializationException {
+        final ConfigurationNode node = BasicConfigurationNode.root();
+        for (int i = 0; i < 50; ++i) {
+            node.node("key" + i).set(i);
+        }
+
+        final ConfigurationNode snapshot = node.snapshot();
+        for (int i = 0; i < 50; ++i) {
+            assertTrue(snapshot.hasChild("key" + i));
+            assertEquals(i, snapshot.node("key" + i).getInt());
+            assertEquals(NodePath.path("key" + i), snapshot.node("key" + i).path());
+        }
+        assertFalse(snapshot.hasChild("missing"));
+        assertTrue(snapshot.node("missing", "child").virtual());
+        assertNull(snapshot.node("missing", "child").raw());
+    }
+
+    @Test
+    void testSnapshotIsUnmodifiable() {
+        final ConfigurationNode snapshot = BasicConfigurationNode.root(n -> n.node("a").raw("b")).snapshot();
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.node("a").set("c"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.node("b").raw("c"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.removeChild("a"));
+        assertThrows(UnsupportedOperationException.class, snapshot::appendListNode);
+    }
+
+    @Test
+    void testSnapshotDoesNotStoreDefaults() throws SerializationException {
+        final ConfigurationNode snapshot = BasicConfigurationNode.root(ConfigurationOptions.defaults().shouldCopyDefaults(true)).snapshot();
+
+        assertEquals("default", snapshot.node("missing").getString("default"));
+        assertFalse(snapshot.hasChild("missing"));
+    }
+
+    @Test
+    void testCopyFromSnapshot() throws SerializationException {
+        final CommentedConfigurationNode node = CommentedConfigurationNode.root();
+        node.node("a", "b").set("c").comment("a comment");
+        node.node("list").appendListNode().set(1);
+
+        final ConfigurationNode snapshot = node.snapshot();
+        final ConfigurationNode copy = snapshot.copy();
+        assertEquals(node, copy);
+        assertEquals("a comment", ((CommentedConfigurationNode) copy).node("a", "b").comment());
+
+        copy.node("a", "b").set("d");
+        assertEquals("c", snapshot.node("a", "b").getString());
+    }
+
+    @Test
+    void testSnapshotEquality() throws SerializationException {
+        final ConfigurationNode first = BasicConfigurationNode.root();
+        first.node("a").set(1);
+        first.node("b").set(2);
+        final ConfigurationNode second = BasicConfigurationNode.root();
+        second.node("b").set(2);
+        second.node("a").set(1);
+
+        assertEquals(first.snapshot(), second.snapshot());
+        assertEquals(first.snapshot().hashCode(), second.snapshot().hashCode());
+    }
+
+    @Test
+    void testSnapshotSharesUntouchedChildren() throws SerializationException {
+        final ConfigurationNode node = BasicConfigurationNode.root();
+        node.node("changed", "value").set(1);
+        node.node("untouched", "section", "value").set("a");
+        node.node("untouched", "list").set(Arrays.asList("b", "c"));
+
+        final FrozenConfigurationNode first = (FrozenConfigurationNode) node.snapshot();
+        final ConfigurationNode copy = first.copy();
+        copy.node("changed", "value").set(2);
+        final FrozenConfigurationNode second = (FrozenConfigurationNode) copy.snapshot();
+
+        assertTrue(second.node("untouched").sharesValue(first.node("untouched")));
+        assertFalse(second.node("changed").sharesValue(first.node("changed")));
+        assertEquals(1, first.node("changed", "value").getInt());
+        assertEquals(2, second.node("changed", "value").getInt());
+
+        // shared children are reachable with the correct parents
+        final ConfigurationNode shared = second.node("untouched", "section", "value");
+        assertEquals("a", shared.getString());
+        assertSame(second.node("untouched", "section"), shared.parent());
+        assertSame(second, requireNonNull(requireNonNull(shared.parent()).parent()).parent());
+        assertEquals(NodePath.path("untouched", "list", 1), second.node("untouched", "list", 1).path());
+        assertEquals(copy.snapshot(), second);
+        assertEquals(node.node("untouched").snapshot().hashCode(), second.node("untouched").hashCode());
+    }
+
+}
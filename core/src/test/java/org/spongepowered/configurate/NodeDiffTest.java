@@ -0,0 +1,172 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+import org.spongepowered.configurate.serialize.SerializationException;
+
+import java.util.Arrays;
+
+public class NodeDiffTest {
+
+    @Test
+    void testIdenticalTrees() throws SerializationException {
+        final ConfigurationNode original = BasicConfigurationNode.root();
+        original.node("server", "port").set(25565);
+        original.node("worlds").set(Arrays.asList("overworld", "nether"));
+        final NodeDiff diff = NodeDiff.between(original, original.copy());
+
+        assertTrue(diff.empty());
+        assertFalse(diff.affects(NodePath.path("server")));
+    }
+
+    @Test
+    void testChangedValues() throws SerializationException {
+        final ConfigurationNode original = BasicConfigurationNode.root();
+        original.node("server", "port").set(25565);
+        original.node("server", "motd").set("Hello");
+        original.node("database", "url").set("jdbc:h2:mem");
+        final ConfigurationNode updated = original.copy();
+        updated.node("server", "port").set(25566);
+        updated.node("server", "motd").set(null);
+        updated.node("server", "whitelist").set(true);
+
+        final NodeDiff diff = NodeDiff.between(original, updated);
+        assertEquals(Arrays.asList(
+                NodeDiff.Change.of(NodeDiff.Change.Kind.CHANGED, NodePath.path("server", "port"), 25565, 25566),
+                NodeDiff.Change.of(NodeDiff.Change.Kind.REMOVED, NodePath.path("server", "motd"), "Hello", null),
+                NodeDiff.Change.of(NodeDiff.Change.Kind.ADDED, NodePath.path("server", "whitelist"), null, true)
+        ), diff.changes());
+
+        assertTrue(diff.affects(NodePath.path("server")));
+        assertTrue(diff.affects(NodePath.path("server", "port", "child")));
+        assertFalse(diff.affects(NodePath.path("database")));
+        assertEquals(1, diff.changes(NodeDiff.Change.Kind.ADDED).size());
+    }
+
+    @Test
+    void testSectionsAddedAndRemoved() throws SerializationException {
+        final ConfigurationNode original = BasicConfigurationNode.root();
+        original.node("server", "port").set(25565);
+        original.node("database", "url").set("jdbc:h2:mem");
+        final ConfigurationNode updated = original.copy();
+        updated.node("database").set(null);
+        updated.node("logging", "level").set("debug");
+
+        final NodeDiff diff = NodeDiff.between(original, updated);
+        assertEquals(Arrays.asList(
+                NodeDiff.Change.of(NodeDiff.Change.Kind.REMOVED, NodePath.path("database"), ImmutableMap.of("url", "jdbc:h2:mem"), null),
+                NodeDiff.Change.of(NodeDiff.Change.Kind.ADDED, NodePath.path("logging"), null, ImmutableMap.of("level", "debug"))
+        ), diff.changes());
+    }
+
+    @Test
+    void testListChanges() throws SerializationException {
+        final ConfigurationNode original = BasicConfigurationNode.root();
+        original.node("worlds").set(Arrays.asList("overworld", "nether"));
+        final ConfigurationNode updated = original.copy();
+        updated.node("worlds", 1).set("end");
+        updated.node("worlds").appendListNode().set("nether");
+
+        final NodeDiff diff = NodeDiff.between(original, updated);
+        assertEquals(Arrays.asList(
+                NodeDiff.Change.of(NodeDiff.Change.Kind.CHANGED, NodePath.path("worlds", 1), "nether", "end"),
+                NodeDiff.Change.of(NodeDiff.Change.Kind.ADDED, NodePath.path("worlds", 2), null, "nether")
+        ), diff.changes());
+    }
+
+    @Test
+    void testCommentsIgnored() throws SerializationException {
+        final CommentedConfigurationNode original = CommentedConfigurationNode.root();
+        original.node("a").set("value");
+        final CommentedConfigurationNode updated = original.copy();
+        updated.node("a").comment("a comment");
+
+        assertTrue(NodeDiff.between(original, updated).empty());
+    }
+
+    @Test
+    void testSharedSnapshotChildrenPruned() throws SerializationException {
+        final ConfigurationNode node = BasicConfigurationNode.root();
+        node.node("changed").set(1);
+        for (int i = 0; i < 10; ++i) {
+            node.node("untouched", "value" + i).raw(new CountedValue(i));
+        }
+
+        final ConfigurationNode before = node.snapshot();
+        final ConfigurationNode updated = before.copy();
+        updated.node("changed").set(2);
+        CountedValue.comparisons = 0;
+
+        final NodeDiff diff = NodeDiff.between(before, updated.snapshot());
+        assertEquals(Arrays.asList(NodeDiff.Change.of(NodeDiff.Change.Kind.CHANGED, NodePath.path("changed"), 1, 2)), diff.changes());
+        assertEquals(0, CountedValue.comparisons);
+
+        // a mutable node is snapshotted to compare with a snapshot
+        assertEquals(diff.changes(), NodeDiff.between(before, updated).changes());
+        assertEquals(0, CountedValue.comparisons);
+    }
+
+    @Test
+    void testUnsharedValuesComparedOnce() {
+        final ConfigurationNode original = BasicConfigurationNode.root();
+        final ConfigurationNode updated = BasicConfigurationNode.root();
+        original.node("changed").raw(1);
+        updated.node("changed").raw(2);
+        for (int i = 0; i < 10; ++i) {
+            original.node("untouched", "value" + i).raw(new CountedValue(i));
+            updated.node("untouched", "value" + i).raw(new CountedValue(i));
+        }
+        CountedValue.comparisons = 0;
+
+        final NodeDiff diff = NodeDiff.between(original.snapshot(), updated.snapshot());
+        assertEquals(Arrays.asList(NodeDiff.Change.of(NodeDiff.Change.Kind.CHANGED, NodePath.path("changed"), 1, 2)), diff.changes());
+        // differing hashes skip comparing the whole tree before descending into it
+        assertEquals(10, CountedValue.comparisons);
+    }
+
+    /**
+     * A scalar value that counts how often it is compared.
+     */
+    static final class CountedValue {
+        static int comparisons;
+
+        private final int value;
+
+        CountedValue(final int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            comparisons++;
+            return other instanceof CountedValue && ((CountedValue) other).value == this.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.value;
+        }
+
+    }
+
+}
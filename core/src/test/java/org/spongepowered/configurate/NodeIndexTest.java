@@ -0,0 +1,167 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+import org.spongepowered.configurate.reactive.Processor;
+import org.spongepowered.configurate.serialize.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class NodeIndexTest {
+
+    @Test
+    void testIndexByValue() throws SerializationException {
+        final ConfigurationNode root = BasicConfigurationNode.root();
+        root.node("routes", "api").set("alpha");
+        root.node("routes", "web").set("beta");
+        root.node("fallbacks").set(Arrays.asList("beta", "alpha"));
+
+        final NodeIndex<Object> index = NodeIndex.byValue(root);
+
+        assertEquals(ImmutableSet.of(NodePath.path("routes", "api"), NodePath.path("fallbacks", 1)), index.paths("alpha"));
+        assertEquals(ImmutableSet.of(NodePath.path("routes", "web"), NodePath.path("fallbacks", 0)), index.paths("beta"));
+        assertEquals(ImmutableSet.of("alpha", "beta"), index.keys());
+        assertTrue(index.paths("gamma").isEmpty());
+    }
+
+    @Test
+    void testIndexByKey() throws SerializationException {
+        final ConfigurationNode root = BasicConfigurationNode.root();
+        root.node("api", "backend").set("alpha");
+        root.node("web", "backend").set("beta");
+        root.node("web", "timeout").set(30);
+
+        final NodeIndex<Object> index = NodeIndex.byKey(root);
+
+        assertEquals(ImmutableSet.of(NodePath.path("api", "backend"), NodePath.path("web", "backend")), index.paths("backend"));
+        assertEquals(ImmutableSet.of(NodePath.path("web")), index.paths("web"));
+        assertEquals(ImmutableSet.of("api", "web", "backend", "timeout"), index.keys());
+        assertTrue(index.paths("alpha").isEmpty());
+    }
+
+    @Test
+    void testIndexUpdatedOnMutation() throws SerializationException {
+        final ConfigurationNode root = BasicConfigurationNode.root();
+        root.node("api").set("alpha");
+        root.node("web").set("beta");
+        root.node("admin").set("alpha");
+        final NodeIndex<Object> index = NodeIndex.byValue(root);
+
+        root.node("web").set("alpha");
+        root.node("admin").set(null);
+        root.node("status").set("gamma");
+
+        assertEquals(ImmutableSet.of(NodePath.path("api"), NodePath.path("web")), index.paths("alpha"));
+        assertTrue(index.paths("beta").isEmpty());
+        assertEquals(ImmutableSet.of(NodePath.path("status")), index.paths("gamma"));
+    }
+
+    @Test
+    void testIndexUpdatedOnListRemoval() throws SerializationException {
+        final ConfigurationNode root = BasicConfigurationNode.root();
+        root.node("fallbacks").set(Arrays.asList("beta", "alpha", "gamma"));
+        final NodeIndex<Object> index = NodeIndex.byValue(root);
+
+        root.node("fallbacks").removeChild(0);
+
+        assertTrue(index.paths("beta").isEmpty());
+        assertEquals(ImmutableSet.of(NodePath.path("fallbacks", 0)), index.paths("alpha"));
+        assertEquals(ImmutableSet.of(NodePath.path("fallbacks", 1)), index.paths("gamma"));
+    }
+
+    @Test
+    void testRefreshRevisitsOnlyChangedSubtrees() throws SerializationException {
+        final ConfigurationNode root = BasicConfigurationNode.root();
+        root.node("api", "backend").set("alpha");
+        root.node("api", "timeout").set(30);
+        root.node("web", "backend").set("beta");
+        root.node("web", "timeout").set(10);
+        final List<NodePath> visited = new ArrayList<>();
+        final NodeIndex<Object> index = NodeIndex.create(root, node -> {
+            visited.add(node.path());
+            return node.rawScalar();
+        });
+        assertEquals(7, visited.size());
+
+        visited.clear();
+        index.refresh();
+        assertTrue(visited.isEmpty());
+
+        root.node("web", "backend").set("gamma");
+        index.refresh();
+        assertEquals(ImmutableSet.of(NodePath.path(), NodePath.path("web"), NodePath.path("web", "backend")),
+                ImmutableSet.copyOf(visited));
+        assertEquals(3, visited.size());
+        assertEquals(ImmutableSet.of(NodePath.path("web", "backend")), index.paths("gamma"));
+        assertTrue(index.paths("beta").isEmpty());
+    }
+
+    @Test
+    void testParallelRebuild() throws SerializationException {
+        final ConfigurationNode root = BasicConfigurationNode.root();
+        for (int i = 0; i < 1000; ++i) {
+            root.node("section-" + i).appendListNode().set(i % 10);
+        }
+
+        final NodeIndex<Object> sequential = NodeIndex.byValue(root);
+        final NodeIndex<Object> parallel = NodeIndex.create(root, ConfigurationNode::rawScalar, ForkJoinPool.commonPool());
+
+        assertEquals(100, parallel.paths(7).size());
+        assertEquals(sequential.keys(), parallel.keys());
+        assertEquals(sequential.paths(3), parallel.paths(3));
+
+        final ConfigurationNode replacement = BasicConfigurationNode.root();
+        replacement.node("only").set(7);
+        parallel.rebuild(replacement, ForkJoinPool.commonPool());
+        assertEquals(ImmutableSet.of(NodePath.path("only")), parallel.paths(7));
+    }
+
+    @Test
+    void testFollowUntilDisposed() throws SerializationException {
+        final ConfigurationNode initial = BasicConfigurationNode.root();
+        initial.node("first").set("alpha");
+        final Processor.Iso<ConfigurationNode> updates = Processor.create(Runnable::run);
+        final NodeIndex<Object> index = NodeIndex.byValue(initial)
+                .follow(updates, ForkJoinPool.commonPool());
+        assertTrue(updates.hasSubscribers());
+
+        final ConfigurationNode reloaded = BasicConfigurationNode.root();
+        reloaded.node("second").set("alpha");
+        updates.submit(reloaded);
+        assertSame(reloaded, index.root());
+        assertEquals(ImmutableSet.of(NodePath.path("second")), index.paths("alpha"));
+
+        index.dispose();
+        assertFalse(updates.hasSubscribers());
+        final ConfigurationNode ignored = BasicConfigurationNode.root();
+        ignored.node("third").set("alpha");
+        updates.submit(ignored);
+        assertSame(reloaded, index.root());
+        assertEquals(ImmutableSet.of(NodePath.path("second")), index.paths("alpha"));
+    }
+
+}
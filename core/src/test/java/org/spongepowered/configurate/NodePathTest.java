@@ -17,9 +17,16 @@
 package org.spongepowered.configurate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.spongepowered.configurate.NodePath.path;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.junit.jupiter.api.Test;
+import org.spongepowered.configurate.serialize.SerializationException;
+
+import java.util.Collections;
 
 public class NodePathTest {
 
@@ -56,4 +63,42 @@ public class NodePathTest {
         assertEquals(path("client", "port"), path.with(0, "client"));
     }
 
+    @Test
+    void testCompiledPathResolves() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        root.node("server", "port").set(25565);
+        final CompiledNodePath compiled = path("server", "port").compile();
+
+        final @Nullable BasicConfigurationNode port = compiled.find(root);
+        assertSame(root.node("server", "port"), port);
+        assertSame(port, compiled.find(root));
+        assertSame(port, compiled.node(root));
+
+        // value changes keep the same node
+        root.node("server", "port").set(25566);
+        assertSame(port, compiled.find(root));
+        assertEquals(25566, compiled.node(root).getInt());
+    }
+
+    @Test
+    void testCompiledPathFollowsStructureChanges() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        final CompiledNodePath compiled = path("server", "port").compile();
+
+        assertNull(compiled.find(root));
+        assertTrue(compiled.node(root).virtual());
+
+        root.node("server", "port").set(25565);
+        assertEquals(25565, compiled.node(root).getInt());
+
+        root.node("server").set(Collections.singletonMap("port", 80));
+        assertEquals(80, compiled.node(root).getInt());
+
+        root.node("server").removeChild("port");
+        assertNull(compiled.find(root));
+
+        final BasicConfigurationNode reloaded = BasicConfigurationNode.root(n -> n.node("server", "port").raw(8080));
+        assertEquals(8080, compiled.node(reloaded).getInt());
+    }
+
 }
@@ -0,0 +1,147 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.spongepowered.configurate.serialize.SerializationException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class NodeSelectorTest {
+
+    private static List<NodePath> paths(final ConfigurationNode root, final String selector) {
+        return root.select(selector).map(ConfigurationNode::path).collect(Collectors.toList());
+    }
+
+    @Test
+    void testKeys() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        root.node("servers", "lobby", "enabled").set(true);
+        root.node("servers", "survival", "enabled").set(false);
+
+        assertEquals(Collections.singletonList(NodePath.path("servers", "lobby", "enabled")), paths(root, "servers.lobby.enabled"));
+        assertEquals(Collections.emptyList(), paths(root, "servers.creative.enabled"));
+        // selecting never creates the nodes it looks for
+        assertFalse(root.node("servers").hasChild("creative"));
+    }
+
+    @Test
+    void testWildcards() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        root.node("servers", "lobby", "ports").set(Arrays.asList(25565, 25566));
+        root.node("servers", "survival", "ports").set(Collections.singletonList(25570));
+        root.node("servers", "survival", "enabled").set(false);
+
+        assertEquals(Arrays.asList(
+                NodePath.path("servers", "lobby", "ports"),
+                NodePath.path("servers", "survival", "ports")
+        ), paths(root, "servers.*.ports"));
+        assertEquals(Arrays.asList(
+                NodePath.path("servers", "lobby", "ports", 0),
+                NodePath.path("servers", "lobby", "ports", 1),
+                NodePath.path("servers", "survival", "ports", 0)
+        ), paths(root, "servers.*.ports[*]"));
+        assertEquals(Collections.singletonList(NodePath.path("servers", "lobby", "ports", 1)), paths(root, "servers.*.ports[1]"));
+    }
+
+    @Test
+    void testDescendants() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        root.node("enabled").set(true);
+        root.node("metrics", "enabled").set(true);
+        root.node("servers", "lobby", "enabled").set(true);
+        root.node("servers", "lobby", "ports").set(Arrays.asList(25565, 25566));
+
+        // ** matches zero or more levels
+        assertEquals(Arrays.asList(
+                NodePath.path("enabled"),
+                NodePath.path("metrics", "enabled"),
+                NodePath.path("servers", "lobby", "enabled")
+        ), paths(root, "**.enabled"));
+        assertEquals(Arrays.asList(
+                NodePath.path("servers", "lobby", "ports", 0),
+                NodePath.path("servers", "lobby", "ports", 1)
+        ), paths(root, "servers.**[*]"));
+        // the root, 3 sections, 3 flags, a port list, and 2 ports
+        assertEquals(10, root.select("**").count());
+    }
+
+    @Test
+    void testEmptySelectorMatchesRoot() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        root.node("servers", "lobby", "enabled").set(true);
+
+        assertEquals(Collections.singletonList(root), root.select("").collect(Collectors.toList()));
+        final ConfigurationNode servers = root.node("servers");
+        assertEquals(Collections.singletonList(servers), servers.select("").collect(Collectors.toList()));
+    }
+
+    @Test
+    void testEscapedKeys() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        root.node("a.b", "*").set("literal");
+        root.node("a.b", "other").set("other");
+
+        assertEquals(Collections.singletonList(NodePath.path("a.b", "*")), paths(root, "a\\.b.\\*"));
+        assertEquals(2, root.select("a\\.b.*").count());
+    }
+
+    @Test
+    void testMatches() {
+        final NodeSelector selector = NodeSelector.compile("servers.*.ports[*]");
+        assertTrue(selector.matches(NodePath.path("servers", "lobby", "ports", 3)));
+        assertFalse(selector.matches(NodePath.path("servers", "lobby", "ports")));
+        assertFalse(selector.matches(NodePath.path("servers", "lobby", "ports", "main")));
+        assertTrue(NodeSelector.compile("**").matches(NodePath.path()));
+    }
+
+    @Test
+    void testInvalidSelectors() {
+        assertThrows(IllegalArgumentException.class, () -> NodeSelector.compile("a..b"));
+        assertThrows(IllegalArgumentException.class, () -> NodeSelector.compile("a."));
+        assertThrows(IllegalArgumentException.class, () -> NodeSelector.compile("a[1"));
+        assertThrows(IllegalArgumentException.class, () -> NodeSelector.compile("a[x]"));
+        assertThrows(IllegalArgumentException.class, () -> NodeSelector.compile("a[-1]"));
+        assertThrows(IllegalArgumentException.class, () -> NodeSelector.compile("a[1]b"));
+    }
+
+    @Test
+    void testSnapshots() throws SerializationException {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        root.node("servers", "lobby", "enabled").set(true);
+        root.node("servers", "survival", "enabled").set(false);
+        final ConfigurationNode snapshot = root.snapshot();
+        root.node("servers", "creative", "enabled").set(true);
+
+        assertEquals(Arrays.asList(
+                NodePath.path("servers", "lobby", "enabled"),
+                NodePath.path("servers", "survival", "enabled")
+        ), paths(snapshot, "**.enabled"));
+        assertEquals(Arrays.asList(true, false), snapshot.select("servers.*.enabled")
+                .map(ConfigurationNode::getBoolean)
+                .collect(Collectors.toList()));
+    }
+
+}
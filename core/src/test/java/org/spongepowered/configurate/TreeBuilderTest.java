@@ -0,0 +1,209 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.spongepowered.configurate.serialize.SerializationException;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TreeBuilderTest {
+
+    @Test
+    void testBuildMatchesSetValues() throws SerializationException {
+        final BasicConfigurationNode expected = BasicConfigurationNode.root();
+        expected.node("name").set("test");
+        expected.node("port").set(25565);
+        expected.node("ratio").set(0.5d);
+        expected.node("enabled").set(true);
+        expected.node("worlds").set(Arrays.asList("overworld", "nether"));
+        expected.node("nested", "seed").set(Long.MAX_VALUE);
+        expected.node("empty-map").raw(Collections.emptyMap());
+        expected.node("empty-list").raw(Collections.emptyList());
+
+        final BasicConfigurationNode built = TreeBuilder.into(BasicConfigurationNode.root())
+                .beginMap(8)
+                .key("name").scalar("test")
+                .key("port").scalarInt(25565)
+                .key("ratio").scalarDouble(0.5d)
+                .key("enabled").scalarBoolean(true)
+                .key("worlds").beginList(2).scalar("overworld").scalar("nether").end()
+                .key("nested").beginMap().key("seed").scalarLong(Long.MAX_VALUE).end()
+                .key("empty-map").beginMap().end()
+                .key("empty-list").beginList().end()
+                .key("nothing").scalar(null)
+                .end()
+                .finish();
+
+        assertEquals(expected, built);
+        assertTrue(built.node("empty-map").isMap());
+        assertTrue(built.node("empty-list").isList());
+        assertTrue(built.node("nothing").virtual());
+        assertEquals(NodePath.path("worlds", 1), built.node("worlds", 1).path());
+        assertEquals(built, built.node("nested", "seed").parent().parent());
+    }
+
+    @Test
+    void testPublishedOnFinish() {
+        final BasicConfigurationNode root = BasicConfigurationNode.root();
+        final long stamp = root.modificationStamp();
+        final TreeBuilder<BasicConfigurationNode> builder = TreeBuilder.into(root)
+                .beginMap()
+                .key("a").scalar(1)
+                .end();
+
+        assertTrue(root.empty());
+        assertEquals(root, builder.finish());
+        assertEquals(1, root.node("a").raw());
+        assertNotEquals(stamp, root.modificationStamp());
+        assertThrows(IllegalStateException.class, builder::finish);
+    }
+
+    @Test
+    void testNodeMetadata() {
+        final TreeBuilder<CommentedConfigurationNode> mapBuilder = TreeBuilder.into(CommentedConfigurationNode.root()).beginMap();
+        mapBuilder.key("commented").node().comment("has a value");
+        mapBuilder.scalar("value");
+        mapBuilder.key("null-commented").node().comment("has no value");
+        mapBuilder.scalar(null);
+        mapBuilder.key("null").scalar(null);
+        final CommentedConfigurationNode map = mapBuilder.end().finish();
+
+        assertEquals("has a value", map.node("commented").comment());
+        assertEquals("value", map.node("commented").raw());
+        assertEquals("has no value", map.node("null-commented").comment());
+        assertFalse(map.node("null-commented").virtual());
+        assertTrue(map.node("null").virtual());
+
+        final TreeBuilder<CommentedConfigurationNode> builder = TreeBuilder.into(CommentedConfigurationNode.root()).beginList();
+        builder.node().comment("first");
+        builder.scalar("a");
+        builder.node().comment("second");
+        builder.scalar(null);
+        final CommentedConfigurationNode list = builder.end().finish();
+
+        assertEquals(2, list.childrenList().size());
+        assertEquals("first", list.node(0).comment());
+        assertEquals("second", list.node(1).comment());
+        assertFalse(list.node(1).virtual());
+    }
+
+    @Test
+    void testPath() {
+        final TreeBuilder<BasicConfigurationNode> builder = TreeBuilder.into(BasicConfigurationNode.root())
+                .beginMap()
+                .key("list")
+                .beginList()
+                .scalar("a");
+
+        assertEquals(NodePath.path("list", 1), builder.path());
+        builder.end().key("other");
+        assertEquals(NodePath.path("other"), builder.path());
+    }
+
+    @Test
+    void testInvalidUsage() {
+        assertThrows(IllegalStateException.class, () -> TreeBuilder.into(BasicConfigurationNode.root()).beginMap().scalar("no key"));
+        assertThrows(IllegalStateException.class, () -> TreeBuilder.into(BasicConfigurationNode.root()).beginList().key("key"));
+        assertThrows(IllegalStateException.class, () -> TreeBuilder.into(BasicConfigurationNode.root()).beginMap().finish());
+        assertThrows(IllegalStateException.class, () -> TreeBuilder.into(BasicConfigurationNode.root()).end());
+        assertThrows(IllegalArgumentException.class, () -> TreeBuilder.into(BasicConfigurationNode.root())
+                .scalar(Collections.emptyList()));
+    }
+
+    @Test
+    void testBuildIntoPopulatedNode() {
+        final BasicConfigurationNode root = BasicConfigurationNode.root(n -> {
+            n.node("old", "nested").raw("a");
+            n.node("list").appendListNode().raw("b");
+        });
+        final BasicConfigurationNode old = root.node("old");
+        final BasicConfigurationNode element = root.node("list", 0);
+
+        TreeBuilder.into(root).beginMap().key("new").scalar(1).end().finish();
+
+        assertEquals(1, root.node("new").raw());
+        assertTrue(root.node("old").virtual());
+        assertTrue(old.virtual());
+        assertTrue(element.virtual());
+
+        // like any virtual node, a replaced node attaches itself again when written to
+        old.node("nested").raw("c");
+        assertEquals("c", root.node("old", "nested").raw());
+        assertEquals(1, root.node("new").raw());
+
+        TreeBuilder.into(root).scalar(null).finish();
+        assertNull(root.raw());
+        assertTrue(root.empty());
+        assertTrue(root.node("new").virtual());
+    }
+
+    @Test
+    void testDeferredValuesBuiltOnAccess() {
+        final int[] calls = new int[1];
+        final BasicConfigurationNode root = TreeBuilder.into(BasicConfigurationNode.root())
+                .deferredMap(2, entries -> {
+                    calls[0]++;
+                    entries.key("a").scalar(1)
+                            .key("list").deferredList(2, elements -> elements.scalar("x").scalar("y"));
+                })
+                .finish();
+
+        assertEquals(0, calls[0]);
+        assertTrue(root.isMap());
+        assertEquals(2, root.childCount());
+        assertEquals(0, calls[0]);
+
+        // copies share the callback until they are read
+        final BasicConfigurationNode copy = root.copy();
+        assertEquals(Arrays.asList("x", "y"), root.node("list").raw());
+        assertEquals(1, calls[0]);
+        assertEquals(root, copy);
+        assertEquals(2, calls[0]);
+        assertEquals(NodePath.path("list", 1), root.node("list", 1).path());
+    }
+
+    @Test
+    void testDeferredValueFailures() {
+        final BasicConfigurationNode miscounted = TreeBuilder.into(BasicConfigurationNode.root())
+                .deferredList(2, elements -> elements.scalar("only"))
+                .finish();
+        assertThrows(IllegalStateException.class, miscounted::childrenList);
+        // the failure is repeated rather than exposing a partial value
+        assertThrows(IllegalStateException.class, miscounted::childrenList);
+
+        final BasicConfigurationNode ended = TreeBuilder.into(BasicConfigurationNode.root())
+                .deferredMap(0, TreeBuilder::end)
+                .finish();
+        assertThrows(IllegalStateException.class, ended::childrenMap);
+
+        final BasicConfigurationNode finished = TreeBuilder.into(BasicConfigurationNode.root())
+                .deferredMap(0, TreeBuilder::finish)
+                .finish();
+        assertThrows(IllegalStateException.class, finished::childrenMap);
+        assertThrows(IllegalArgumentException.class, () -> TreeBuilder.into(BasicConfigurationNode.root()).deferredList(-1, elements -> { }));
+    }
+
+}
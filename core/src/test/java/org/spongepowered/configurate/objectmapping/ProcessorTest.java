@@ -17,6 +17,7 @@
 package org.spongepowered.configurate.objectmapping;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.junit.jupiter.api.Test;
 import org.spongepowered.configurate.CommentedConfigurationNode;
@@ -71,4 +72,23 @@ public class ProcessorTest {
         assertEquals("Missing comment passthrough", target.node("goodbye").comment());
     }
 
+    static class TestCommentLocalizedShared {
+        @Comment("configurate.test.comment.one") int first = 1;
+        @Comment("configurate.test.comment.repeated") int second = 2;
+    }
+
+    @Test
+    void testLocalizedCommentsShared() throws SerializationException {
+        final ResourceBundle bundle = ResourceBundle.getBundle("org.spongepowered.configurate.objectmapping.messages", new Locale("en", "US"));
+        final ObjectMapper<TestCommentLocalizedShared> mapper = ObjectMapper.factoryBuilder()
+                .addProcessor(Comment.class, Processor.localizedComments(bundle))
+                .build().get(TestCommentLocalizedShared.class);
+
+        final CommentedConfigurationNode target = CommentedConfigurationNode.root();
+        mapper.save(new TestCommentLocalizedShared(), target);
+
+        assertEquals("First property", target.node("second").comment());
+        assertSame(target.node("first").comment(), target.node("second").comment());
+    }
+
 }
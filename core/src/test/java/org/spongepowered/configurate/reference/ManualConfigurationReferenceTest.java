@@ -0,0 +1,146 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate.reference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.spongepowered.configurate.BasicConfigurationNode;
+import org.spongepowered.configurate.CommentedConfigurationNode;
+import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.NodeDiff;
+import org.spongepowered.configurate.NodePath;
+import org.spongepowered.configurate.loader.TestConfigurationLoader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ManualConfigurationReferenceTest {
+
+    private static ConfigurationReference<BasicConfigurationNode> reference(final ConfigurationNode contents) throws ConfigurateException {
+        final TestConfigurationLoader loader = TestConfigurationLoader.builder()
+            .source(() -> new BufferedReader(new StringReader("")))
+            .sink(() -> new BufferedWriter(new StringWriter()))
+            .build();
+        loader.node(contents);
+        return ConfigurationReference.fixed(loader);
+    }
+
+    @Test
+    void testSnapshotCachedUntilModified() throws ConfigurateException {
+        final ConfigurationReference<BasicConfigurationNode> ref = reference(BasicConfigurationNode.root(n -> n.node("a").raw(1)));
+
+        final ConfigurationNode first = ref.snapshot();
+        assertEquals(1, first.node("a").raw());
+        assertSame(first, ref.snapshot());
+
+        ref.node().node("a").raw(2);
+        final ConfigurationNode second = ref.snapshot();
+        assertNotSame(first, second);
+        assertEquals(1, first.node("a").raw());
+        assertEquals(2, second.node("a").raw());
+
+        ref.load();
+        assertEquals(1, ref.snapshot().node("a").raw());
+    }
+
+    @Test
+    void testValueReferenceSeesDirectModification() throws ConfigurateException {
+        final ConfigurationReference<BasicConfigurationNode> ref = reference(BasicConfigurationNode.root(n -> n.node("server", "port").raw(25565)));
+        final ValueReference<Integer, BasicConfigurationNode> port = ref.referenceTo(Integer.class, NodePath.path("server", "port"));
+
+        assertEquals(25565, port.get());
+        ref.node().node("server", "port").raw(80);
+        assertEquals(80, port.get());
+
+        ref.node().node("server").set(null);
+        assertNull(port.get());
+
+        port.set(8080);
+        assertEquals(8080, port.get());
+        assertEquals(8080, ref.node().node("server", "port").raw());
+    }
+
+    @Test
+    void testChangesOfInPlaceSave() throws ConfigurateException {
+        final TestConfigurationLoader loader = TestConfigurationLoader.builder()
+            .source(() -> new BufferedReader(new StringReader("")))
+            .sink(() -> new BufferedWriter(new StringWriter()))
+            .build();
+        loader.node(BasicConfigurationNode.root(n -> {
+            n.node("a").raw(1);
+            n.node("b").raw("unchanged");
+        }));
+        final ConfigurationReference<BasicConfigurationNode> ref = new ManualConfigurationReference<>(loader, Runnable::run);
+        final List<NodeDiff> diffs = new ArrayList<>();
+        ref.changes().subscribe(diffs::add);
+        ref.load();
+        assertEquals(Collections.emptyList(), diffs, "the initial load is not reported");
+
+        // a node of another type is copied into the existing node
+        ref.save(CommentedConfigurationNode.root(n -> {
+            n.node("a").raw(2);
+            n.node("b").raw("unchanged");
+        }));
+        assertEquals(1, diffs.size());
+        assertEquals(1, diffs.get(0).changes().size());
+        final NodeDiff.Change change = diffs.get(0).changes().get(0);
+        assertEquals(NodeDiff.Change.Kind.CHANGED, change.kind());
+        assertEquals(NodePath.path("a"), change.path());
+        assertEquals(1, change.oldValue());
+        assertEquals(2, change.newValue());
+    }
+
+    @Test
+    void testInvalidValueReportedOnce() throws ConfigurateException {
+        final TestConfigurationLoader loader = TestConfigurationLoader.builder()
+            .source(() -> new BufferedReader(new StringReader("")))
+            .sink(() -> new BufferedWriter(new StringWriter()))
+            .build();
+        loader.node(BasicConfigurationNode.root(n -> n.node("port").raw(25565)));
+        final ConfigurationReference<BasicConfigurationNode> ref = new ManualConfigurationReference<>(loader, Runnable::run);
+        ref.load();
+        final AtomicInteger errors = new AtomicInteger();
+        ref.errors().subscribe(error -> errors.incrementAndGet());
+        final ValueReference<Integer, BasicConfigurationNode> port = ref.referenceTo(Integer.class, NodePath.path("port"));
+
+        ref.node().node("port").raw("not a number");
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(25565, port.get());
+        }
+        assertEquals(1, errors.get());
+
+        ref.node().node("port").raw("still not a number");
+        port.get();
+        assertEquals(2, errors.get());
+
+        ref.node().node("port").raw(80);
+        assertEquals(80, port.get());
+        assertEquals(2, errors.get());
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate.reference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.spongepowered.configurate.BasicConfigurationNode;
+import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.loader.TestConfigurationLoader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WatchingConfigurationReferenceTest {
+
+    @Test
+    void testIdenticalReloadSkipped() throws ConfigurateException {
+        final TestConfigurationLoader loader = TestConfigurationLoader.builder()
+            .source(() -> new BufferedReader(new StringReader("")))
+            .sink(() -> new BufferedWriter(new StringWriter()))
+            .build();
+        loader.node(BasicConfigurationNode.root(n -> {
+            n.node("a").raw(1);
+            n.node("list").appendListNode().raw("b");
+        }));
+        final WatchingConfigurationReference<BasicConfigurationNode> ref = new WatchingConfigurationReference<>(loader, Runnable::run);
+        ref.load();
+        final BasicConfigurationNode initial = ref.node();
+        final AtomicInteger updates = new AtomicInteger();
+        ref.updates().subscribe(node -> updates.incrementAndGet());
+
+        ref.submit(modified());
+        assertEquals(0, updates.get());
+        assertSame(initial, ref.node());
+
+        loader.node().node("list").appendListNode().raw("c");
+        ref.submit(modified());
+        assertEquals(1, updates.get());
+        assertNotSame(initial, ref.node());
+        assertEquals(2, ref.node().node("list").childrenList().size());
+    }
+
+    @Test
+    void testReloadOfSameSnapshotNotRead() throws ConfigurateException {
+        final BasicConfigurationNode contents = BasicConfigurationNode.root(n -> {
+            n.node("a").raw(new CountedValue());
+            n.node("b", "c").raw(new CountedValue());
+        });
+        final TestConfigurationLoader loader = TestConfigurationLoader.builder()
+            .source(() -> new BufferedReader(new StringReader("")))
+            .sink(() -> new BufferedWriter(new StringWriter()))
+            .build();
+        loader.node(contents.snapshot());
+        final WatchingConfigurationReference<BasicConfigurationNode> ref = new WatchingConfigurationReference<>(loader, Runnable::run);
+        ref.load();
+        final ConfigurationNode initial = ref.node();
+        final AtomicInteger updates = new AtomicInteger();
+        ref.updates().subscribe(node -> updates.incrementAndGet());
+
+        // both loads take their children from the same snapshot, so neither is read
+        CountedValue.calls = 0;
+        ref.submit(modified());
+        assertEquals(0, updates.get());
+        assertSame(initial, ref.node());
+        assertEquals(0, CountedValue.calls);
+    }
+
+    private static WatchEvent<Path> modified() {
+        return new WatchEvent<Path>() {
+            @Override
+            public Kind<Path> kind() {
+                return StandardWatchEventKinds.ENTRY_MODIFY;
+            }
+
+            @Override
+            public int count() {
+                return 1;
+            }
+
+            @Override
+            public Path context() {
+                return Paths.get("test.conf");
+            }
+        };
+    }
+
+    /**
+     * A scalar value that counts how often it is hashed or compared.
+     */
+    static final class CountedValue {
+
+        static int calls;
+
+        @Override
+        public boolean equals(final Object other) {
+            calls++;
+            return other instanceof CountedValue;
+        }
+
+        @Override
+        public int hashCode() {
+            calls++;
+            return 1;
+        }
+
+    }
+
+}
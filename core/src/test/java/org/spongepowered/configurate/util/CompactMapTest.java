@@ -0,0 +1,128 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.spongepowered.configurate.BasicConfigurationNode;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.ConfigurationOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CompactMapTest {
+
+    @Test
+    void testPreservesInsertionOrder() {
+        final Map<String, Integer> map = MapFactories.compact().create();
+        map.put("c", 1);
+        map.put("a", 2);
+        map.put("b", 3);
+        map.put("a", 4);
+
+        assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(map.keySet()));
+        assertEquals(4, map.get("a"));
+        assertNull(map.get("d"));
+    }
+
+    @Test
+    void testPromotesPastThreshold() {
+        final Map<Integer, Integer> map = new CompactMap<>();
+        final Map<Integer, Integer> expected = new LinkedHashMap<>();
+        for (int i = CompactMap.THRESHOLD * 2; i > 0; --i) {
+            map.put(i, i * 2);
+            expected.put(i, i * 2);
+            assertEquals(expected, map);
+        }
+
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+        assertEquals(expected.hashCode(), map.hashCode());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        map.put(1, 1);
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testRemove() {
+        final Map<String, Integer> map = new CompactMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+
+        assertEquals(2, map.remove("b"));
+        assertNull(map.remove("b"));
+        assertEquals(Arrays.asList("a", "c"), new ArrayList<>(map.keySet()));
+        assertFalse(map.containsKey("b"));
+    }
+
+    @Test
+    void testIteratorRemove() {
+        final Map<String, Integer> map = new CompactMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+
+        for (final Iterator<Map.Entry<String, Integer>> it = map.entrySet().iterator(); it.hasNext();) {
+            if (it.next().getValue() % 2 == 1) {
+                it.remove();
+            }
+        }
+        assertEquals(Arrays.asList("b"), new ArrayList<>(map.keySet()));
+
+        final Iterator<String> it = map.keySet().iterator();
+        it.next();
+        map.put("d", 4);
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test
+    void testEntrySetValueWritesThrough() {
+        final Map<String, Integer> map = new CompactMap<>();
+        map.put("a", 1);
+        map.entrySet().iterator().next().setValue(5);
+
+        assertEquals(5, map.get("a"));
+    }
+
+    @Test
+    void testNodesWithCompactMaps() {
+        final ConfigurationNode node = BasicConfigurationNode.root(ConfigurationOptions.defaults().mapFactory(MapFactories.compact()), n -> {
+            for (int i = 0; i < CompactMap.THRESHOLD * 2; ++i) {
+                n.node("large", "key" + i).raw(i);
+            }
+            n.node("small", "key").raw("value");
+        });
+
+        assertEquals(CompactMap.THRESHOLD * 2, node.node("large").childrenMap().size());
+        assertEquals(3, node.node("large", "key3").getInt());
+        assertEquals("value", node.node("small", "key").getString());
+        assertEquals(node, node.copy());
+    }
+
+}
@@ -0,0 +1,12 @@
+import org.spongepowered.configurate.build.core
+
+plugins {
+    id("org.spongepowered.configurate.build.component")
+}
+
+description = "Memory-mapped binary snapshot format for Configurate"
+
+dependencies {
+    api(core())
+    testImplementation("com.google.guava:guava:latest.release")
+}
@@ -0,0 +1,297 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate.binary;
+
+import static java.util.Objects.requireNonNull;
+import static org.spongepowered.configurate.loader.ParsingException.UNKNOWN_POS;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.configurate.BasicConfigurationNode;
+import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.ConfigurationOptions;
+import org.spongepowered.configurate.TreeBuilder;
+import org.spongepowered.configurate.loader.ConfigurationLoader;
+import org.spongepowered.configurate.loader.ParsingException;
+import org.spongepowered.configurate.reference.ConfigurationReference;
+import org.spongepowered.configurate.util.UnmodifiableCollections;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.UnaryOperator;
+
+/**
+ * A loader for configurations stored as {@link BinarySnapshot binary
+ * snapshots}.
+ *
+ * <p>Snapshots are meant to be generated ahead of time from configurations
+ * in a text format, and loaded at startup without any parsing. Loading
+ * backs a node with a memory-mapped snapshot, so a snapshot can be used
+ * wherever another loader could, including with a
+ * {@link ConfigurationReference}. The children of each map and list are
+ * only read from the snapshot once they are first accessed, so corruption
+ * in the snapshot may be reported as an
+ * {@link java.io.UncheckedIOException} at that point rather than by
+ * {@link #load(ConfigurationOptions)}. Use {@link #snapshot()} to read a
+ * snapshot in place instead.</p>
+ *
+ * <p>Snapshots do not store comments or headers, and all map keys are
+ * stored as strings.</p>
+ *
+ * @since 4.1.0
+ */
+public final class BinaryConfigurationLoader implements ConfigurationLoader<BasicConfigurationNode> {
+
+    private static final Set<Class<?>> NATIVE_TYPES = UnmodifiableCollections.toSet(
+            Double.class, Float.class, Long.class, Integer.class, Boolean.class, String.class);
+
+    /**
+     * Creates a new {@link BinaryConfigurationLoader} builder.
+     *
+     * @return a new builder
+     * @since 4.1.0
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builds a {@link BinaryConfigurationLoader}.
+     *
+     * <p>Snapshots can only be read from files, so there is no equivalent
+     * to the source and sink options of text-based loaders.</p>
+     *
+     * @since 4.1.0
+     */
+    public static final class Builder {
+        private @Nullable Path path;
+        private ConfigurationOptions defaultOptions = ConfigurationOptions.defaults();
+
+        Builder() { }
+
+        /**
+         * Sets the file the resultant loader should read from and write to.
+         *
+         * @param file the snapshot file
+         * @return this builder (for chaining)
+         * @since 4.1.0
+         */
+        public Builder file(final File file) {
+            return this.path(requireNonNull(file, "file").toPath());
+        }
+
+        /**
+         * Sets the path the resultant loader should read from and write to.
+         *
+         * @param path the snapshot path
+         * @return this builder (for chaining)
+         * @since 4.1.0
+         */
+        public Builder path(final Path path) {
+            this.path = requireNonNull(path, "path").toAbsolutePath();
+            return this;
+        }
+
+        /**
+         * Gets the path the resultant loader will read from and write to.
+         *
+         * @return the snapshot path, if any
+         * @since 4.1.0
+         */
+        public @Nullable Path path() {
+            return this.path;
+        }
+
+        /**
+         * Sets the default configuration options to be used by the
+         * resultant loader.
+         *
+         * @param defaultOptions the options
+         * @return this builder (for chaining)
+         * @since 4.1.0
+         */
+        public Builder defaultOptions(final ConfigurationOptions defaultOptions) {
+            this.defaultOptions = requireNonNull(defaultOptions, "defaultOptions");
+            return this;
+        }
+
+        /**
+         * Sets the default configuration options to be used by the resultant
+         * loader by providing a function which takes the current default
+         * options and applies any desired changes.
+         *
+         * @param defaultOptions to transform the existing default options
+         * @return this builder (for chaining)
+         * @since 4.1.0
+         */
+        public Builder defaultOptions(final UnaryOperator<ConfigurationOptions> defaultOptions) {
+            this.defaultOptions = requireNonNull(defaultOptions.apply(this.defaultOptions), "defaultOptions (updated)");
+            return this;
+        }
+
+        /**
+         * Gets the default configuration options to be used by the
+         * resultant loader.
+         *
+         * @return the options
+         * @since 4.1.0
+         */
+        public ConfigurationOptions defaultOptions() {
+            return this.defaultOptions;
+        }
+
+        /**
+         * Builds the loader.
+         *
+         * @return a new loader
+         * @since 4.1.0
+         */
+        public BinaryConfigurationLoader build() {
+            this.defaultOptions(o -> o.nativeTypes(NATIVE_TYPES));
+            return new BinaryConfigurationLoader(this);
+        }
+    }
+
+    private final @Nullable Path path;
+    private final ConfigurationOptions defaultOptions;
+
+    private BinaryConfigurationLoader(final Builder builder) {
+        this.path = builder.path();
+        this.defaultOptions = builder.defaultOptions();
+    }
+
+    /**
+     * Open the snapshot this loader reads from, to read it in place.
+     *
+     * @return the snapshot
+     * @throws ConfigurateException if no path is set, or the snapshot
+     *     could not be read
+     * @since 4.1.0
+     */
+    public BinarySnapshot snapshot() throws ConfigurateException {
+        final Path path = this.requirePath();
+        try {
+            return BinarySnapshot.open(path);
+        } catch (final IOException ex) {
+            throw new ParsingException(UNKNOWN_POS, UNKNOWN_POS, null, null, ex);
+        }
+    }
+
+    @Override
+    public BasicConfigurationNode load(final ConfigurationOptions options) throws ParsingException {
+        final Path path = this.requirePath();
+        final BinarySnapshot snapshot;
+        try {
+            snapshot = BinarySnapshot.open(path);
+        } catch (final NoSuchFileException ex) {
+            // Squash -- there's nothing to read
+            return this.createNode(options);
+        } catch (final IOException ex) {
+            throw new ParsingException(UNKNOWN_POS, UNKNOWN_POS, null, null, ex);
+        }
+        final TreeBuilder<BasicConfigurationNode> builder = TreeBuilder.into(this.createNode(options));
+        build(snapshot.root(), builder);
+        return builder.finish();
+    }
+
+    /**
+     * Set the value at the builder's position to that of a snapshot node.
+     *
+     * <p>The children of maps and lists are deferred, so they are only read
+     * from the snapshot once they are accessed.</p>
+     *
+     * @param source the snapshot node
+     * @param builder the builder to write to
+     */
+    private static void build(final MappedNode source, final TreeBuilder<BasicConfigurationNode> builder) {
+        if (source.isMap()) {
+            builder.deferredMap(source.childCount(), entries -> source.forEachChild((key, child) -> build(child, entries.key(key))));
+        } else if (source.isList()) {
+            builder.deferredList(source.childCount(), elements -> source.forEachChild((key, child) -> build(child, elements)));
+        } else {
+            builder.scalar(source.rawScalar());
+        }
+    }
+
+    @Override
+    public ConfigurationReference<BasicConfigurationNode> loadToReference() throws ConfigurateException {
+        return ConfigurationReference.fixed(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The snapshot is written to a temporary file which then replaces
+     * the target file, so mapped copies of the previous snapshot remain
+     * readable.</p>
+     */
+    @Override
+    public void save(final ConfigurationNode node) throws ConfigurateException {
+        final Path path = this.requirePath();
+        try {
+            final ByteBuffer snapshot = SnapshotWriter.encode(node);
+            final Path temporary = path.resolveSibling(System.nanoTime() + ThreadLocalRandom.current().nextInt()
+                    + path.getFileName().toString() + ".tmp");
+            Files.createDirectories(path.getParent());
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                while (snapshot.hasRemaining()) {
+                    channel.write(snapshot);
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException ex) {
+            throw new ConfigurateException(node, ex);
+        }
+    }
+
+    private Path requirePath() throws ParsingException {
+        if (this.path == null) {
+            throw new ParsingException(UNKNOWN_POS, UNKNOWN_POS, "", "No path present to read from or write to!", null);
+        }
+        return this.path;
+    }
+
+    @Override
+    public BasicConfigurationNode createNode(final ConfigurationOptions options) {
+        return BasicConfigurationNode.root(options);
+    }
+
+    @Override
+    public ConfigurationOptions defaultOptions() {
+        return this.defaultOptions;
+    }
+
+    @Override
+    public boolean canLoad() {
+        return this.path != null;
+    }
+
+    @Override
+    public boolean canSave() {
+        return this.path != null;
+    }
+
+}
@@ -0,0 +1,291 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate.binary;
+
+import static java.util.Objects.requireNonNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.configurate.ConfigurationNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only configuration tree stored in the binary snapshot format.
+ *
+ * <p>Snapshots are read in place: navigating a snapshot reads the
+ * underlying buffer directly, without creating configuration nodes for
+ * the parts of the tree that are never visited. When a snapshot is
+ * {@link #open(Path) opened} from a file, the file is memory-mapped, so
+ * processes reading the same snapshot share its pages.</p>
+ *
+ * <p>Only the header and root value of a snapshot are checked when it is
+ * opened, so opening a large snapshot does not read all of it. Every other
+ * value and string is checked when it is first reached, and corruption
+ * found while reading is reported with an {@link UncheckedIOException}.
+ * These checks keep every read within the snapshot, but an offset that
+ * points into the middle of another value is read as whatever that value
+ * happens to hold.</p>
+ *
+ * <p>Snapshots are safe to read from any number of threads.</p>
+ *
+ * @since 4.1.0
+ */
+public final class BinarySnapshot {
+
+    private final ByteBuffer buffer;
+    private final @Nullable String[] strings;
+    private final int stringsOffset;
+    private final MappedNode root;
+
+    /**
+     * Open the snapshot stored in a file, by mapping the file into memory.
+     *
+     * <p>The mapping remains valid if the file is replaced, as
+     * {@link BinaryConfigurationLoader} does when saving.</p>
+     *
+     * @param file the snapshot file
+     * @return the snapshot
+     * @throws IOException if the file cannot be read, or is not a valid
+     *     snapshot
+     * @since 4.1.0
+     */
+    public static BinarySnapshot open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(requireNonNull(file, "file"), StandardOpenOption.READ)) {
+            return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Read the snapshot stored in a buffer.
+     *
+     * <p>The contents of the buffer, from its current position, must not
+     * change while the snapshot is in use.</p>
+     *
+     * @param buffer the buffer holding the snapshot
+     * @return the snapshot
+     * @throws IOException if the buffer does not hold a valid snapshot
+     * @since 4.1.0
+     */
+    public static BinarySnapshot wrap(final ByteBuffer buffer) throws IOException {
+        return new BinarySnapshot(requireNonNull(buffer, "buffer").slice().asReadOnlyBuffer());
+    }
+
+    /**
+     * Create a snapshot of the tree starting at the provided node, held
+     * in memory.
+     *
+     * @param node the root node
+     * @return the snapshot
+     * @throws IOException if the tree is too large to be stored
+     * @since 4.1.0
+     */
+    public static BinarySnapshot of(final ConfigurationNode node) throws IOException {
+        return new BinarySnapshot(SnapshotWriter.encode(requireNonNull(node, "node")).asReadOnlyBuffer());
+    }
+
+    private BinarySnapshot(final ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < SnapshotFormat.HEADER_SIZE || buffer.getInt(0) != SnapshotFormat.MAGIC) {
+            throw new IOException("Not a binary configuration snapshot");
+        }
+        final int version = buffer.getInt(4);
+        if (version != SnapshotFormat.VERSION) {
+            throw new IOException("Unsupported binary snapshot version " + version);
+        }
+        this.buffer = buffer;
+        this.stringsOffset = buffer.getInt(SnapshotFormat.STRINGS_OFFSET);
+        this.strings = new String[checkStrings(buffer, this.stringsOffset)];
+        this.root = new MappedNode(this, null, this.checkValue(buffer.getInt(SnapshotFormat.ROOT_OFFSET), this.stringsOffset));
+    }
+
+    /**
+     * Check that the string table header lies within the buffer.
+     *
+     * @param buffer the snapshot buffer
+     * @param offset the offset of the string table
+     * @return the number of strings
+     * @throws IOException if the table is truncated or corrupt
+     */
+    private static int checkStrings(final ByteBuffer buffer, final int offset) throws IOException {
+        final int limit = buffer.limit();
+        if (offset < SnapshotFormat.HEADER_SIZE || offset > limit - Integer.BYTES) {
+            throw corrupt("string table offset " + offset + " is out of bounds");
+        }
+        final int count = buffer.getInt(offset);
+        // each string needs an offset and a length
+        if (count < 0 || count > (limit - offset - Integer.BYTES) / (2 * Integer.BYTES)) {
+            throw corrupt("string count " + count + " does not fit in the snapshot");
+        }
+        return count;
+    }
+
+    /**
+     * Check the value at an offset, without checking its children.
+     *
+     * <p>Values are stored between the header and the string table, with
+     * children before their parents. Requiring each value to end before
+     * the value that refers to it therefore also rules out cycles.</p>
+     *
+     * @param offset the offset of the value
+     * @param end the offset the value must end before
+     * @return the offset
+     * @throws IOException if the value is truncated or corrupt
+     */
+    private int checkValue(final int offset, final int end) throws IOException {
+        if (offset < SnapshotFormat.HEADER_SIZE || offset >= end) {
+            throw corrupt("offset " + offset + " does not point to a value");
+        }
+        final byte tag = this.buffer.get(offset);
+        final int size;
+        switch (tag) {
+            case SnapshotFormat.NULL:
+            case SnapshotFormat.FALSE:
+            case SnapshotFormat.TRUE:
+                size = 1;
+                break;
+            case SnapshotFormat.INT:
+            case SnapshotFormat.FLOAT:
+            case SnapshotFormat.STRING:
+                size = 1 + Integer.BYTES;
+                break;
+            case SnapshotFormat.LONG:
+            case SnapshotFormat.DOUBLE:
+                size = 1 + Long.BYTES;
+                break;
+            case SnapshotFormat.LIST:
+                size = SnapshotFormat.CHILDREN + Integer.BYTES * this.childCount(offset, 1, end);
+                break;
+            case SnapshotFormat.MAP:
+                // a key and value for each entry, then the sorted entry order
+                size = SnapshotFormat.CHILDREN + 3 * Integer.BYTES * this.childCount(offset, 3, end);
+                break;
+            default:
+                throw corrupt("unknown value type " + tag + " at " + offset);
+        }
+        if (size > end - offset) {
+            throw corrupt("value at " + offset + " is truncated");
+        }
+        return offset;
+    }
+
+    private int childCount(final int offset, final int ints, final int end) throws IOException {
+        if (SnapshotFormat.CHILDREN > end - offset) {
+            throw corrupt("value at " + offset + " is truncated");
+        }
+        final int count = this.buffer.getInt(offset + 1);
+        if (count < 0 || count > (end - offset - SnapshotFormat.CHILDREN) / (Integer.BYTES * ints)) {
+            throw corrupt("value at " + offset + " has an invalid child count " + count);
+        }
+        return count;
+    }
+
+    private static IOException corrupt(final String message) {
+        return new IOException("Corrupt binary snapshot: " + message);
+    }
+
+    /**
+     * Create an exception for corruption found while reading a snapshot.
+     *
+     * @param message the problem found
+     * @return a new exception
+     */
+    static UncheckedIOException corruptValue(final String message) {
+        return new UncheckedIOException(corrupt(message));
+    }
+
+    /**
+     * Get the root node of this snapshot.
+     *
+     * @return the root node
+     * @since 4.1.0
+     */
+    public MappedNode root() {
+        return this.root;
+    }
+
+    /**
+     * Get the size of this snapshot in bytes.
+     *
+     * @return the snapshot size
+     * @since 4.1.0
+     */
+    public int size() {
+        return this.buffer.limit();
+    }
+
+    ByteBuffer buffer() {
+        return this.buffer;
+    }
+
+    /**
+     * Get a child of the value at {@code parent}, after checking it.
+     *
+     * @param offset the offset of the child
+     * @param parent the offset of the value holding the child
+     * @return the offset of the child
+     * @throws UncheckedIOException if the child is truncated or corrupt
+     */
+    int child(final int offset, final int parent) {
+        try {
+            return this.checkValue(offset, parent);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Get a string from the string table.
+     *
+     * <p>Strings are checked and decoded the first time they are needed.
+     * Races only cause the same string to be decoded more than once.</p>
+     *
+     * @param index the string index
+     * @return the string
+     * @throws UncheckedIOException if the string is truncated or corrupt
+     */
+    String string(final int index) {
+        final @Nullable String[] strings = this.strings;
+        if (index < 0 || index >= strings.length) {
+            throw corruptValue("string index " + index + " is out of bounds");
+        }
+        @Nullable String ret = strings[index];
+        if (ret == null) {
+            final int limit = this.buffer.limit();
+            final int position = this.buffer.getInt(this.stringsOffset + Integer.BYTES * (index + 1));
+            if (position < this.stringsOffset + Integer.BYTES * (strings.length + 1) || position > limit - Integer.BYTES) {
+                throw corruptValue("string " + index + " is out of bounds");
+            }
+            final int length = this.buffer.getInt(position);
+            if (length < 0 || length > limit - position - Integer.BYTES) {
+                throw corruptValue("string " + index + " is truncated");
+            }
+            final byte[] bytes = new byte[length];
+            final ByteBuffer view = this.buffer.duplicate();
+            view.position(position + Integer.BYTES);
+            view.get(bytes);
+            ret = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = ret;
+        }
+        return ret;
+    }
+
+}
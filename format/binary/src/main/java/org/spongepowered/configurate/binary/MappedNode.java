@@ -0,0 +1,350 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate.binary;
+
+import static java.util.Objects.requireNonNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.NodePath;
+import org.spongepowered.configurate.serialize.Scalars;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.function.BiConsumer;
+
+/**
+ * A read-only view of a single node in a {@link BinarySnapshot}.
+ *
+ * <p>Views are cheap to create, and reading one only touches the part of
+ * the snapshot holding that node. Keys of map nodes are always strings,
+ * and keys of list nodes are their indices.</p>
+ *
+ * <p>Navigating to a node that is not present in the snapshot returns a
+ * {@link #virtual() virtual} node, which has no value and no children.</p>
+ *
+ * <p>Each child is checked as it is reached, so reading a corrupt part of a
+ * snapshot throws an {@link java.io.UncheckedIOException}.</p>
+ *
+ * @since 4.1.0
+ */
+public final class MappedNode {
+
+    private static final int VIRTUAL = -1;
+
+    private final BinarySnapshot snapshot;
+    private final @Nullable Object key;
+    private final int offset;
+
+    MappedNode(final BinarySnapshot snapshot, final @Nullable Object key, final int offset) {
+        this.snapshot = snapshot;
+        this.key = key;
+        this.offset = offset;
+    }
+
+    /**
+     * Get the key of this node in its parent.
+     *
+     * @return the key, or {@code null} for the root node
+     * @since 4.1.0
+     */
+    public @Nullable Object key() {
+        return this.key;
+    }
+
+    /**
+     * Get whether this node is absent from the snapshot.
+     *
+     * @return whether this node is virtual
+     * @since 4.1.0
+     */
+    public boolean virtual() {
+        return this.offset == VIRTUAL;
+    }
+
+    /**
+     * Get whether this node has children stored by key.
+     *
+     * @return whether this node is a map
+     * @since 4.1.0
+     */
+    public boolean isMap() {
+        return this.tag() == SnapshotFormat.MAP;
+    }
+
+    /**
+     * Get whether this node has children stored by index.
+     *
+     * @return whether this node is a list
+     * @since 4.1.0
+     */
+    public boolean isList() {
+        return this.tag() == SnapshotFormat.LIST;
+    }
+
+    /**
+     * Get whether this node has no value.
+     *
+     * @return whether this node is null
+     * @since 4.1.0
+     */
+    public boolean isNull() {
+        return this.tag() == SnapshotFormat.NULL;
+    }
+
+    /**
+     * Get the number of children of this node.
+     *
+     * @return the number of children, or zero for scalar nodes
+     * @since 4.1.0
+     */
+    public int childCount() {
+        return this.isMap() || this.isList() ? this.buffer().getInt(this.offset + 1) : 0;
+    }
+
+    /**
+     * Get the node at the provided path, relative to this node.
+     *
+     * <p>Map children are found by binary search, and list children
+     * directly by their index.</p>
+     *
+     * @param path the path to the node
+     * @return the node at the path, which may be virtual
+     * @since 4.1.0
+     */
+    public MappedNode node(final Object... path) {
+        MappedNode ret = this;
+        for (final Object child : path) {
+            ret = ret.child(requireNonNull(child, "child"));
+        }
+        return ret;
+    }
+
+    /**
+     * Get the node at the provided path, relative to this node.
+     *
+     * @param path the path to the node
+     * @return the node at the path, which may be virtual
+     * @see #node(Object...)
+     * @since 4.1.0
+     */
+    public MappedNode node(final NodePath path) {
+        MappedNode ret = this;
+        for (final Object child : path) {
+            ret = ret.child(child);
+        }
+        return ret;
+    }
+
+    private MappedNode child(final Object key) {
+        final ByteBuffer buffer = this.buffer();
+        final byte tag = this.tag();
+        if (tag == SnapshotFormat.LIST) {
+            final int index;
+            if (key instanceof Integer) {
+                index = (Integer) key;
+            } else {
+                final @Nullable Integer parsed = Scalars.INTEGER.tryDeserialize(key);
+                index = parsed == null ? -1 : parsed;
+            }
+            if (index >= 0 && index < this.childCount()) {
+                return new MappedNode(this.snapshot, index, this.childAt(SnapshotFormat.CHILDREN + Integer.BYTES * index));
+            }
+        } else if (tag == SnapshotFormat.MAP) {
+            final String name = key.toString();
+            final int count = this.childCount();
+            final int entries = this.offset + SnapshotFormat.CHILDREN;
+            final int sorted = entries + 2 * Integer.BYTES * count;
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int index = buffer.getInt(sorted + Integer.BYTES * middle);
+                if (index < 0 || index >= count) {
+                    throw BinarySnapshot.corruptValue("map at " + this.offset + " has an invalid sorted entry " + index);
+                }
+                final int entry = entries + 2 * Integer.BYTES * index;
+                final String candidate = this.snapshot.string(buffer.getInt(entry));
+                final int compare = candidate.compareTo(name);
+                if (compare < 0) {
+                    low = middle + 1;
+                } else if (compare > 0) {
+                    high = middle - 1;
+                } else {
+                    return new MappedNode(this.snapshot, candidate, this.childAt(entry - this.offset + Integer.BYTES));
+                }
+            }
+        }
+        return new MappedNode(this.snapshot, key, VIRTUAL);
+    }
+
+    /**
+     * Perform an action for each child of this node, in order.
+     *
+     * @param action the action to perform
+     * @since 4.1.0
+     */
+    public void forEachChild(final BiConsumer<Object, MappedNode> action) {
+        final ByteBuffer buffer = this.buffer();
+        final byte tag = this.tag();
+        final int count = this.childCount();
+        if (tag == SnapshotFormat.LIST) {
+            for (int i = 0; i < count; ++i) {
+                action.accept(i, new MappedNode(this.snapshot, i, this.childAt(SnapshotFormat.CHILDREN + Integer.BYTES * i)));
+            }
+        } else if (tag == SnapshotFormat.MAP) {
+            for (int i = 0; i < count; ++i) {
+                final int entry = SnapshotFormat.CHILDREN + 2 * Integer.BYTES * i;
+                final String key = this.snapshot.string(buffer.getInt(this.offset + entry));
+                action.accept(key, new MappedNode(this.snapshot, key, this.childAt(entry + Integer.BYTES)));
+            }
+        }
+    }
+
+    /**
+     * Get the scalar value of this node.
+     *
+     * @return the value, or {@code null} for maps, lists and null nodes
+     * @since 4.1.0
+     */
+    public @Nullable Object rawScalar() {
+        final ByteBuffer buffer = this.buffer();
+        switch (this.tag()) {
+            case SnapshotFormat.FALSE: return false;
+            case SnapshotFormat.TRUE: return true;
+            case SnapshotFormat.INT: return buffer.getInt(this.offset + 1);
+            case SnapshotFormat.LONG: return buffer.getLong(this.offset + 1);
+            case SnapshotFormat.FLOAT: return buffer.getFloat(this.offset + 1);
+            case SnapshotFormat.DOUBLE: return buffer.getDouble(this.offset + 1);
+            case SnapshotFormat.STRING: return this.snapshot.string(buffer.getInt(this.offset + 1));
+            default: return null;
+        }
+    }
+
+    /**
+     * Get the value of this node as a string.
+     *
+     * @return the value, or {@code null} if this node has no value
+     * @since 4.1.0
+     */
+    public @Nullable String getString() { // @cs-: NoGetSetPrefix (not a bean method)
+        return Scalars.STRING.tryDeserialize(this.rawScalar());
+    }
+
+    /**
+     * Get the value of this node as a string.
+     *
+     * @param def the value to return if this node has no value
+     * @return the value, or {@code def}
+     * @since 4.1.0
+     */
+    public String getString(final String def) { // @cs-: NoGetSetPrefix (not a bean method)
+        final @Nullable String ret = this.getString();
+        return ret == null ? def : ret;
+    }
+
+    /**
+     * Get the value of this node as an int.
+     *
+     * @param def the value to return if this node has no value, or its
+     *     value is not a number
+     * @return the value, or {@code def}
+     * @since 4.1.0
+     */
+    public int getInt(final int def) { // @cs-: NoGetSetPrefix (not a bean method)
+        final @Nullable Integer ret = Scalars.INTEGER.tryDeserialize(this.rawScalar());
+        return ret == null ? def : ret;
+    }
+
+    /**
+     * Get the value of this node as a long.
+     *
+     * @param def the value to return if this node has no value, or its
+     *     value is not a number
+     * @return the value, or {@code def}
+     * @since 4.1.0
+     */
+    public long getLong(final long def) { // @cs-: NoGetSetPrefix (not a bean method)
+        final @Nullable Long ret = Scalars.LONG.tryDeserialize(this.rawScalar());
+        return ret == null ? def : ret;
+    }
+
+    /**
+     * Get the value of this node as a double.
+     *
+     * @param def the value to return if this node has no value, or its
+     *     value is not a number
+     * @return the value, or {@code def}
+     * @since 4.1.0
+     */
+    public double getDouble(final double def) { // @cs-: NoGetSetPrefix (not a bean method)
+        final @Nullable Double ret = Scalars.DOUBLE.tryDeserialize(this.rawScalar());
+        return ret == null ? def : ret;
+    }
+
+    /**
+     * Get the value of this node as a boolean.
+     *
+     * @param def the value to return if this node has no value, or its
+     *     value is not a boolean
+     * @return the value, or {@code def}
+     * @since 4.1.0
+     */
+    public boolean getBoolean(final boolean def) { // @cs-: NoGetSetPrefix (not a bean method)
+        final @Nullable Boolean ret = Scalars.BOOLEAN.tryDeserialize(this.rawScalar());
+        return ret == null ? def : ret;
+    }
+
+    /**
+     * Copy the tree starting at this node into a configuration node,
+     * replacing its current value.
+     *
+     * @param target the node to copy into
+     * @since 4.1.0
+     */
+    public void copyTo(final ConfigurationNode target) {
+        if (this.isMap()) {
+            target.raw(Collections.emptyMap());
+            this.forEachChild((key, child) -> child.copyTo(target.node(key)));
+        } else if (this.isList()) {
+            target.raw(Collections.emptyList());
+            this.forEachChild((key, child) -> child.copyTo(target.appendListNode()));
+        } else {
+            target.raw(this.rawScalar());
+        }
+    }
+
+    /**
+     * Read and check the offset of a child of this node.
+     *
+     * @param position the position of the child offset, relative to this
+     *     node
+     * @return the offset of the child
+     */
+    private int childAt(final int position) {
+        return this.snapshot.child(this.buffer().getInt(this.offset + position), this.offset);
+    }
+
+    private byte tag() {
+        return this.offset == VIRTUAL ? SnapshotFormat.NULL : this.buffer().get(this.offset);
+    }
+
+    private ByteBuffer buffer() {
+        return this.snapshot.buffer();
+    }
+
+}
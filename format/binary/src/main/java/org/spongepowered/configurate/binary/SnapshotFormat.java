@@ -0,0 +1,66 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate.binary;
+
+/**
+ * Constants describing the layout of a binary snapshot.
+ *
+ * <p>All values are big-endian. A snapshot starts with a header holding
+ * {@link #MAGIC}, {@link #VERSION}, the offset of the root value and the
+ * offset of the string table. Values are written before their parents, and
+ * each value starts with a tag byte:</p>
+ *
+ * <ul>
+ *     <li>{@link #NULL}, {@link #FALSE} and {@link #TRUE} have no body</li>
+ *     <li>{@link #INT}, {@link #LONG}, {@link #FLOAT} and {@link #DOUBLE}
+ *     are followed by the number itself</li>
+ *     <li>{@link #STRING} is followed by an index into the string table</li>
+ *     <li>{@link #LIST} is followed by the element count, then the offset of
+ *     each element</li>
+ *     <li>{@link #MAP} is followed by the entry count, then a key index and
+ *     value offset for each entry in order, then the position of each entry
+ *     when sorted by key, used for binary searches</li>
+ * </ul>
+ *
+ * <p>The string table holds the number of strings, the offset of each
+ * string, and then each string as a byte length followed by its UTF-8
+ * bytes.</p>
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x43464742; // CFGB
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int ROOT_OFFSET = 8;
+    static final int STRINGS_OFFSET = 12;
+    static final int CHILDREN = 5; // after the tag and count of a list or map
+
+    static final byte NULL = 0;
+    static final byte FALSE = 1;
+    static final byte TRUE = 2;
+    static final byte INT = 3;
+    static final byte LONG = 4;
+    static final byte FLOAT = 5;
+    static final byte DOUBLE = 6;
+    static final byte STRING = 7;
+    static final byte LIST = 8;
+    static final byte MAP = 9;
+
+    private SnapshotFormat() {
+    }
+
+}
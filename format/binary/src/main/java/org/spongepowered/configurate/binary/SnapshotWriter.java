@@ -0,0 +1,180 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate.binary;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.configurate.ConfigurationNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes a configuration tree into the snapshot layout described by
+ * {@link SnapshotFormat}.
+ *
+ * <p>Each string is only stored once, no matter how many keys and values
+ * use it.</p>
+ */
+final class SnapshotWriter {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(this.bytes);
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    private SnapshotWriter() {
+    }
+
+    /**
+     * Encode the tree starting at {@code node}.
+     *
+     * @param node the root node
+     * @return a buffer holding the snapshot
+     * @throws IOException if the snapshot would be larger than 2 GiB
+     */
+    static ByteBuffer encode(final ConfigurationNode node) throws IOException {
+        final SnapshotWriter writer = new SnapshotWriter();
+        writer.out.writeInt(SnapshotFormat.MAGIC);
+        writer.out.writeInt(SnapshotFormat.VERSION);
+        writer.out.writeLong(0); // root and string table offsets, filled in below
+        final int root = writer.write(node);
+        final int strings = writer.writeStrings();
+        writer.out.flush();
+
+        final ByteBuffer ret = ByteBuffer.wrap(writer.bytes.toByteArray());
+        ret.putInt(SnapshotFormat.ROOT_OFFSET, root);
+        ret.putInt(SnapshotFormat.STRINGS_OFFSET, strings);
+        return ret;
+    }
+
+    private int write(final ConfigurationNode node) throws IOException {
+        if (node.isMap()) {
+            return this.writeMap(node);
+        } else if (node.isList()) {
+            return this.writeList(node);
+        }
+
+        final int offset = this.offset();
+        final @Nullable Object value = node.rawScalar();
+        if (value == null) {
+            this.out.writeByte(SnapshotFormat.NULL);
+        } else if (value instanceof Boolean) {
+            this.out.writeByte((Boolean) value ? SnapshotFormat.TRUE : SnapshotFormat.FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            this.out.writeByte(SnapshotFormat.INT);
+            this.out.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            this.out.writeByte(SnapshotFormat.LONG);
+            this.out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            this.out.writeByte(SnapshotFormat.FLOAT);
+            this.out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            this.out.writeByte(SnapshotFormat.DOUBLE);
+            this.out.writeDouble((Double) value);
+        } else {
+            this.out.writeByte(SnapshotFormat.STRING);
+            this.out.writeInt(this.string(value.toString()));
+        }
+        return offset;
+    }
+
+    private int writeList(final ConfigurationNode node) throws IOException {
+        final List<? extends ConfigurationNode> elements = node.childrenList();
+        final int[] children = new int[elements.size()];
+        for (int i = 0; i < children.length; ++i) {
+            children[i] = this.write(elements.get(i));
+        }
+
+        final int offset = this.offset();
+        this.out.writeByte(SnapshotFormat.LIST);
+        this.out.writeInt(children.length);
+        for (final int child : children) {
+            this.out.writeInt(child);
+        }
+        return offset;
+    }
+
+    private int writeMap(final ConfigurationNode node) throws IOException {
+        final List<String> keys = new ArrayList<>(node.childCount());
+        final List<Integer> children = new ArrayList<>(node.childCount());
+        for (final Map.Entry<Object, ? extends ConfigurationNode> entry : node.childrenMap().entrySet()) {
+            keys.add(String.valueOf(entry.getKey()));
+            children.add(this.write(entry.getValue()));
+        }
+
+        final Integer[] sorted = new Integer[keys.size()];
+        for (int i = 0; i < sorted.length; ++i) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, Comparator.comparing(keys::get));
+
+        final int offset = this.offset();
+        this.out.writeByte(SnapshotFormat.MAP);
+        this.out.writeInt(keys.size());
+        for (int i = 0; i < keys.size(); ++i) {
+            this.out.writeInt(this.string(keys.get(i)));
+            this.out.writeInt(children.get(i));
+        }
+        for (final int position : sorted) {
+            this.out.writeInt(position);
+        }
+        return offset;
+    }
+
+    private int writeStrings() throws IOException {
+        final int offset = this.offset();
+        this.out.writeInt(this.strings.size());
+        int position = offset + Integer.BYTES * (this.strings.size() + 1);
+        final byte[][] encoded = new byte[this.strings.size()][];
+        for (int i = 0; i < encoded.length; ++i) {
+            encoded[i] = this.strings.get(i).getBytes(StandardCharsets.UTF_8);
+            this.out.writeInt(position);
+            position += Integer.BYTES + encoded[i].length;
+        }
+        for (final byte[] string : encoded) {
+            this.out.writeInt(string.length);
+            this.out.write(string);
+        }
+        return offset;
+    }
+
+    private int string(final String value) {
+        return this.stringIds.computeIfAbsent(value, v -> {
+            this.strings.add(v);
+            return this.strings.size() - 1;
+        });
+    }
+
+    private int offset() throws IOException {
+        final int size = this.out.size();
+        if (size == Integer.MAX_VALUE) { // the counter stops at 2 GiB
+            throw new IOException("Configuration is too large for a binary snapshot");
+        }
+        return size;
+    }
+
+}
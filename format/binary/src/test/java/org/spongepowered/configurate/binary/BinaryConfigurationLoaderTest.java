@@ -0,0 +1,243 @@
+/*
+ * Configurate
+ * Copyright (C) zml and Configurate contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.spongepowered.configurate.binary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.spongepowered.configurate.BasicConfigurationNode;
+import org.spongepowered.configurate.ConfigurateException;
+import org.spongepowered.configurate.ConfigurationNode;
+import org.spongepowered.configurate.NodePath;
+import org.spongepowered.configurate.loader.ParsingException;
+import org.spongepowered.configurate.reference.ConfigurationReference;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class BinaryConfigurationLoaderTest {
+
+    private static ConfigurationNode createTree() throws ConfigurateException {
+        final ConfigurationNode node = BasicConfigurationNode.root();
+        node.node("server", "port").set(25565);
+        node.node("server", "motd").set("Hello, world ☃");
+        node.node("server", "ratio").set(0.75d);
+        node.node("server", "online").set(true);
+        node.node("server", "seed").set(Long.MAX_VALUE);
+        node.node("worlds").set(Arrays.asList("overworld", "nether", "the_end"));
+        node.node("empty-list").raw(Collections.emptyList());
+        node.node("empty-map").raw(Collections.emptyMap());
+        node.node("nothing").raw(null);
+        return node;
+    }
+
+    @Test
+    void testRoundTrip(final @TempDir Path tempDir) throws ConfigurateException {
+        final BinaryConfigurationLoader loader = BinaryConfigurationLoader.builder()
+                .path(tempDir.resolve("config.bin"))
+                .build();
+        final ConfigurationNode original = createTree();
+        loader.save(original);
+
+        final ConfigurationNode loaded = loader.load();
+        assertEquals(original, loaded);
+        assertTrue(loaded.node("empty-list").isList());
+        assertTrue(loaded.node("empty-map").isMap());
+        assertEquals(Long.MAX_VALUE, loaded.node("server", "seed").raw());
+    }
+
+    @Test
+    void testMissingFileIsEmpty(final @TempDir Path tempDir) throws ConfigurateException {
+        final BinaryConfigurationLoader loader = BinaryConfigurationLoader.builder()
+                .path(tempDir.resolve("missing.bin"))
+                .build();
+
+        assertTrue(loader.load().empty());
+    }
+
+    @Test
+    void testReadInPlace() throws IOException {
+        final MappedNode root = BinarySnapshot.of(createTree()).root();
+
+        assertTrue(root.isMap());
+        assertEquals(25565, root.node("server", "port").getInt(0));
+        assertEquals("Hello, world ☃", root.node("server", "motd").getString());
+        assertEquals(0.75d, root.node("server", "ratio").getDouble(0));
+        assertTrue(root.node("server", "online").getBoolean(false));
+        assertEquals("nether", root.node(NodePath.path("worlds", 1)).rawScalar());
+        assertEquals(3, root.node("worlds").childCount());
+
+        final MappedNode missing = root.node("server", "whitelist");
+        assertTrue(missing.virtual());
+        assertNull(missing.rawScalar());
+        assertTrue(root.node("worlds", 3).virtual());
+        assertFalse(root.node("server").virtual());
+    }
+
+    @Test
+    void testMapChildrenInOrder() throws IOException {
+        final ConfigurationNode node = BasicConfigurationNode.root();
+        for (final String key : Arrays.asList("zeta", "alpha", "mu", "beta", "omega")) {
+            node.node(key).raw(key.length());
+        }
+        final MappedNode root = BinarySnapshot.of(node).root();
+
+        final StringBuilder keys = new StringBuilder();
+        root.forEachChild((key, child) -> keys.append(key).append(' '));
+        assertEquals("zeta alpha mu beta omega ", keys.toString());
+        for (final String key : Arrays.asList("zeta", "alpha", "mu", "beta", "omega")) {
+            assertEquals(key.length(), root.node(key).getInt(-1));
+        }
+    }
+
+    @Test
+    void testMappedFile(final @TempDir Path tempDir) throws IOException {
+        final Path file = tempDir.resolve("config.bin");
+        final BinaryConfigurationLoader loader = BinaryConfigurationLoader.builder().path(file).build();
+        loader.save(createTree());
+        final BinarySnapshot snapshot = loader.snapshot();
+
+        // The mapping stays valid when the file is replaced
+        final ConfigurationNode updated = createTree();
+        updated.node("server", "port").set(25566);
+        loader.save(updated);
+
+        assertEquals(25565, snapshot.root().node("server", "port").getInt(0));
+        assertEquals(25566, loader.snapshot().root().node("server", "port").getInt(0));
+    }
+
+    @Test
+    void testInvalidSnapshot() {
+        assertThrows(IOException.class, () -> BinarySnapshot.wrap(ByteBuffer.wrap(new byte[] {1, 2, 3, 4})));
+    }
+
+    @Test
+    void testCorruptSnapshot() throws IOException {
+        final ByteBuffer valid = BinarySnapshot.of(createTree()).buffer();
+        final byte[] bytes = new byte[valid.limit()];
+        valid.duplicate().get(bytes);
+        final int strings = valid.getInt(SnapshotFormat.STRINGS_OFFSET);
+
+        // header only, pointing past the end
+        final ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_SIZE).put(bytes, 0, SnapshotFormat.HEADER_SIZE);
+        header.putInt(SnapshotFormat.STRINGS_OFFSET, 1 << 20);
+        header.clear();
+        assertThrows(IOException.class, () -> BinarySnapshot.wrap(header));
+
+        for (int length = SnapshotFormat.HEADER_SIZE; length < bytes.length; ++length) {
+            assertCorrupt(ByteBuffer.wrap(Arrays.copyOf(bytes, length)));
+        }
+
+        final ByteBuffer hugeCount = ByteBuffer.wrap(bytes.clone()).putInt(strings, Integer.MAX_VALUE);
+        assertThrows(IOException.class, () -> BinarySnapshot.wrap(hugeCount));
+
+        final ByteBuffer badRoot = ByteBuffer.wrap(bytes.clone()).putInt(SnapshotFormat.ROOT_OFFSET, strings);
+        assertThrows(IOException.class, () -> BinarySnapshot.wrap(badRoot));
+
+        // the root is a map written last, so its first child offset sits just after its tag and count
+        final int root = valid.getInt(SnapshotFormat.ROOT_OFFSET);
+        final ByteBuffer badChild = ByteBuffer.wrap(bytes.clone()).putInt(root + SnapshotFormat.CHILDREN + Integer.BYTES, root);
+        final BinarySnapshot snapshot = BinarySnapshot.wrap(badChild);
+        assertThrows(UncheckedIOException.class, () -> snapshot.root().copyTo(BasicConfigurationNode.root()));
+    }
+
+    /**
+     * Assert that a snapshot is either rejected when opened, or fails once
+     * all of it has been read.
+     *
+     * @param buffer the snapshot buffer
+     */
+    private static void assertCorrupt(final ByteBuffer buffer) {
+        final BinarySnapshot snapshot;
+        try {
+            snapshot = BinarySnapshot.wrap(buffer);
+        } catch (final IOException ex) {
+            return;
+        }
+        assertThrows(UncheckedIOException.class, () -> snapshot.root().copyTo(BasicConfigurationNode.root()));
+    }
+
+    @Test
+    void testLoadIsLazy(final @TempDir Path tempDir) throws IOException {
+        final Path file = tempDir.resolve("config.bin");
+        final BinaryConfigurationLoader loader = BinaryConfigurationLoader.builder().path(file).build();
+        loader.save(createTree());
+
+        // corrupt the length of the motd string, which is only read with the server section
+        final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        final int strings = bytes.getInt(SnapshotFormat.STRINGS_OFFSET);
+        final byte[] motd = "Hello, world ☃".getBytes(StandardCharsets.UTF_8);
+        boolean found = false;
+        for (int i = 0; i < bytes.getInt(strings) && !found; ++i) {
+            final int position = bytes.getInt(strings + Integer.BYTES * (i + 1));
+            final byte[] string = new byte[bytes.getInt(position)];
+            ((ByteBuffer) bytes.duplicate().position(position + Integer.BYTES)).get(string);
+            if (Arrays.equals(motd, string)) {
+                bytes.putInt(position, Integer.MAX_VALUE);
+                found = true;
+            }
+        }
+        assertTrue(found);
+        Files.write(file, bytes.array());
+
+        final BasicConfigurationNode loaded = loader.load();
+        assertEquals(4, loaded.childrenMap().size());
+        assertEquals("overworld", loaded.node("worlds", 0).getString());
+        assertThrows(UncheckedIOException.class, () -> loaded.node("server", "port"));
+        // the section stays unread rather than partially loaded
+        assertThrows(UncheckedIOException.class, () -> loaded.node("server").childrenMap());
+    }
+
+    @Test
+    void testLoadCorruptFile(final @TempDir Path tempDir) throws IOException {
+        final Path file = tempDir.resolve("config.bin");
+        final BinaryConfigurationLoader loader = BinaryConfigurationLoader.builder().path(file).build();
+        loader.save(createTree());
+        final byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(ParsingException.class, loader::load);
+        assertThrows(ParsingException.class, loader::snapshot);
+    }
+
+    @Test
+    void testReference(final @TempDir Path tempDir) throws ConfigurateException {
+        final BinaryConfigurationLoader loader = BinaryConfigurationLoader.builder()
+                .path(tempDir.resolve("config.bin"))
+                .build();
+        loader.save(createTree());
+
+        try (ConfigurationReference<BasicConfigurationNode> reference = loader.loadToReference()) {
+            assertEquals("overworld", reference.get("worlds", 0).getString());
+            reference.node().node("server", "port").set(1);
+            reference.save();
+        }
+        assertEquals(1, loader.snapshot().root().node("server", "port").getInt(0));
+    }
+
+}
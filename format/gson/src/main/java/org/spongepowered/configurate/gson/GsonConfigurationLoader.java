@@ -27,6 +27,8 @@ import org.spongepowered.configurate.BasicConfigurationNode;
 import org.spongepowered.configurate.ConfigurateException;
 import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.ConfigurationOptions;
+import org.spongepowered.configurate.NodePath;
+import org.spongepowered.configurate.TreeBuilder;
 import org.spongepowered.configurate.loader.AbstractConfigurationLoader;
 import org.spongepowered.configurate.loader.CommentHandler;
 import org.spongepowered.configurate.loader.CommentHandlers;
@@ -37,7 +39,6 @@ import org.spongepowered.configurate.util.UnmodifiableCollections;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Writer;
-import java.util.Collections;
 import java.util.Set;
 
 /**
@@ -148,115 +149,117 @@ public final class GsonConfigurationLoader extends AbstractConfigurationLoader<B
             throw new ParsingException(node, 0, 0, null, "peeking file size", ex);
         }
 
+        final TreeBuilder<BasicConfigurationNode> builder = TreeBuilder.into(node);
         try (JsonReader parser = new JsonReader(reader)) {
             parser.setLenient(this.lenient);
-            parseValue(parser, node);
+            parseValue(parser, builder);
         } catch (final IOException ex) {
             throw ParsingException.wrap(node, ex);
         }
+        builder.finish();
     }
 
-    private void parseValue(final JsonReader parser, final BasicConfigurationNode node) throws ParsingException {
+    private void parseValue(final JsonReader parser, final TreeBuilder<BasicConfigurationNode> builder) throws ParsingException {
         final JsonToken token;
         try {
             token = parser.peek();
         } catch (final IOException ex) {
-            throw newException(parser, node, ex.getMessage(), ex);
+            throw newException(parser, builder, ex.getMessage(), ex);
         }
 
         try {
             switch (token) {
                 case BEGIN_OBJECT:
-                    parseObject(parser, node);
+                    parseObject(parser, builder);
                     break;
                 case BEGIN_ARRAY:
-                    parseArray(parser, node);
+                    parseArray(parser, builder);
                     break;
                 case NUMBER:
-                    node.raw(readNumber(parser));
+                    readNumber(parser, builder);
                     break;
                 case STRING:
-                    node.raw(parser.nextString());
+                    builder.scalar(parser.nextString());
                     break;
                 case BOOLEAN:
-                    node.raw(parser.nextBoolean());
+                    builder.scalarBoolean(parser.nextBoolean());
                     break;
                 case NULL: // Ignored values
                     parser.nextNull();
-                    node.raw(null);
+                    builder.scalar(null);
                     break;
                 case NAME:
                     break;
                 default:
-                    throw newException(parser, node, "Unsupported token type: " + token, null);
+                    throw newException(parser, builder, "Unsupported token type: " + token, null);
             }
         } catch (final JsonParseException | MalformedJsonException ex) {
-            throw newException(parser, node, ex.getMessage(), ex.getCause());
+            throw newException(parser, builder, ex.getMessage(), ex.getCause());
         } catch (final ParsingException ex) {
-            ex.initPath(node::path);
+            final NodePath path = builder.path();
+            ex.initPath(() -> path);
             throw ex;
         } catch (final IOException ex) {
-            throw newException(parser, node, "An underlying exception occurred", ex);
+            throw newException(parser, builder, "An underlying exception occurred", ex);
         }
     }
 
-    private ParsingException newException(final JsonReader reader, final ConfigurationNode node, final @Nullable String message,
+    private ParsingException newException(final JsonReader reader, final TreeBuilder<?> builder, final @Nullable String message,
             final @Nullable Throwable cause) {
-        return new ParsingException(node, JsonReaderAccess.lineNumber(reader), JsonReaderAccess.column(reader), null, message, cause);
+        final ParsingException ret = new ParsingException(JsonReaderAccess.lineNumber(reader), JsonReaderAccess.column(reader), null,
+                message, cause);
+        final NodePath path = builder.path();
+        ret.initPath(() -> path);
+        return ret;
     }
 
-    private Number readNumber(final JsonReader reader) throws IOException {
+    private void readNumber(final JsonReader reader, final TreeBuilder<BasicConfigurationNode> builder) throws IOException {
         final String number = reader.nextString();
         if (number.contains(".")) {
-            return Double.parseDouble(number);
+            builder.scalarDouble(Double.parseDouble(number));
+            return;
         }
         final long nextLong = Long.parseLong(number);
         final int nextInt = (int) nextLong;
         if (nextInt == nextLong) {
-            return nextInt;
+            builder.scalarInt(nextInt);
+        } else {
+            builder.scalarLong(nextLong);
         }
-        return nextLong;
     }
 
-    private void parseArray(final JsonReader parser, final BasicConfigurationNode node) throws IOException {
+    private void parseArray(final JsonReader parser, final TreeBuilder<BasicConfigurationNode> builder) throws IOException {
         parser.beginArray();
+        builder.beginList();
 
-        boolean written = false;
         @Nullable JsonToken token;
         while ((token = parser.peek()) != null) {
             if (token == JsonToken.END_ARRAY) {
                 parser.endArray();
-                // ensure the type is preserved
-                if (!written) {
-                    node.raw(Collections.emptyList());
-                }
+                builder.end();
                 return;
             } else {
-                parseValue(parser, node.appendListNode());
-                written = true;
+                parseValue(parser, builder);
             }
         }
-        throw newException(parser, node, "Reached end of stream with unclosed array!", null);
+        throw newException(parser, builder, "Reached end of stream with unclosed array!", null);
     }
 
-    private void parseObject(final JsonReader parser, final BasicConfigurationNode node) throws ParsingException, IOException {
+    private void parseObject(final JsonReader parser, final TreeBuilder<BasicConfigurationNode> builder) throws ParsingException, IOException {
         parser.beginObject();
+        builder.beginMap();
 
-        boolean written = false;
         @Nullable JsonToken token;
         while ((token = parser.peek()) != null) {
             switch (token) {
                 case END_OBJECT:
                 case END_DOCUMENT:
                     parser.endObject();
-                    // ensure the type is preserved
-                    if (!written) {
-                        node.raw(Collections.emptyMap());
-                    }
+                    builder.end();
                     return;
                 case NAME:
-                    parseValue(parser, node.node(parser.nextName()));
-                    written = true;
+                    builder.key(parser.nextName());
+                    parseValue(parser, builder);
                     break;
                 default:
                     throw new JsonParseException("Received improper object value " + token);
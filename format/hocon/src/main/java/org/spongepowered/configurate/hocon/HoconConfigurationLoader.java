@@ -32,6 +32,7 @@ import org.spongepowered.configurate.CommentedConfigurationNodeIntermediary;
 import org.spongepowered.configurate.ConfigurateException;
 import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.ConfigurationOptions;
+import org.spongepowered.configurate.TreeBuilder;
 import org.spongepowered.configurate.loader.AbstractConfigurationLoader;
 import org.spongepowered.configurate.loader.CommentHandler;
 import org.spongepowered.configurate.loader.CommentHandlers;
@@ -45,7 +46,6 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -168,14 +168,20 @@ public final class HoconConfigurationLoader extends AbstractConfigurationLoader<
             throw new ParsingException(node, ex.origin().lineNumber(), 0, ex.origin().description(), null, ex);
         }
 
-        for (Map.Entry<String, ConfigValue> ent : hoconConfig.root().entrySet()) {
-            readConfigValue(ent.getValue(), node.node(ent.getKey()));
+        final ConfigObject root = hoconConfig.root();
+        if (root.isEmpty()) {
+            return;
         }
+        final TreeBuilder<CommentedConfigurationNode> builder = TreeBuilder.into(node).beginMap(root.size());
+        for (Map.Entry<String, ConfigValue> ent : root.entrySet()) {
+            readConfigValue(ent.getValue(), builder.key(ent.getKey()));
+        }
+        builder.end().finish();
     }
 
-    private static void readConfigValue(final ConfigValue value, final CommentedConfigurationNode node) {
+    private static void readConfigValue(final ConfigValue value, final TreeBuilder<CommentedConfigurationNode> builder) {
         if (!value.origin().comments().isEmpty()) {
-            node.comment(value.origin().comments().stream()
+            builder.node().comment(value.origin().comments().stream()
                     .map(input -> input.replace("\r", ""))
                     .collect(Collectors.joining("\n")));
         }
@@ -183,28 +189,25 @@ public final class HoconConfigurationLoader extends AbstractConfigurationLoader<
         switch (value.valueType()) {
             case OBJECT:
                 final ConfigObject object = (ConfigObject) value;
-                if (object.isEmpty()) {
-                    node.raw(Collections.emptyMap());
-                } else {
-                    for (Map.Entry<String, ConfigValue> ent : object.entrySet()) {
-                        readConfigValue(ent.getValue(), node.node(ent.getKey()));
-                    }
+                builder.beginMap(object.size());
+                for (Map.Entry<String, ConfigValue> ent : object.entrySet()) {
+                    readConfigValue(ent.getValue(), builder.key(ent.getKey()));
                 }
+                builder.end();
                 break;
             case LIST:
                 final ConfigList list = (ConfigList) value;
-                if (list.isEmpty()) {
-                    node.raw(Collections.emptyList());
-                } else {
-                    for (int i = 0; i < list.size(); ++i) {
-                        readConfigValue(list.get(i), node.node(i));
-                    }
+                builder.beginList(list.size());
+                for (final ConfigValue element : list) {
+                    readConfigValue(element, builder);
                 }
+                builder.end();
                 break;
             case NULL:
-                return;
+                builder.scalar(null);
+                break;
             default:
-                node.raw(value.unwrapped());
+                builder.scalar(value.unwrapped());
                 break;
         }
     }
@@ -213,7 +216,7 @@ public final class HoconConfigurationLoader extends AbstractConfigurationLoader<
     protected void saveInternal(final ConfigurationNode node, final Writer writer) throws ConfigurateException {
         try {
             if (!node.isMap()) {
-                if (node.virtual() || node.raw() == null) {
+                if (node.virtual() || node.rawView() == null) {
                     writer.write(SYSTEM_LINE_SEPARATOR);
                     return;
                 } else {
@@ -232,12 +235,10 @@ public final class HoconConfigurationLoader extends AbstractConfigurationLoader<
         ConfigValue ret;
         if (node.isMap()) {
             final Map<String, ConfigValue> children = node.options().mapFactory().create();
-            for (Map.Entry<Object, ? extends ConfigurationNode> ent : node.childrenMap().entrySet()) {
-                children.put(String.valueOf(ent.getKey()), fromValue(ent.getValue()));
-            }
+            node.forEachChild((key, child) -> children.put(String.valueOf(key), fromValue(child)));
             ret = newConfigObject(children);
         } else if (node.isList()) {
-            final List<ConfigValue> children = new ArrayList<>();
+            final List<ConfigValue> children = new ArrayList<>(node.childCount());
             for (ConfigurationNode ent : node.childrenList()) {
                 children.add(fromValue(ent));
             }
@@ -30,6 +30,8 @@ import org.spongepowered.configurate.BasicConfigurationNode;
 import org.spongepowered.configurate.ConfigurateException;
 import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.ConfigurationOptions;
+import org.spongepowered.configurate.NodePath;
+import org.spongepowered.configurate.TreeBuilder;
 import org.spongepowered.configurate.loader.AbstractConfigurationLoader;
 import org.spongepowered.configurate.loader.CommentHandler;
 import org.spongepowered.configurate.loader.CommentHandlers;
@@ -39,7 +41,6 @@ import org.spongepowered.configurate.util.UnmodifiableCollections;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Writer;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -162,93 +163,94 @@ public final class JacksonConfigurationLoader extends AbstractConfigurationLoade
 
     @Override
     protected void loadInternal(final BasicConfigurationNode node, final BufferedReader reader) throws ParsingException {
+        final TreeBuilder<BasicConfigurationNode> builder = TreeBuilder.into(node);
         try (JsonParser parser = this.factory.createParser(reader)) {
             parser.nextToken();
-            parseValue(parser, node);
+            parseValue(parser, builder);
         } catch (final StreamReadException ex) {
-            throw newException(node, ex.getLocation(), ex.getRequestPayloadAsString(), ex.getMessage(), ex.getCause());
+            throw newException(node.path(), ex.getLocation(), ex.getRequestPayloadAsString(), ex.getMessage(), ex.getCause());
         } catch (final IOException ex) {
             throw ParsingException.wrap(node, ex);
         }
+        builder.finish();
     }
 
-    private static void parseValue(final JsonParser parser, final ConfigurationNode node) throws IOException {
+    private static void parseValue(final JsonParser parser, final TreeBuilder<?> builder) throws IOException {
         try {
             final JsonToken token = parser.getCurrentToken();
             switch (token) {
                 case START_OBJECT:
-                    parseObject(parser, node);
+                    parseObject(parser, builder);
                     break;
                 case START_ARRAY:
-                    parseArray(parser, node);
+                    parseArray(parser, builder);
                     break;
                 case VALUE_NUMBER_FLOAT:
                     final double doubleVal = parser.getDoubleValue();
                     if ((float) doubleVal != doubleVal) {
-                        node.raw(parser.getDoubleValue());
+                        builder.scalarDouble(doubleVal);
                     } else {
-                        node.raw(parser.getFloatValue());
+                        builder.scalar(parser.getFloatValue());
                     }
                     break;
                 case VALUE_NUMBER_INT:
                     final long longVal = parser.getLongValue();
                     if ((int) longVal != longVal) {
-                        node.raw(parser.getLongValue());
+                        builder.scalarLong(longVal);
                     } else {
-                        node.raw(parser.getIntValue());
+                        builder.scalarInt((int) longVal);
                     }
                     break;
                 case VALUE_STRING:
-                    node.raw(parser.getText());
+                    builder.scalar(parser.getText());
                     break;
                 case VALUE_TRUE:
                 case VALUE_FALSE:
-                    node.raw(parser.getBooleanValue());
+                    builder.scalarBoolean(parser.getBooleanValue());
                     break;
                 case VALUE_NULL: // Ignored values
                 case FIELD_NAME:
                     break;
                 default:
                     final JsonLocation loc = parser.getTokenLocation();
-                    throw new ParsingException(node, loc.getLineNr(), loc.getColumnNr(), parser.getText(), "Unsupported token type: " + token, null);
+                    final ParsingException ex = new ParsingException(loc.getLineNr(), loc.getColumnNr(), parser.getText(),
+                            "Unsupported token type: " + token, null);
+                    final NodePath path = builder.path();
+                    ex.initPath(() -> path);
+                    throw ex;
             }
         } catch (final StreamReadException ex) {
-            throw newException(node, ex.getLocation(), ex.getRequestPayloadAsString(), ex.getMessage(), ex.getCause());
+            throw newException(builder.path(), ex.getLocation(), ex.getRequestPayloadAsString(), ex.getMessage(), ex.getCause());
         }
     }
 
-    private static void parseArray(final JsonParser parser, final ConfigurationNode node) throws IOException {
-        boolean written = false;
+    private static void parseArray(final JsonParser parser, final TreeBuilder<?> builder) throws IOException {
+        builder.beginList();
         JsonToken token;
         while ((token = parser.nextToken()) != null) {
-            if (token == JsonToken.END_ARRAY) { // ensure the type is preserved
-                if (!written) {
-                    node.raw(Collections.emptyList());
-                }
+            if (token == JsonToken.END_ARRAY) {
+                builder.end();
                 return;
             } else {
-                parseValue(parser, node.appendListNode());
-                written = true;
+                parseValue(parser, builder);
             }
         }
-        throw newException(node, parser.getCurrentLocation(), null, "Reached end of stream with unclosed array!", null);
+        throw newException(builder.path(), parser.getCurrentLocation(), null, "Reached end of stream with unclosed array!", null);
     }
 
-    private static void parseObject(final JsonParser parser, final ConfigurationNode node) throws IOException {
-        boolean written = false;
+    private static void parseObject(final JsonParser parser, final TreeBuilder<?> builder) throws IOException {
+        builder.beginMap();
         JsonToken token;
         while ((token = parser.nextToken()) != null) {
-            if (token == JsonToken.END_OBJECT) { // ensure the type is preserved
-                if (!written) {
-                    node.raw(Collections.emptyMap());
-                }
+            if (token == JsonToken.END_OBJECT) {
+                builder.end();
                 return;
             } else {
-                parseValue(parser, node.node(parser.getCurrentName()));
-                written = true;
+                builder.key(parser.getCurrentName());
+                parseValue(parser, builder);
             }
         }
-        throw newException(node, parser.getCurrentLocation(), null, "Reached end of stream with unclosed object!", null);
+        throw newException(builder.path(), parser.getCurrentLocation(), null, "Reached end of stream with unclosed object!", null);
     }
 
     @Override
@@ -267,7 +269,7 @@ public final class JacksonConfigurationLoader extends AbstractConfigurationLoade
         return BasicConfigurationNode.root(options.nativeTypes(NATIVE_TYPES));
     }
 
-    private static ParsingException newException(final ConfigurationNode node,
+    private static ParsingException newException(final NodePath path,
             final JsonLocation position,
             final @Nullable String content,
             final @Nullable String message,
@@ -290,7 +292,9 @@ public final class JacksonConfigurationLoader extends AbstractConfigurationLoade
         // no newline: set to length
         // too long: truncate
         // otherwise: trim to position of next newline
-        return new ParsingException(node, position.getLineNr(), position.getColumnNr(), context, message, cause);
+        final ParsingException ret = new ParsingException(position.getLineNr(), position.getColumnNr(), context, message, cause);
+        ret.initPath(() -> path);
+        return ret;
     }
 
 }
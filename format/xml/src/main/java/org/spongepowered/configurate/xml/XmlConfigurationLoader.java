@@ -23,6 +23,7 @@ import org.spongepowered.configurate.CommentedConfigurationNodeIntermediary;
 import org.spongepowered.configurate.ConfigurateException;
 import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.ConfigurationOptions;
+import org.spongepowered.configurate.TreeBuilder;
 import org.spongepowered.configurate.loader.AbstractConfigurationLoader;
 import org.spongepowered.configurate.loader.CommentHandler;
 import org.spongepowered.configurate.loader.CommentHandlers;
@@ -376,9 +377,9 @@ public final class XmlConfigurationLoader extends AbstractConfigurationLoader<At
                 if (child.getNodeType() == Node.COMMENT_NODE) {
                     options = options.header(unwrapHeader(child.getTextContent().trim()));
                 } else if (child.getNodeType() == Node.ELEMENT_NODE) {
-                    final AttributedConfigurationNode node = createNode(options);
-                    readElement(child, node);
-                    return node;
+                    final TreeBuilder<AttributedConfigurationNode> builder = TreeBuilder.into(createNode(options));
+                    readElement(child, builder);
+                    return builder.finish();
                 }
             }
             // empty document, fall through
@@ -427,8 +428,9 @@ public final class XmlConfigurationLoader extends AbstractConfigurationLoader<At
         MAP, LIST
     }
 
-    private void readElement(final Node from, final AttributedConfigurationNode to) {
+    private void readElement(final Node from, final TreeBuilder<AttributedConfigurationNode> builder) {
         @Nullable NodeType type = null;
+        final AttributedConfigurationNode to = builder.node();
 
         // copy the name of the tag
         to.tagName(from.getNodeName());
@@ -464,6 +466,7 @@ public final class XmlConfigurationLoader extends AbstractConfigurationLoader<At
 
         // read out the child nodes into a multimap
         final Map<String, Collection<Node>> children = new LinkedHashMap<>();
+        int elementCount = 0;
         if (from.hasChildNodes()) {
             final StringBuilder comment = new StringBuilder();
             final NodeList childNodes = from.getChildNodes();
@@ -471,6 +474,7 @@ public final class XmlConfigurationLoader extends AbstractConfigurationLoader<At
                 final Node child = childNodes.item(i);
                 if (child.getNodeType() == Node.ELEMENT_NODE) {
                     children.computeIfAbsent(child.getNodeName(), $ -> new ArrayList<>()).add(child);
+                    elementCount++;
                     if (comment.length() > 0) {
                         child.setUserData(USER_DATA_COMMENT, comment.toString(), null);
                         comment.setLength(0);
@@ -487,7 +491,7 @@ public final class XmlConfigurationLoader extends AbstractConfigurationLoader<At
 
         // if there are no child nodes present, assume it's a scalar value
         if (children.isEmpty()) {
-            to.raw(parseValue(from.getTextContent()));
+            builder.scalar(parseValue(from.getTextContent()));
             return;
         }
 
@@ -505,24 +509,22 @@ public final class XmlConfigurationLoader extends AbstractConfigurationLoader<At
         }
 
         if (type == NodeType.MAP) {
-            to.raw(Collections.emptyMap());
+            builder.beginMap(children.size());
         } else {
-            to.raw(Collections.emptyList());
+            builder.beginList(elementCount);
         }
 
         // read out the elements
         for (Map.Entry<String, Collection<Node>> entry : children.entrySet()) {
-            AttributedConfigurationNode child;
             if (type == NodeType.MAP) {
-                child = to.node(entry.getKey());
-                readElement(entry.getValue().iterator().next(), child);
+                readElement(entry.getValue().iterator().next(), builder.key(entry.getKey()));
             } else {
                 for (Node element : entry.getValue()) {
-                    child = to.appendListNode();
-                    readElement(element, child);
+                    readElement(element, builder);
                 }
             }
         }
+        builder.end();
     }
 
     @Override
@@ -587,10 +589,10 @@ public final class XmlConfigurationLoader extends AbstractConfigurationLoader<At
         }
 
         if (node.isMap()) {
-            for (final Map.Entry<Object, ? extends ConfigurationNode> child : node.childrenMap().entrySet()) {
-                appendCommentIfNecessary(element, child.getValue());
-                element.appendChild(writeNode(document, child.getValue(), child.getKey().toString()));
-            }
+            node.forEachChild((key, child) -> {
+                appendCommentIfNecessary(element, child);
+                element.appendChild(writeNode(document, child, key.toString()));
+            });
         } else if (node.isList()) {
             if (this.writeExplicitType) {
                 element.setAttribute(ATTRIBUTE_TYPE, "list");
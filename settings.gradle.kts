@@ -11,7 +11,7 @@ listOf("core", "tool", "bom", "examples").forEach {
 }
 
 // formats
-listOf("gson", "hocon", "jackson", "xml", "yaml").forEach {
+listOf("binary", "gson", "hocon", "jackson", "xml", "yaml").forEach {
     include(":format:$it")
     // findProject(":format:$it")?.name = "$prefix-$it"
 }